@@ -0,0 +1,930 @@
+package com.inventory.catalog;
+
+import com.inventory.collection.ConcurrentLongBitSet;
+import com.inventory.collection.ConcurrentLongObjectMap;
+import com.inventory.collection.LongArrayList;
+import com.inventory.collection.LongHashSet;
+import com.inventory.collection.LongObjectHashMap;
+import com.inventory.dto.CategoryResponse;
+import com.inventory.dto.InventoryValuationReport.CategoryValuation;
+import com.inventory.dto.ProductFacetsResponse;
+import com.inventory.dto.ProductResponse;
+import com.inventory.event.CategoryChangedEvent;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.money.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * In-memory projection of the whole catalog for the read endpoints, so a
+ * lookup is a map access instead of a transaction, a query and entity
+ * hydration.
+ *
+ * <p>Entries are immutable and replaced on every change, so readers never
+ * lock. One writer lock keeps the secondary indexes (SKU, category, status,
+ * low stock, facets) in step with the entries; readers still re-check each entry
+ * against the index they found it through, because for a moment an index may
+ * list a product that has just moved elsewhere.
+ *
+ * <p>At startup the catalog is read by {@code loaders} threads, one id range
+ * each, into a fresh set of indexes that replaces the current set in one
+ * step. It is then kept current from {@link ProductChangedEvent} and
+ * {@link CategoryChangedEvent} after commit. Every {@code refresh-interval}
+ * rows with a newer {@code updated_at} are picked up, which covers writes made
+ * outside the services (forecast auto-apply, other nodes). Every
+ * {@code reconcile-interval} the ids in the database are walked against the
+ * model, which drops rows deleted on other nodes. Changes that arrive while a
+ * load runs are replayed once it finishes.
+ *
+ * <p>With a {@code snapshot-file} the model is written to a
+ * {@link CatalogSnapshot} every {@code snapshot-interval} and on shutdown. A
+ * restart maps that file instead of reading the catalog from the database:
+ * only the index keys are read from it, and products unchanged since stay in
+ * the mapping, decoded on each read. The snapshot is used only if the
+ * database's highest {@code updated_at} has not gone back behind the file's;
+ * rows changed since the file's watermark are then read from the database and
+ * the id walk drops rows deleted since.
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class CatalogReadModel {
+
+    private static final String SELECT_PRODUCTS = "SELECT p.id, p.sku, p.name, p.description, p.price, "
+            + "p.quantity, p.reorder_level, p.status, p.category_id, p.created_at, p.updated_at FROM products p ";
+    private static final String SELECT_CATEGORIES =
+            "SELECT id, name, description, created_at, updated_at FROM categories ";
+    // Ids start at 1, so 0 stands in for a missing category without boxing
+    private static final long NO_CATEGORY = 0;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryTree categoryTree;
+    private final PriceBands priceBands;
+    private final boolean enabled;
+    private final int loaders;
+    private final long overlapMillis;
+    private final Path snapshotFile;
+
+    private final Object writeLock = new Object();
+    // Null until the first load completes
+    private volatile Indexes indexes;
+    // Guarded by writeLock; non-null while a load or refresh is running
+    private LongHashSet changedProducts;
+    private LongHashSet changedCategories;
+    private LocalDateTime watermark;
+
+    public CatalogReadModel(JdbcTemplate jdbcTemplate,
+                            CategoryTree categoryTree,
+                            PriceBands priceBands,
+                            @Value("${inventory.read-model.enabled:false}") boolean enabled,
+                            @Value("${inventory.read-model.loaders:4}") int loaders,
+                            @Value("${inventory.read-model.refresh-overlap:5000}") long overlapMillis,
+                            @Value("${inventory.read-model.snapshot-file:}") String snapshotFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.categoryTree = categoryTree;
+        this.priceBands = priceBands;
+        this.enabled = enabled;
+        this.loaders = Math.max(1, loaders);
+        this.overlapMillis = overlapMillis;
+        this.snapshotFile = snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+    }
+
+    /** Whether {@code inventory.read-model.enabled} is set, loaded or not. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** True once the catalog has been loaded; until then reads go to the database. */
+    public boolean isReady() {
+        return indexes != null;
+    }
+
+    public ProductResponse findProduct(long id) {
+        Indexes current = indexes;
+        Entry entry = current.products.get(id);
+        return entry != null ? current.toResponse(entry) : null;
+    }
+
+    public ProductResponse findProductBySku(String sku) {
+        Indexes current = indexes;
+        Long id = current.bySku.get(sku);
+        Entry entry = id != null ? current.products.get(id) : null;
+        return entry != null && entry.sku.equals(sku) ? current.toResponse(entry) : null;
+    }
+
+    public List<ProductResponse> findAllProducts() {
+        Indexes current = indexes;
+        List<ProductResponse> products = new ArrayList<>(current.products.size());
+        current.products.forEach(entry -> products.add(current.toResponse(entry)));
+        return products;
+    }
+
+    public List<ProductResponse> findProductsByCategory(long categoryId, boolean includeSubcategories) {
+        Indexes current = indexes;
+        if (!includeSubcategories) {
+            return collect(current, current.byCategory.get(categoryId), entry -> entry.categoryId == categoryId);
+        }
+        List<ProductResponse> products = new ArrayList<>();
+        categoryTree.subtree(categoryId).forEach(id -> products.addAll(
+                collect(current, current.byCategory.get(id), entry -> entry.categoryId == id)));
+        return products;
+    }
+
+    public List<ProductResponse> findProductsByStatus(String status) {
+        Indexes current = indexes;
+        return collect(current, current.byStatus.get(status), entry -> entry.status.equals(status));
+    }
+
+    public List<ProductResponse> findLowStockProducts() {
+        Indexes current = indexes;
+        return collect(current, current.lowStock, entry -> entry.lowStock);
+    }
+
+    /** Case-insensitive substring match on name or description, like the repository query. */
+    public List<ProductResponse> searchProducts(String keyword) {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        byte[] asciiNeedle = CatalogSnapshot.asciiNeedle(needle);
+        Indexes current = indexes;
+        List<ProductResponse> products = new ArrayList<>();
+        current.products.forEach(entry -> {
+            if (entry.matches(needle, asciiNeedle)) {
+                products.add(current.toResponse(entry));
+            }
+        });
+        return products;
+    }
+
+    public CategoryResponse findCategory(long id) {
+        Indexes current = indexes;
+        CategoryEntry category = current.categories.get(id);
+        return category != null ? toResponse(current, category) : null;
+    }
+
+    public List<CategoryResponse> findAllCategories() {
+        Indexes current = indexes;
+        List<CategoryResponse> categories = new ArrayList<>(current.categories.size());
+        current.categories.forEach(category -> categories.add(toResponse(current, category)));
+        return categories;
+    }
+
+    /**
+     * A page of the products matching every facet filter, in id order, and
+     * the product count of each facet value, from the facet bitmaps.
+     */
+    public ProductFacetsResponse findFacets(FacetFilter filter) {
+        Indexes current = indexes;
+        FacetIndex.Result result = current.facets.query(filter);
+        List<Long> ids = result.page(filter.afterId(), filter.limit());
+        List<ProductResponse> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entry entry = current.products.get(id);
+            if (entry != null) {
+                products.add(current.toResponse(entry));
+            }
+        }
+        Long nextAfterId = null;
+        if (ids.size() == filter.limit() && result.hasMoreAfter(ids.get(ids.size() - 1))) {
+            nextAfterId = ids.get(ids.size() - 1);
+        }
+        if (filter.includeSubcategories()) {
+            result.counts().rollUpCategories(categoryTree);
+        }
+        return result.counts().toResponse(result.total(), products, nextAfterId, categoryId -> {
+            CategoryEntry category = current.categories.get(categoryId);
+            return category != null ? category.name : null;
+        });
+    }
+
+    /**
+     * Product count, units and stock value per category and status, as the
+     * valuation report's query groups them, ordered by category name and
+     * status. Stock values are summed in cents and converted once per group.
+     */
+    public List<CategoryValuation> valuation() {
+        Indexes current = indexes;
+        LongObjectHashMap<Map<String, long[]>> groups = new LongObjectHashMap<>();
+        current.products.forEach(entry -> {
+            Map<String, long[]> byStatus = groups.get(entry.categoryId);
+            if (byStatus == null) {
+                byStatus = new HashMap<>();
+                groups.put(entry.categoryId, byStatus);
+            }
+            // {products, units, stock value in cents}
+            long[] totals = byStatus.computeIfAbsent(entry.status, status -> new long[3]);
+            int quantity = entry.quantity();
+            totals[0]++;
+            totals[1] += quantity;
+            totals[2] = Math.addExact(totals[2], Money.times(entry.priceMinorUnits(), quantity));
+        });
+        List<CategoryValuation> valuation = new ArrayList<>();
+        groups.forEach((byStatus, categoryId) -> {
+            CategoryEntry category = categoryId != NO_CATEGORY ? current.categories.get(categoryId) : null;
+            byStatus.forEach((status, totals) -> valuation.add(new CategoryValuation(
+                    categoryId != NO_CATEGORY ? categoryId : null, category != null ? category.name : null, status,
+                    totals[0], totals[1], Money.toBigDecimal(totals[2]))));
+        });
+        valuation.sort(Comparator.comparing(CategoryValuation::getCategoryName,
+                        Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(CategoryValuation::getStatus));
+        return valuation;
+    }
+
+    // After commit, so rolled-back writes never reach the model
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (enabled) {
+            reloadProduct(event.getProductId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (enabled) {
+            reloadCategory(event.getCategoryId());
+        }
+    }
+
+    // Readiness is reported only after this returns, so a node takes traffic with a warm model
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled && !loadSnapshot()) {
+            rebuild();
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        if (enabled && snapshotFile != null && isReady()) {
+            writeSnapshot();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.read-model.reconcile-interval:3600000}",
+            initialDelayString = "${inventory.read-model.reconcile-interval:3600000}")
+    public void scheduledReconcile() {
+        if (enabled && isReady()) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.read-model.snapshot-interval:900000}",
+            initialDelayString = "${inventory.read-model.snapshot-interval:900000}")
+    public void scheduledSnapshot() {
+        if (enabled && snapshotFile != null && isReady()) {
+            writeSnapshot();
+        }
+    }
+
+    /** Loads the whole catalog in parallel and swaps it in. */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        LocalDateTime loadStart = LocalDateTime.now();
+        startTracking();
+
+        Indexes loaded = new Indexes(priceBands);
+        try {
+            jdbcTemplate.query(SELECT_CATEGORIES, (ResultSet rs) -> {
+                loaded.putCategory(mapCategory(rs));
+            });
+            loadProducts(loaded);
+        } catch (RuntimeException e) {
+            stopTracking();
+            throw e;
+        }
+
+        install(loaded, loadStart);
+        log.info("Catalog read model loaded {} products in {} categories in {} ms",
+                loaded.products.size(), loaded.categories.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Maps the snapshot file and brings it up to date with the database.
+     *
+     * @return false if there is no usable snapshot and the catalog must be loaded in full
+     */
+    public synchronized boolean loadSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        CatalogSnapshot snapshot;
+        try {
+            snapshot = CatalogSnapshot.open(snapshotFile);
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Ignoring catalog snapshot {}: {}", snapshotFile, e.getMessage());
+            return false;
+        }
+        // A database restored from backup or replaced is behind the file
+        LocalDateTime fileHighWaterMark = snapshot.highWaterMark();
+        LocalDateTime databaseHighWaterMark = jdbcTemplate.queryForObject(
+                "SELECT MAX(updated_at) FROM products", LocalDateTime.class);
+        if (fileHighWaterMark != null
+                && (databaseHighWaterMark == null || databaseHighWaterMark.isBefore(fileHighWaterMark))) {
+            log.warn("Ignoring catalog snapshot {}: written at {}, but the database only reaches {}",
+                    snapshotFile, fileHighWaterMark, databaseHighWaterMark);
+            return false;
+        }
+
+        startTracking();
+        Indexes loaded = new Indexes(priceBands);
+        for (CategoryResponse category : snapshot.categories()) {
+            loaded.putCategory(new CategoryEntry(category.getId(), category.getName(), category.getDescription(),
+                    category.getCreatedAt(), category.getUpdatedAt()));
+        }
+        Map<String, String> statuses = new HashMap<>();
+        for (int i = 0; i < snapshot.productCount(); i++) {
+            loaded.putProduct(new SnapshotEntry(snapshot, i, statuses));
+        }
+        install(loaded, snapshot.watermark());
+        long mapped = (System.nanoTime() - start) / 1_000_000;
+
+        refresh();
+        int removed = reconcile();
+        log.info("Catalog read model mapped {} products from {} in {} ms; caught up in {} ms, {} deleted since",
+                snapshot.productCount(), snapshotFile, mapped, (System.nanoTime() - start) / 1_000_000 - mapped,
+                removed);
+        return true;
+    }
+
+    /** Writes the current model to the snapshot file. */
+    public synchronized void writeSnapshot() {
+        long start = System.nanoTime();
+        Indexes current;
+        LocalDateTime written;
+        synchronized (writeLock) {
+            current = indexes;
+            written = watermark;
+        }
+        // Everything changed before the watermark is in the entries; later changes may or may not be
+        List<Entry> entries = current.products.values();
+        List<ProductResponse> products = new AbstractList<>() {
+            @Override
+            public ProductResponse get(int index) {
+                return current.toResponse(entries.get(index));
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        };
+        List<CategoryResponse> categories = new ArrayList<>(current.categories.size());
+        current.categories.forEach(category -> categories.add(category.toResponse(null, null, 0)));
+        try {
+            CatalogSnapshot.write(snapshotFile, products, categories, written);
+            log.info("Catalog snapshot of {} products written to {} in {} ms", entries.size(), snapshotFile,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write catalog snapshot {}: {}", snapshotFile, e.toString());
+        }
+    }
+
+    /** Applies rows updated since the last load or refresh, less the overlap for clock skew. */
+    @Scheduled(fixedDelayString = "${inventory.read-model.refresh-interval:10000}",
+            initialDelayString = "${inventory.read-model.refresh-interval:10000}")
+    public synchronized void refresh() {
+        LocalDateTime since;
+        synchronized (writeLock) {
+            if (indexes == null) {
+                return;
+            }
+            since = watermark.minus(overlapMillis, ChronoUnit.MILLIS);
+        }
+        LocalDateTime refreshStart = LocalDateTime.now();
+        startTracking();
+
+        List<CategoryEntry> categoryRows;
+        List<Entry> productRows;
+        try {
+            Timestamp after = Timestamp.valueOf(since);
+            categoryRows = jdbcTemplate.query(SELECT_CATEGORIES + "WHERE updated_at > ?",
+                    (rs, rowNum) -> mapCategory(rs), after);
+            productRows = jdbcTemplate.query(SELECT_PRODUCTS + "WHERE p.updated_at > ?",
+                    (rs, rowNum) -> mapProduct(rs), after);
+        } catch (RuntimeException e) {
+            stopTracking();
+            throw e;
+        }
+
+        synchronized (writeLock) {
+            Indexes current = indexes;
+            // Rows changed meanwhile were already applied from their events, and are newer
+            for (CategoryEntry category : categoryRows) {
+                if (!changedCategories.contains(category.id)) {
+                    current.putCategory(category);
+                }
+            }
+            for (Entry entry : productRows) {
+                if (!changedProducts.contains(entry.id)) {
+                    current.putProductIfNotOlder(entry);
+                }
+            }
+            watermark = refreshStart;
+            changedProducts = null;
+            changedCategories = null;
+        }
+        if (!productRows.isEmpty() || !categoryRows.isEmpty()) {
+            log.debug("Catalog read model refreshed {} products and {} categories",
+                    productRows.size(), categoryRows.size());
+        }
+    }
+
+    // Swaps in freshly loaded indexes and replays what changed while they were loading
+    private void install(Indexes loaded, LocalDateTime loadedAt) {
+        LongHashSet products;
+        LongHashSet categories;
+        synchronized (writeLock) {
+            indexes = loaded;
+            watermark = loadedAt;
+            products = changedProducts;
+            categories = changedCategories;
+            changedProducts = null;
+            changedCategories = null;
+        }
+        // Applied to the previous indexes while loading; the new ones may predate them
+        categories.forEach(this::reloadCategory);
+        products.forEach(this::reloadProduct);
+    }
+
+    /**
+     * Walks the ids in the database against the ids in the model: drops rows
+     * deleted elsewhere and loads any the refresh missed.
+     *
+     * @return the number of products dropped
+     */
+    public synchronized int reconcile() {
+        startTracking();
+        Indexes current = indexes;
+        LongArrayList known = current.products.keys();
+        LongArrayList deleted = new LongArrayList();
+        LongArrayList missing = new LongArrayList();
+        LongHashSet categoryIds = new LongHashSet(current.categories.size());
+        try {
+            int[] cursor = {0};
+            jdbcTemplate.query("SELECT id FROM products ORDER BY id", (ResultSet rs) -> {
+                long id = rs.getLong(1);
+                while (cursor[0] < known.size() && known.get(cursor[0]) < id) {
+                    deleted.add(known.get(cursor[0]++));
+                }
+                if (cursor[0] < known.size() && known.get(cursor[0]) == id) {
+                    cursor[0]++;
+                } else {
+                    missing.add(id);
+                }
+            });
+            while (cursor[0] < known.size()) {
+                deleted.add(known.get(cursor[0]++));
+            }
+            jdbcTemplate.query("SELECT id FROM categories", (ResultSet rs) -> {
+                categoryIds.add(rs.getLong(1));
+            });
+        } catch (RuntimeException e) {
+            stopTracking();
+            throw e;
+        }
+
+        synchronized (writeLock) {
+            for (int i = 0; i < deleted.size(); i++) {
+                long id = deleted.get(i);
+                if (!changedProducts.contains(id)) {
+                    current.removeProduct(id);
+                }
+            }
+            LongArrayList cached = current.categories.keys();
+            for (int i = 0; i < cached.size(); i++) {
+                long id = cached.get(i);
+                if (!categoryIds.contains(id) && !changedCategories.contains(id)) {
+                    current.categories.remove(id);
+                }
+            }
+            changedProducts = null;
+            changedCategories = null;
+        }
+        missing.forEach(this::reloadProduct);
+        return deleted.size();
+    }
+
+    private void loadProducts(Indexes target) {
+        Map<String, Object> range = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM products");
+        if (range.get("min_id") == null) {
+            return;
+        }
+        long min = ((Number) range.get("min_id")).longValue();
+        long max = ((Number) range.get("max_id")).longValue();
+        long span = (max - min) / loaders + 1;
+
+        AtomicInteger thread = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(loaders,
+                runnable -> new Thread(runnable, "catalog-loader-" + thread.incrementAndGet()));
+        try {
+            List<CompletableFuture<Void>> parts = new ArrayList<>();
+            for (long from = min; from <= max; from += span) {
+                long lower = from;
+                long upper = Math.min(max, from + span - 1);
+                parts.add(CompletableFuture.runAsync(() -> jdbcTemplate.query(
+                        SELECT_PRODUCTS + "WHERE p.id BETWEEN ? AND ?",
+                        (ResultSet rs) -> {
+                            target.putProduct(mapProduct(rs));
+                        }, lower, upper), pool));
+            }
+            CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void reloadProduct(long id) {
+        List<Entry> rows = jdbcTemplate.query(SELECT_PRODUCTS + "WHERE p.id = ?", (rs, rowNum) -> mapProduct(rs), id);
+        synchronized (writeLock) {
+            if (changedProducts != null) {
+                changedProducts.add(id);
+            }
+            Indexes current = indexes;
+            if (current == null) {
+                return;
+            }
+            if (rows.isEmpty()) {
+                current.removeProduct(id);
+            } else {
+                current.putProductIfNotOlder(rows.get(0));
+            }
+        }
+    }
+
+    private void reloadCategory(long id) {
+        List<CategoryEntry> rows = jdbcTemplate.query(SELECT_CATEGORIES + "WHERE id = ?",
+                (rs, rowNum) -> mapCategory(rs), id);
+        synchronized (writeLock) {
+            if (changedCategories != null) {
+                changedCategories.add(id);
+            }
+            Indexes current = indexes;
+            if (current == null) {
+                return;
+            }
+            if (rows.isEmpty()) {
+                // Products cascade with their category
+                Set<Long> members = current.byCategory.get(id);
+                if (members != null) {
+                    for (Long productId : new ArrayList<>(members)) {
+                        if (changedProducts != null) {
+                            changedProducts.add(productId);
+                        }
+                        current.removeProduct(productId);
+                    }
+                }
+                current.categories.remove(id);
+            } else {
+                current.putCategory(rows.get(0));
+            }
+        }
+    }
+
+    private void startTracking() {
+        synchronized (writeLock) {
+            changedProducts = new LongHashSet();
+            changedCategories = new LongHashSet();
+        }
+    }
+
+    private void stopTracking() {
+        synchronized (writeLock) {
+            changedProducts = null;
+            changedCategories = null;
+        }
+    }
+
+    // Hierarchy from the category tree; products in the category and everything below it
+    private CategoryResponse toResponse(Indexes current, CategoryEntry category) {
+        LongArrayList subtree = categoryTree.subtree(category.id);
+        int productCount = subtree.isEmpty() ? current.productCount(category.id) : 0;
+        for (int i = 0; i < subtree.size(); i++) {
+            productCount += current.productCount(subtree.get(i));
+        }
+        return category.toResponse(categoryTree.parentId(category.id), categoryTree.depth(category.id), productCount);
+    }
+
+    private static List<ProductResponse> collect(Indexes current, Set<Long> ids, Predicate<Entry> stillMatches) {
+        List<ProductResponse> products = new ArrayList<>();
+        if (ids == null) {
+            return products;
+        }
+        for (Long id : ids) {
+            Entry entry = current.products.get(id);
+            if (entry != null && stillMatches.test(entry)) {
+                products.add(current.toResponse(entry));
+            }
+        }
+        return products;
+    }
+
+    private static List<ProductResponse> collect(Indexes current, ConcurrentLongBitSet ids,
+                                                 Predicate<Entry> stillMatches) {
+        List<ProductResponse> products = new ArrayList<>();
+        if (ids == null) {
+            return products;
+        }
+        ids.forEach(id -> {
+            Entry entry = current.products.get(id);
+            if (entry != null && stillMatches.test(entry)) {
+                products.add(current.toResponse(entry));
+            }
+        });
+        return products;
+    }
+
+    private static Entry mapProduct(ResultSet rs) throws SQLException {
+        return new HeapEntry(rs.getLong("id"), rs.getString("sku"), rs.getString("name"),
+                rs.getString("description"), Money.toMinorUnits(rs.getBigDecimal("price")), rs.getInt("quantity"),
+                rs.getInt("reorder_level"), rs.getLong("category_id"), rs.getString("status"),
+                rs.getObject("created_at", LocalDateTime.class), rs.getObject("updated_at", LocalDateTime.class));
+    }
+
+    private static CategoryEntry mapCategory(ResultSet rs) throws SQLException {
+        return new CategoryEntry(rs.getLong("id"), rs.getString("name"), rs.getString("description"),
+                rs.getObject("created_at", LocalDateTime.class), rs.getObject("updated_at", LocalDateTime.class));
+    }
+
+    /**
+     * One consistent set of entries and indexes; replaced as a whole by a load.
+     * Ids are dense, so entries are looked up by position without boxing, and
+     * status and low-stock membership are bitsets. Category membership stays a
+     * skip list: a bitset per category costs more when its ids are scattered.
+     */
+    private static final class Indexes {
+        final ConcurrentLongObjectMap<Entry> products = new ConcurrentLongObjectMap<>();
+        final ConcurrentHashMap<String, Long> bySku = new ConcurrentHashMap<>();
+        final ConcurrentLongObjectMap<Set<Long>> byCategory = new ConcurrentLongObjectMap<>();
+        final ConcurrentLongObjectMap<AtomicInteger> categorySizes = new ConcurrentLongObjectMap<>();
+        final ConcurrentHashMap<String, ConcurrentLongBitSet> byStatus = new ConcurrentHashMap<>();
+        final ConcurrentLongBitSet lowStock = new ConcurrentLongBitSet();
+        final ConcurrentLongObjectMap<CategoryEntry> categories = new ConcurrentLongObjectMap<>();
+        final FacetIndex facets;
+
+        Indexes(PriceBands priceBands) {
+            facets = new FacetIndex(priceBands);
+        }
+
+        // New index entries go in before stale ones come out, so a reader never misses a product
+        void putProduct(Entry entry) {
+            Entry previous = products.put(entry.id, entry);
+            index(entry);
+            if (previous != null) {
+                unindex(previous, entry);
+            }
+            facets.update(previous, entry);
+        }
+
+        // Rows are read outside the lock, so one read before a later commit can arrive after it
+        void putProductIfNotOlder(Entry entry) {
+            Entry previous = products.get(entry.id);
+            if (previous != null && previous.updatedAt() != null && entry.updatedAt() != null
+                    && entry.updatedAt().isBefore(previous.updatedAt())) {
+                return;
+            }
+            putProduct(entry);
+        }
+
+        void removeProduct(long id) {
+            Entry previous = products.remove(id);
+            if (previous != null) {
+                unindex(previous, null);
+                facets.update(previous, null);
+            }
+        }
+
+        void putCategory(CategoryEntry category) {
+            categories.put(category.id, category);
+        }
+
+        int productCount(long categoryId) {
+            AtomicInteger size = categorySizes.get(categoryId);
+            return size != null ? size.get() : 0;
+        }
+
+        // Category names are looked up on read, so a rename needs no product rewrites
+        ProductResponse toResponse(Entry entry) {
+            CategoryEntry category = entry.categoryId != NO_CATEGORY ? categories.get(entry.categoryId) : null;
+            return entry.toResponse(category != null ? category.name : null);
+        }
+
+        private void index(Entry entry) {
+            bySku.put(entry.sku, entry.id);
+            if (entry.categoryId != NO_CATEGORY && byCategory.computeIfAbsent(entry.categoryId,
+                    key -> new ConcurrentSkipListSet<>()).add(entry.id)) {
+                categorySizes.computeIfAbsent(entry.categoryId, key -> new AtomicInteger()).incrementAndGet();
+            }
+            byStatus.computeIfAbsent(entry.status, key -> new ConcurrentLongBitSet()).add(entry.id);
+            if (entry.lowStock) {
+                lowStock.add(entry.id);
+            }
+        }
+
+        // Drops what the previous version was indexed under and the current one (null if removed) is not
+        private void unindex(Entry previous, Entry current) {
+            if (current == null || !previous.sku.equals(current.sku)) {
+                bySku.remove(previous.sku, previous.id);
+            }
+            if (previous.categoryId != NO_CATEGORY && (current == null || previous.categoryId != current.categoryId)) {
+                Set<Long> members = byCategory.get(previous.categoryId);
+                if (members != null && members.remove(previous.id)) {
+                    categorySizes.get(previous.categoryId).decrementAndGet();
+                }
+            }
+            if (current == null || !previous.status.equals(current.status)) {
+                ConcurrentLongBitSet members = byStatus.get(previous.status);
+                if (members != null) {
+                    members.remove(previous.id);
+                }
+            }
+            if (previous.lowStock && (current == null || !current.lowStock)) {
+                lowStock.remove(previous.id);
+            }
+        }
+    }
+
+    /** What the indexes need of a product; the rest is up to the representation. */
+    private abstract static class Entry implements FacetIndex.Faceted {
+        final long id;
+        final String sku;
+        // NO_CATEGORY if none
+        final long categoryId;
+        final String status;
+        final boolean lowStock;
+
+        Entry(long id, String sku, long categoryId, String status, boolean lowStock) {
+            this.id = id;
+            this.sku = sku;
+            this.categoryId = categoryId;
+            this.status = status;
+            this.lowStock = lowStock;
+        }
+
+        @Override
+        public long id() {
+            return id;
+        }
+
+        @Override
+        public long categoryId() {
+            return categoryId;
+        }
+
+        @Override
+        public String status() {
+            return status;
+        }
+
+        abstract LocalDateTime updatedAt();
+
+        abstract boolean matches(String needle, byte[] asciiNeedle);
+
+        // A new response per read; callers are free to modify it
+        abstract ProductResponse toResponse(String categoryName);
+    }
+
+    /** A product read from the database since the last load. */
+    private static final class HeapEntry extends Entry {
+        final String name;
+        final String description;
+        final long priceMinorUnits;
+        final int quantity;
+        final int reorderLevel;
+        final LocalDateTime createdAt;
+        final LocalDateTime updatedAt;
+        final String lowerName;
+        final String lowerDescription;
+
+        HeapEntry(long id, String sku, String name, String description, long priceMinorUnits, int quantity,
+                  int reorderLevel, long categoryId, String status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+            super(id, sku, categoryId, status, quantity <= reorderLevel);
+            this.name = name;
+            this.description = description;
+            this.priceMinorUnits = priceMinorUnits;
+            this.quantity = quantity;
+            this.reorderLevel = reorderLevel;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+            this.lowerName = name.toLowerCase(Locale.ROOT);
+            this.lowerDescription = description != null ? description.toLowerCase(Locale.ROOT) : null;
+        }
+
+        @Override
+        public long priceMinorUnits() {
+            return priceMinorUnits;
+        }
+
+        @Override
+        public int quantity() {
+            return quantity;
+        }
+
+        @Override
+        LocalDateTime updatedAt() {
+            return updatedAt;
+        }
+
+        @Override
+        boolean matches(String needle, byte[] asciiNeedle) {
+            return lowerName.contains(needle) || (lowerDescription != null && lowerDescription.contains(needle));
+        }
+
+        @Override
+        ProductResponse toResponse(String categoryName) {
+            return new ProductResponse(id, sku, name, description, Money.toBigDecimal(priceMinorUnits), quantity,
+                    reorderLevel, categoryId != NO_CATEGORY ? categoryId : null, categoryName, status,
+                    createdAt, updatedAt);
+        }
+    }
+
+    /** A product unchanged since the snapshot; everything but the index keys stays in the mapping. */
+    private static final class SnapshotEntry extends Entry {
+        final CatalogSnapshot snapshot;
+        final int index;
+
+        SnapshotEntry(CatalogSnapshot snapshot, int index, Map<String, String> statuses) {
+            super(snapshot.productId(index), snapshot.sku(index), snapshot.categoryId(index),
+                    statuses.computeIfAbsent(snapshot.status(index), status -> status),
+                    snapshot.quantity(index) <= snapshot.reorderLevel(index));
+            this.snapshot = snapshot;
+            this.index = index;
+        }
+
+        @Override
+        public long priceMinorUnits() {
+            return snapshot.priceMinorUnits(index);
+        }
+
+        @Override
+        public int quantity() {
+            return snapshot.quantity(index);
+        }
+
+        @Override
+        LocalDateTime updatedAt() {
+            return snapshot.updatedAt(index);
+        }
+
+        @Override
+        boolean matches(String needle, byte[] asciiNeedle) {
+            return snapshot.productMatches(index, needle, asciiNeedle);
+        }
+
+        @Override
+        ProductResponse toResponse(String categoryName) {
+            return snapshot.product(index, categoryName);
+        }
+    }
+
+    private static final class CategoryEntry {
+        final long id;
+        final String name;
+        final String description;
+        final LocalDateTime createdAt;
+        final LocalDateTime updatedAt;
+
+        CategoryEntry(long id, String name, String description, LocalDateTime createdAt, LocalDateTime updatedAt) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+        }
+
+        CategoryResponse toResponse(Long parentId, Integer depth, int productCount) {
+            return new CategoryResponse(id, name, description, parentId, depth, productCount, createdAt, updatedAt);
+        }
+    }
+}
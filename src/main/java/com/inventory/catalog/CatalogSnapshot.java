@@ -0,0 +1,377 @@
+package com.inventory.catalog;
+
+import com.inventory.dto.CategoryResponse;
+import com.inventory.dto.ProductResponse;
+import com.inventory.money.Money;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Binary snapshot of the catalog read model, read through a memory mapping
+ * rather than deserialized.
+ *
+ * <p>Layout (version 1, big-endian): a 64-byte header, a heap of UTF-8
+ * strings, then one fixed-width record per product sorted by id and one per
+ * category. Records refer to strings by absolute offset and length (length
+ * -1 for null), so any field of product {@code i} is a single read at
+ * {@code productsOffset + i * PRODUCT_RECORD + field}. Timestamps are
+ * microseconds since the epoch of the local date-time, prices an unscaled
+ * long and a scale.
+ *
+ * <p>The header carries the highest {@code updated_at} in the file and the
+ * read model's watermark when it was written: every row changed before the
+ * watermark is in the file.
+ */
+final class CatalogSnapshot {
+
+    static final int VERSION = 1;
+
+    private static final int MAGIC = 0x494E5643; // "INVC"
+    private static final int HEADER = 64;
+    private static final int PRODUCT_RECORD = 88;
+    private static final int CATEGORY_RECORD = 40;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    // Header fields
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_PRODUCTS = 8;
+    private static final int H_CATEGORIES = 12;
+    private static final int H_PRODUCTS_OFFSET = 16;
+    private static final int H_CATEGORIES_OFFSET = 24;
+    private static final int H_HIGH_WATER_MARK = 32;
+    private static final int H_WATERMARK = 40;
+    private static final int H_LENGTH = 48;
+
+    // Product record fields
+    private static final int P_ID = 0;
+    private static final int P_CATEGORY_ID = 8;
+    private static final int P_PRICE = 16;
+    private static final int P_CREATED_AT = 24;
+    private static final int P_UPDATED_AT = 32;
+    private static final int P_QUANTITY = 40;
+    private static final int P_REORDER_LEVEL = 44;
+    private static final int P_PRICE_SCALE = 48;
+    private static final int P_SKU = 52;
+    private static final int P_NAME = 60;
+    private static final int P_DESCRIPTION = 68;
+    private static final int P_STATUS = 76;
+
+    // Category record fields
+    private static final int C_ID = 0;
+    private static final int C_CREATED_AT = 8;
+    private static final int C_UPDATED_AT = 16;
+    private static final int C_NAME = 24;
+    private static final int C_DESCRIPTION = 32;
+
+    private final ByteBuffer buffer;
+    private final int productCount;
+    private final int categoryCount;
+    private final int productsOffset;
+    private final int categoriesOffset;
+
+    private CatalogSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER || buffer.getInt(H_MAGIC) != MAGIC) {
+            throw new IllegalStateException("not a catalog snapshot");
+        }
+        if (buffer.getInt(H_VERSION) != VERSION) {
+            throw new IllegalStateException("unsupported snapshot version " + buffer.getInt(H_VERSION));
+        }
+        if (buffer.getLong(H_LENGTH) != buffer.capacity()) {
+            throw new IllegalStateException("truncated snapshot");
+        }
+        this.productCount = buffer.getInt(H_PRODUCTS);
+        this.categoryCount = buffer.getInt(H_CATEGORIES);
+        this.productsOffset = (int) buffer.getLong(H_PRODUCTS_OFFSET);
+        this.categoriesOffset = (int) buffer.getLong(H_CATEGORIES_OFFSET);
+        if ((long) productsOffset + (long) productCount * PRODUCT_RECORD != categoriesOffset
+                || (long) categoriesOffset + (long) categoryCount * CATEGORY_RECORD != buffer.capacity()) {
+            throw new IllegalStateException("inconsistent snapshot sections");
+        }
+    }
+
+    /** Maps {@code file} read-only; nothing but the header is read. */
+    static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("snapshot larger than 2 GB");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CatalogSnapshot(mapped);
+        }
+    }
+
+    /**
+     * Writes a snapshot next to {@code file} and moves it into place, so a
+     * reader never sees a partly written file. {@code products} must be
+     * sorted by id.
+     */
+    static void write(Path file, List<ProductResponse> products, List<CategoryResponse> categories,
+                      LocalDateTime watermark) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            ByteBuffer productRecords = ByteBuffer.allocate(products.size() * PRODUCT_RECORD);
+            ByteBuffer categoryRecords = ByteBuffer.allocate(categories.size() * CATEGORY_RECORD);
+            long highWaterMark = NO_TIME;
+            long length;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16)) {
+                StringHeap strings = new StringHeap(out);
+                strings.pad(HEADER);
+                for (ProductResponse product : products) {
+                    int base = productRecords.position();
+                    productRecords.putLong(base + P_ID, product.getId());
+                    productRecords.putLong(base + P_CATEGORY_ID, product.getCategoryId() != null ? product.getCategoryId() : 0);
+                    BigDecimal price = product.getPrice();
+                    productRecords.putLong(base + P_PRICE, price.unscaledValue().longValueExact());
+                    productRecords.putInt(base + P_PRICE_SCALE, price.scale());
+                    productRecords.putLong(base + P_CREATED_AT, toMicros(product.getCreatedAt()));
+                    long updatedAt = toMicros(product.getUpdatedAt());
+                    productRecords.putLong(base + P_UPDATED_AT, updatedAt);
+                    highWaterMark = Math.max(highWaterMark, updatedAt);
+                    productRecords.putInt(base + P_QUANTITY, product.getQuantity());
+                    productRecords.putInt(base + P_REORDER_LEVEL, product.getReorderLevel());
+                    strings.put(productRecords, base + P_SKU, product.getSku());
+                    strings.put(productRecords, base + P_NAME, product.getName());
+                    strings.put(productRecords, base + P_DESCRIPTION, product.getDescription());
+                    strings.put(productRecords, base + P_STATUS, product.getStatus());
+                    productRecords.position(base + PRODUCT_RECORD);
+                }
+                for (CategoryResponse category : categories) {
+                    int base = categoryRecords.position();
+                    categoryRecords.putLong(base + C_ID, category.getId());
+                    categoryRecords.putLong(base + C_CREATED_AT, toMicros(category.getCreatedAt()));
+                    categoryRecords.putLong(base + C_UPDATED_AT, toMicros(category.getUpdatedAt()));
+                    strings.put(categoryRecords, base + C_NAME, category.getName());
+                    strings.put(categoryRecords, base + C_DESCRIPTION, category.getDescription());
+                    categoryRecords.position(base + CATEGORY_RECORD);
+                }
+                long productsOffset = strings.position();
+                long categoriesOffset = productsOffset + productRecords.capacity();
+                length = categoriesOffset + categoryRecords.capacity();
+                if (length > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("snapshot larger than 2 GB");
+                }
+                out.write(productRecords.array());
+                out.write(categoryRecords.array());
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER);
+                header.putInt(H_MAGIC, MAGIC);
+                header.putInt(H_VERSION, VERSION);
+                header.putInt(H_PRODUCTS, products.size());
+                header.putInt(H_CATEGORIES, categories.size());
+                header.putLong(H_PRODUCTS_OFFSET, productsOffset);
+                header.putLong(H_CATEGORIES_OFFSET, categoriesOffset);
+                header.putLong(H_HIGH_WATER_MARK, highWaterMark);
+                header.putLong(H_WATERMARK, toMicros(watermark));
+                header.putLong(H_LENGTH, length);
+                out.flush();
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                    channel.write(header, 0);
+                    channel.force(false);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    int productCount() {
+        return productCount;
+    }
+
+    /** Highest product {@code updated_at} in the file, or null if it holds no products. */
+    LocalDateTime highWaterMark() {
+        return fromMicros(buffer.getLong(H_HIGH_WATER_MARK));
+    }
+
+    /** Rows changed before this were all written to the file. */
+    LocalDateTime watermark() {
+        return fromMicros(buffer.getLong(H_WATERMARK));
+    }
+
+    long productId(int index) {
+        return buffer.getLong(product(index) + P_ID);
+    }
+
+    /** 0 if the product has no category. */
+    long categoryId(int index) {
+        return buffer.getLong(product(index) + P_CATEGORY_ID);
+    }
+
+    long priceMinorUnits(int index) {
+        int base = product(index);
+        return Money.toMinorUnits(buffer.getLong(base + P_PRICE), buffer.getInt(base + P_PRICE_SCALE));
+    }
+
+    int quantity(int index) {
+        return buffer.getInt(product(index) + P_QUANTITY);
+    }
+
+    int reorderLevel(int index) {
+        return buffer.getInt(product(index) + P_REORDER_LEVEL);
+    }
+
+    LocalDateTime updatedAt(int index) {
+        return fromMicros(buffer.getLong(product(index) + P_UPDATED_AT));
+    }
+
+    String sku(int index) {
+        return string(product(index) + P_SKU);
+    }
+
+    String status(int index) {
+        return string(product(index) + P_STATUS);
+    }
+
+    ProductResponse product(int index, String categoryName) {
+        int base = product(index);
+        long categoryId = buffer.getLong(base + P_CATEGORY_ID);
+        return new ProductResponse(buffer.getLong(base + P_ID), string(base + P_SKU), string(base + P_NAME),
+                string(base + P_DESCRIPTION),
+                BigDecimal.valueOf(buffer.getLong(base + P_PRICE), buffer.getInt(base + P_PRICE_SCALE)),
+                buffer.getInt(base + P_QUANTITY), buffer.getInt(base + P_REORDER_LEVEL),
+                categoryId != 0 ? categoryId : null,
+                categoryName, string(base + P_STATUS),
+                fromMicros(buffer.getLong(base + P_CREATED_AT)), fromMicros(buffer.getLong(base + P_UPDATED_AT)));
+    }
+
+    /**
+     * Case-insensitive substring match on name or description. ASCII
+     * keywords are compared against the mapped bytes without decoding.
+     */
+    boolean productMatches(int index, String lowerCaseNeedle, byte[] asciiNeedle) {
+        int base = product(index);
+        if (asciiNeedle != null) {
+            return containsAscii(base + P_NAME, asciiNeedle) || containsAscii(base + P_DESCRIPTION, asciiNeedle);
+        }
+        String name = string(base + P_NAME);
+        String description = string(base + P_DESCRIPTION);
+        return name.toLowerCase(Locale.ROOT).contains(lowerCaseNeedle)
+                || (description != null && description.toLowerCase(Locale.ROOT).contains(lowerCaseNeedle));
+    }
+
+    /** Categories are few, so they are decoded in full. */
+    List<CategoryResponse> categories() {
+        List<CategoryResponse> categories = new ArrayList<>(categoryCount);
+        for (int i = 0; i < categoryCount; i++) {
+            int base = categoriesOffset + i * CATEGORY_RECORD;
+            categories.add(new CategoryResponse(buffer.getLong(base + C_ID), string(base + C_NAME),
+                    string(base + C_DESCRIPTION), null, null, null, fromMicros(buffer.getLong(base + C_CREATED_AT)),
+                    fromMicros(buffer.getLong(base + C_UPDATED_AT))));
+        }
+        return categories;
+    }
+
+    /** The needle as bytes if it is plain ASCII, otherwise null. */
+    static byte[] asciiNeedle(String lowerCaseNeedle) {
+        for (int i = 0; i < lowerCaseNeedle.length(); i++) {
+            if (lowerCaseNeedle.charAt(i) >= 0x80) {
+                return null;
+            }
+        }
+        return lowerCaseNeedle.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private int product(int index) {
+        return productsOffset + index * PRODUCT_RECORD;
+    }
+
+    private String string(int field) {
+        int length = buffer.getInt(field + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(buffer.getInt(field), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean containsAscii(int field, byte[] needle) {
+        int offset = buffer.getInt(field);
+        int length = buffer.getInt(field + 4);
+        outer:
+        for (int start = offset, last = offset + length - needle.length; start <= last; start++) {
+            for (int j = 0; j < needle.length; j++) {
+                byte b = buffer.get(start + j);
+                if (b >= 'A' && b <= 'Z') {
+                    b += 'a' - 'A';
+                }
+                if (b != needle[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /** Appends strings to the file as records are built, filling in each record's reference. */
+    private static final class StringHeap {
+        private final OutputStream out;
+        private long position;
+
+        StringHeap(OutputStream out) {
+            this.out = out;
+        }
+
+        void pad(int bytes) throws IOException {
+            out.write(new byte[bytes]);
+            position += bytes;
+        }
+
+        void put(ByteBuffer record, int field, String value) throws IOException {
+            if (value == null) {
+                record.putInt(field, 0);
+                record.putInt(field + 4, -1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (position + bytes.length > Integer.MAX_VALUE) {
+                throw new IllegalStateException("snapshot larger than 2 GB");
+            }
+            record.putInt(field, (int) position);
+            record.putInt(field + 4, bytes.length);
+            out.write(bytes);
+            position += bytes.length;
+        }
+
+        long position() {
+            return position;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.inventory.catalog;
+
+import com.inventory.collection.LongArrayList;
+import com.inventory.collection.LongObjectHashMap;
+import com.inventory.event.CategoryChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The category hierarchy, held in memory so that resolving a category's path
+ * or subtree costs no query.
+ *
+ * <p>Each category stores its materialized path, the ids from the root down
+ * to itself ({@code /1/5/12/}), so in the database a whole subtree is the
+ * categories whose path starts with the root's path. The tree is loaded on
+ * first use and again after a {@link CategoryChangedEvent} commits. Categories
+ * are few, so every {@code refresh-interval} the tree is simply re-read in
+ * full, which picks up changes made on other nodes.
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class CategoryTree {
+
+    /** Top-level categories have depth 0, so this allows ten levels. */
+    public static final int MAX_DEPTH = 9;
+
+    private static final String SELECT_CATEGORIES = "SELECT id, parent_id, path, depth FROM categories";
+    private static final long[] NO_CHILDREN = new long[0];
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Null until first use, and again after a change
+    private volatile LongObjectHashMap<Node> nodes;
+
+    public CategoryTree(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Path of a category the tree has seen, otherwise null. */
+    public String path(long id) {
+        Node node = nodes().get(id);
+        return node != null ? node.path : null;
+    }
+
+    public Long parentId(long id) {
+        Node node = nodes().get(id);
+        return node != null && node.parentId != 0 ? node.parentId : null;
+    }
+
+    public Integer depth(long id) {
+        Node node = nodes().get(id);
+        return node != null ? node.depth : null;
+    }
+
+    /**
+     * The category followed by all of its descendants, every parent before
+     * its children. Empty if the tree has not seen the category.
+     */
+    public LongArrayList subtree(long id) {
+        LongObjectHashMap<Node> current = nodes();
+        LongArrayList subtree = new LongArrayList();
+        if (current.get(id) == null) {
+            return subtree;
+        }
+        subtree.add(id);
+        for (int i = 0; i < subtree.size(); i++) {
+            Node node = current.get(subtree.get(i));
+            for (long child : node.children) {
+                subtree.add(child);
+            }
+        }
+        return subtree;
+    }
+
+    // Several categories written in one transaction collapse into a single reload on next use
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        nodes = null;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.category-tree.refresh-interval:10000}")
+    public void scheduledRefresh() {
+        if (nodes != null) {
+            reload();
+        }
+    }
+
+    public synchronized void reload() {
+        LongObjectHashMap<Node> loaded = new LongObjectHashMap<>();
+        LongObjectHashMap<LongArrayList> children = new LongObjectHashMap<>();
+        jdbcTemplate.query(SELECT_CATEGORIES, rs -> {
+            long id = rs.getLong("id");
+            long parentId = rs.getLong("parent_id");
+            loaded.put(id, new Node(parentId, rs.getString("path"), rs.getInt("depth")));
+            if (parentId != 0) {
+                LongArrayList siblings = children.get(parentId);
+                if (siblings == null) {
+                    siblings = new LongArrayList(4);
+                    children.put(parentId, siblings);
+                }
+                siblings.add(id);
+            }
+        });
+        children.forEach((ids, parentId) -> {
+            Node parent = loaded.get(parentId);
+            if (parent != null) {
+                ids.sort();
+                parent.children = ids.toArray();
+            }
+        });
+        nodes = loaded;
+        log.debug("Loaded {} categories", loaded.size());
+    }
+
+    private LongObjectHashMap<Node> nodes() {
+        LongObjectHashMap<Node> current = nodes;
+        if (current == null) {
+            synchronized (this) {
+                if (nodes == null) {
+                    reload();
+                }
+                current = nodes;
+            }
+        }
+        return current;
+    }
+
+    /** Path of a new category under {@code parentPath}, or at the top level if that is null. */
+    public static String childPath(String parentPath, long id) {
+        return (parentPath != null ? parentPath : "/") + id + "/";
+    }
+
+    /** The ids on a path, from the root down to the category itself. */
+    public static List<Long> pathIds(String path) {
+        List<Long> ids = new ArrayList<>(8);
+        int start = 1;
+        int end;
+        while ((end = path.indexOf('/', start)) > 0) {
+            ids.add(Long.parseLong(path, start, end, 10));
+            start = end + 1;
+        }
+        return ids;
+    }
+
+    // Immutable once the tree is published
+    private static final class Node {
+        final long parentId;
+        final String path;
+        final int depth;
+        long[] children = NO_CHILDREN;
+
+        Node(long parentId, String path, int depth) {
+            this.parentId = parentId;
+            this.path = path;
+            this.depth = depth;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.inventory.catalog;
+
+import com.inventory.collection.LongObjectHashMap;
+import com.inventory.dto.ProductFacetsResponse;
+import com.inventory.dto.ProductFacetsResponse.FacetCount;
+import com.inventory.dto.ProductResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/** Products per facet value, however they were counted, and the response built from them. */
+public final class FacetCounts {
+
+    private static final Comparator<FacetCount> BY_COUNT = Comparator.comparingLong(FacetCount::getCount).reversed()
+            .thenComparing(FacetCount::getValue);
+
+    private final PriceBands bands;
+    private final LongObjectHashMap<long[]> categories = new LongObjectHashMap<>();
+    private final Map<String, Long> statuses = new HashMap<>();
+    private final long[] priceBands;
+    private long inStock;
+    private long outOfStock;
+
+    public FacetCounts(PriceBands bands) {
+        this.bands = bands;
+        this.priceBands = new long[bands.count()];
+    }
+
+    public void addCategory(long categoryId, long count) {
+        long[] total = categories.get(categoryId);
+        if (total == null) {
+            categories.put(categoryId, new long[]{count});
+        } else {
+            total[0] += count;
+        }
+    }
+
+    public void addStatus(String status, long count) {
+        statuses.merge(status, count, Long::sum);
+    }
+
+    public void addPriceBand(int band, long count) {
+        priceBands[band] += count;
+    }
+
+    public void addStock(boolean inStock, long count) {
+        if (inStock) {
+            this.inStock += count;
+        } else {
+            outOfStock += count;
+        }
+    }
+
+    /** Adds every category's count to the categories above it, so counts include subcategories. */
+    public void rollUpCategories(CategoryTree categoryTree) {
+        List<long[]> direct = new ArrayList<>(categories.size());
+        categories.forEach((count, categoryId) -> direct.add(new long[]{categoryId, count[0]}));
+        for (long[] entry : direct) {
+            String path = categoryTree.path(entry[0]);
+            if (path != null) {
+                for (Long ancestorId : CategoryTree.pathIds(path)) {
+                    if (ancestorId != entry[0]) {
+                        addCategory(ancestorId, entry[1]);
+                    }
+                }
+            }
+        }
+    }
+
+    public ProductFacetsResponse toResponse(long total, List<ProductResponse> products, Long nextAfterId,
+                                            LongFunction<String> categoryNames) {
+        List<FacetCount> categoryCounts = new ArrayList<>(categories.size());
+        categories.forEach((count, categoryId) -> {
+            String name = categoryNames.apply(categoryId);
+            if (count[0] > 0 && name != null) {
+                categoryCounts.add(new FacetCount(String.valueOf(categoryId), name, count[0]));
+            }
+        });
+        categoryCounts.sort(BY_COUNT);
+
+        List<FacetCount> statusCounts = new ArrayList<>(statuses.size());
+        statuses.forEach((status, count) -> {
+            if (count > 0) {
+                statusCounts.add(new FacetCount(status, null, count));
+            }
+        });
+        statusCounts.sort(BY_COUNT);
+
+        // Every band and both stock values, in a fixed order, so the options do not move around
+        List<FacetCount> bandCounts = new ArrayList<>(priceBands.length);
+        for (int band = 0; band < priceBands.length; band++) {
+            bandCounts.add(new FacetCount(bands.label(band), null, priceBands[band]));
+        }
+        List<FacetCount> stockCounts = List.of(new FacetCount("true", null, inStock),
+                new FacetCount("false", null, outOfStock));
+
+        return new ProductFacetsResponse(total, products, nextAfterId, categoryCounts, statusCounts, bandCounts,
+                stockCounts);
+    }
+}
@@ -0,0 +1,95 @@
+package com.inventory.catalog;
+
+import com.inventory.collection.LongArrayList;
+import com.inventory.collection.LongHashSet;
+import com.inventory.dto.ProductFacetQuery;
+
+import java.util.List;
+
+/**
+ * A {@link ProductFacetQuery} resolved against the category tree and the
+ * price bands: categories expanded to their subtrees if asked for, bands
+ * parsed to band numbers. A null facet does not filter.
+ */
+public final class FacetFilter {
+
+    private final long[] categoryIds;
+    private final boolean includeSubcategories;
+    private final String[] statuses;
+    private final int[] priceBands;
+    private final Boolean inStock;
+    private final long afterId;
+    private final int limit;
+
+    private FacetFilter(long[] categoryIds, boolean includeSubcategories, String[] statuses, int[] priceBands,
+                        Boolean inStock, long afterId, int limit) {
+        this.categoryIds = categoryIds;
+        this.includeSubcategories = includeSubcategories;
+        this.statuses = statuses;
+        this.priceBands = priceBands;
+        this.inStock = inStock;
+        this.afterId = afterId;
+        this.limit = limit;
+    }
+
+    public static FacetFilter resolve(ProductFacetQuery query, CategoryTree categoryTree, PriceBands bands) {
+        long[] categoryIds = null;
+        if (query.getCategoryIds() != null && !query.getCategoryIds().isEmpty()) {
+            LongHashSet seen = new LongHashSet();
+            LongArrayList ids = new LongArrayList();
+            for (Long categoryId : query.getCategoryIds()) {
+                LongArrayList subtree = query.isIncludeSubcategories() ? categoryTree.subtree(categoryId) : null;
+                if (subtree == null || subtree.isEmpty()) {
+                    // Not in the tree (yet): the category alone
+                    subtree = new LongArrayList(1);
+                    subtree.add(categoryId);
+                }
+                subtree.forEach(id -> {
+                    if (seen.add(id)) {
+                        ids.add(id);
+                    }
+                });
+            }
+            categoryIds = ids.toArray();
+        }
+        int[] priceBands = null;
+        if (query.getPriceBands() != null && !query.getPriceBands().isEmpty()) {
+            priceBands = query.getPriceBands().stream().mapToInt(bands::parse).distinct().toArray();
+        }
+        return new FacetFilter(categoryIds, query.isIncludeSubcategories(), nullIfEmpty(query.getStatuses()),
+                priceBands, query.getInStock(), query.getAfterId(), query.getLimit());
+    }
+
+    private static String[] nullIfEmpty(List<String> values) {
+        return values == null || values.isEmpty() ? null : values.stream().distinct().toArray(String[]::new);
+    }
+
+    public long[] categoryIds() {
+        return categoryIds;
+    }
+
+    /** Category counts then include the products of subcategories. */
+    public boolean includeSubcategories() {
+        return includeSubcategories;
+    }
+
+    public String[] statuses() {
+        return statuses;
+    }
+
+    public int[] priceBands() {
+        return priceBands;
+    }
+
+    public Boolean inStock() {
+        return inStock;
+    }
+
+    public long afterId() {
+        return afterId;
+    }
+
+    public int limit() {
+        return limit;
+    }
+}
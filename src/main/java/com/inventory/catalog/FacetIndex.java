@@ -0,0 +1,223 @@
+package com.inventory.catalog;
+
+import com.inventory.collection.LongObjectHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Roaring bitmaps of product ids for every facet value: category, status,
+ * price band and in stock. A faceted query ORs the selected values of each
+ * facet and intersects the facets; every count is the cardinality of an
+ * intersection, computed container by container without materializing it.
+ *
+ * <p>Bitmaps are not safe to read while they change, so updates take a write
+ * lock and queries a read lock. Both are short: a query holds it only while
+ * it builds its own copy of the matching ids and the counts. Ids are used as
+ * the bitmap positions and must fit in 32 bits, unsigned.
+ */
+@Slf4j
+public final class FacetIndex {
+
+    private static final long MAX_ID = 0xFFFF_FFFFL;
+    private static final int CATEGORY = 0;
+    private static final int STATUS = 1;
+    private static final int PRICE_BAND = 2;
+    private static final int STOCK = 3;
+
+    /** What a product is faceted by. */
+    public interface Faceted {
+        long id();
+
+        // 0 if none
+        long categoryId();
+
+        String status();
+
+        long priceMinorUnits();
+
+        int quantity();
+    }
+
+    /** The matching ids, owned by the caller, and the counts. */
+    public static final class Result {
+        private final RoaringBitmap matches;
+        private final FacetCounts counts;
+
+        Result(RoaringBitmap matches, FacetCounts counts) {
+            this.matches = matches;
+            this.counts = counts;
+        }
+
+        /** Up to {@code limit} ids above {@code afterId}, ascending. */
+        public List<Long> page(long afterId, int limit) {
+            List<Long> ids = new ArrayList<>(Math.min(limit, matches.getCardinality()));
+            if (afterId >= MAX_ID) {
+                return ids;
+            }
+            PeekableIntIterator iterator = matches.getIntIterator();
+            iterator.advanceIfNeeded((int) (afterId + 1));
+            while (iterator.hasNext() && ids.size() < limit) {
+                ids.add(Integer.toUnsignedLong(iterator.next()));
+            }
+            return ids;
+        }
+
+        public boolean hasMoreAfter(long id) {
+            return id < MAX_ID && matches.rangeCardinality(id + 1, MAX_ID + 1) > 0;
+        }
+
+        public long total() {
+            return matches.getLongCardinality();
+        }
+
+        public FacetCounts counts() {
+            return counts;
+        }
+    }
+
+    private final PriceBands bands;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final LongObjectHashMap<RoaringBitmap> byCategory = new LongObjectHashMap<>();
+    private final Map<String, RoaringBitmap> byStatus = new HashMap<>();
+    private final RoaringBitmap[] byPriceBand;
+    private final RoaringBitmap inStock = new RoaringBitmap();
+
+    public FacetIndex(PriceBands bands) {
+        this.bands = bands;
+        this.byPriceBand = new RoaringBitmap[bands.count()];
+        for (int band = 0; band < byPriceBand.length; band++) {
+            byPriceBand[band] = new RoaringBitmap();
+        }
+    }
+
+    /** Moves a product from the values of {@code previous} to those of {@code current}; either may be null. */
+    public void update(Faceted previous, Faceted current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null && previous.id() <= MAX_ID) {
+                int position = (int) previous.id();
+                all.remove(position);
+                RoaringBitmap category = byCategory.get(previous.categoryId());
+                if (category != null) {
+                    category.remove(position);
+                }
+                RoaringBitmap status = byStatus.get(previous.status());
+                if (status != null) {
+                    status.remove(position);
+                }
+                byPriceBand[bands.bandOf(previous.priceMinorUnits())].remove(position);
+                inStock.remove(position);
+            }
+            if (current != null) {
+                if (current.id() > MAX_ID) {
+                    log.warn("Product {} is not faceted: ids above {} do not fit the facet bitmaps", current.id(), MAX_ID);
+                    return;
+                }
+                int position = (int) current.id();
+                all.add(position);
+                RoaringBitmap category = byCategory.get(current.categoryId());
+                if (category == null) {
+                    category = new RoaringBitmap();
+                    byCategory.put(current.categoryId(), category);
+                }
+                category.add(position);
+                byStatus.computeIfAbsent(current.status(), key -> new RoaringBitmap()).add(position);
+                byPriceBand[bands.bandOf(current.priceMinorUnits())].add(position);
+                if (current.quantity() > 0) {
+                    inStock.add(position);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result query(FacetFilter filter) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap[] selected = new RoaringBitmap[4];
+            if (filter.categoryIds() != null) {
+                List<RoaringBitmap> categories = new ArrayList<>(filter.categoryIds().length);
+                for (long categoryId : filter.categoryIds()) {
+                    RoaringBitmap category = byCategory.get(categoryId);
+                    if (category != null) {
+                        categories.add(category);
+                    }
+                }
+                selected[CATEGORY] = RoaringBitmap.or(categories.iterator());
+            }
+            if (filter.statuses() != null) {
+                List<RoaringBitmap> statuses = new ArrayList<>(filter.statuses().length);
+                for (String status : filter.statuses()) {
+                    RoaringBitmap members = byStatus.get(status);
+                    if (members != null) {
+                        statuses.add(members);
+                    }
+                }
+                selected[STATUS] = RoaringBitmap.or(statuses.iterator());
+            }
+            if (filter.priceBands() != null) {
+                List<RoaringBitmap> priceBands = new ArrayList<>(filter.priceBands().length);
+                for (int band : filter.priceBands()) {
+                    priceBands.add(byPriceBand[band]);
+                }
+                selected[PRICE_BAND] = RoaringBitmap.or(priceBands.iterator());
+            }
+            if (filter.inStock() != null) {
+                selected[STOCK] = filter.inStock() ? inStock : RoaringBitmap.andNot(all, inStock);
+            }
+
+            // Each facet is counted with the other facets' filters only: facet k's base is the
+            // intersection of the facets before it and of those after it
+            RoaringBitmap[] before = new RoaringBitmap[selected.length + 1];
+            for (int facet = 0; facet < selected.length; facet++) {
+                before[facet + 1] = and(before[facet], selected[facet]);
+            }
+            RoaringBitmap[] after = new RoaringBitmap[selected.length + 1];
+            for (int facet = selected.length - 1; facet > 0; facet--) {
+                after[facet] = and(selected[facet], after[facet + 1]);
+            }
+
+            FacetCounts counts = new FacetCounts(bands);
+            RoaringBitmap otherThanCategory = and(before[CATEGORY], after[CATEGORY + 1]);
+            byCategory.forEach((members, categoryId) ->
+                    counts.addCategory(categoryId, count(otherThanCategory, members)));
+            RoaringBitmap otherThanStatus = and(before[STATUS], after[STATUS + 1]);
+            byStatus.forEach((status, members) -> counts.addStatus(status, count(otherThanStatus, members)));
+            RoaringBitmap otherThanBand = and(before[PRICE_BAND], after[PRICE_BAND + 1]);
+            for (int band = 0; band < byPriceBand.length; band++) {
+                counts.addPriceBand(band, count(otherThanBand, byPriceBand[band]));
+            }
+            RoaringBitmap otherThanStock = and(before[STOCK], after[STOCK + 1]);
+            long stocked = count(otherThanStock, inStock);
+            counts.addStock(true, stocked);
+            counts.addStock(false, count(otherThanStock, all) - stocked);
+
+            RoaringBitmap matches = before[selected.length];
+            return new Result(matches != null ? matches.clone() : all.clone(), counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Null stands for every product; may return one of the index's own bitmaps
+    private static RoaringBitmap and(RoaringBitmap left, RoaringBitmap right) {
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+        return RoaringBitmap.and(left, right);
+    }
+
+    private static long count(RoaringBitmap filter, RoaringBitmap members) {
+        return filter == null ? members.getLongCardinality() : RoaringBitmap.andCardinality(filter, members);
+    }
+}
@@ -0,0 +1,76 @@
+package com.inventory.catalog;
+
+import com.inventory.exception.BadRequestException;
+import com.inventory.money.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The price bands products are faceted by, from the ascending upper bounds in
+ * {@code price-bands}: {@code 10,25} gives {@code 0-10}, {@code 10-25} and
+ * {@code 25-}. A bound belongs to the band above it.
+ */
+@Component
+public class PriceBands {
+
+    private final long[] boundsMinorUnits;
+    private final List<String> labels;
+
+    public PriceBands(@Value("${inventory.facets.price-bands:10,25,50,100,250,500}") String bounds) {
+        BigDecimal[] parsed = Arrays.stream(bounds.split(","))
+                .map(String::trim)
+                .map(BigDecimal::new)
+                .toArray(BigDecimal[]::new);
+        boundsMinorUnits = new long[parsed.length];
+        List<String> names = new ArrayList<>(parsed.length + 1);
+        String lower = "0";
+        for (int i = 0; i < parsed.length; i++) {
+            boundsMinorUnits[i] = Money.toMinorUnits(parsed[i]);
+            if (boundsMinorUnits[i] <= 0 || (i > 0 && boundsMinorUnits[i] <= boundsMinorUnits[i - 1])) {
+                throw new IllegalArgumentException("Price bands must be positive and ascending: " + bounds);
+            }
+            String upper = parsed[i].stripTrailingZeros().toPlainString();
+            names.add(lower + "-" + upper);
+            lower = upper;
+        }
+        names.add(lower + "-");
+        labels = Collections.unmodifiableList(names);
+    }
+
+    public int count() {
+        return labels.size();
+    }
+
+    public String label(int band) {
+        return labels.get(band);
+    }
+
+    public int bandOf(long priceMinorUnits) {
+        int index = Arrays.binarySearch(boundsMinorUnits, priceMinorUnits);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /** Lower bound of a band in minor units. */
+    public long lowerBound(int band) {
+        return band == 0 ? 0 : boundsMinorUnits[band - 1];
+    }
+
+    /** Upper bound of a band in minor units, exclusive; {@link Long#MAX_VALUE} for the last band. */
+    public long upperBound(int band) {
+        return band < boundsMinorUnits.length ? boundsMinorUnits[band] : Long.MAX_VALUE;
+    }
+
+    public int parse(String label) {
+        int band = labels.indexOf(label);
+        if (band < 0) {
+            throw new BadRequestException("Unknown price band " + label + "; expected one of " + labels);
+        }
+        return band;
+    }
+}
@@ -0,0 +1,127 @@
+package com.inventory.collection;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of non-negative {@code long} values stored as bits, for dense values
+ * like database ids: pages of 4096 bits (512 bytes) allocated on first use,
+ * against some 50 bytes per member for a {@code ConcurrentSkipListSet<Long>}.
+ * Iteration runs in ascending order and costs a scan of the allocated pages,
+ * so it suits sets that are dense or whose members are spread over few pages.
+ *
+ * <p>Reads never lock. Bits are set and cleared atomically, so concurrent
+ * writers are safe; only page allocation takes a lock.
+ */
+public final class ConcurrentLongBitSet {
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int WORDS_PER_PAGE = 1 << (PAGE_SHIFT - 6);
+    private static final long MAX_VALUE = ((long) Integer.MAX_VALUE << PAGE_SHIFT) | ((1 << PAGE_SHIFT) - 1);
+
+    private volatile AtomicLongArray[] pages = new AtomicLongArray[16];
+
+    /** @return true if the value was not already present */
+    public boolean add(long value) {
+        AtomicLongArray page = page(value);
+        if (page == null) {
+            page = allocatePage(value);
+        }
+        int word = word(value);
+        long bit = 1L << value;
+        long bits;
+        do {
+            bits = page.get(word);
+            if ((bits & bit) != 0) {
+                return false;
+            }
+        } while (!page.compareAndSet(word, bits, bits | bit));
+        return true;
+    }
+
+    /** @return true if the value was present */
+    public boolean remove(long value) {
+        AtomicLongArray page = page(value);
+        if (page == null) {
+            return false;
+        }
+        int word = word(value);
+        long bit = 1L << value;
+        long bits;
+        do {
+            bits = page.get(word);
+            if ((bits & bit) == 0) {
+                return false;
+            }
+        } while (!page.compareAndSet(word, bits, bits & ~bit));
+        return true;
+    }
+
+    public boolean contains(long value) {
+        AtomicLongArray page = page(value);
+        return page != null && (page.get(word(value)) & (1L << value)) != 0;
+    }
+
+    /** Visits the values in ascending order; concurrent writes may or may not be seen. */
+    public void forEach(LongConsumer action) {
+        AtomicLongArray[] directory = pages;
+        for (int p = 0; p < directory.length; p++) {
+            AtomicLongArray page = directory[p];
+            if (page == null) {
+                continue;
+            }
+            long base = (long) p << PAGE_SHIFT;
+            for (int w = 0; w < WORDS_PER_PAGE; w++) {
+                long bits = page.get(w);
+                while (bits != 0) {
+                    action.accept(base + ((long) w << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (AtomicLongArray page : pages) {
+            if (page != null) {
+                for (int w = 0; w < WORDS_PER_PAGE; w++) {
+                    count += Long.bitCount(page.get(w));
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int word(long value) {
+        return (int) (value >>> 6) & (WORDS_PER_PAGE - 1);
+    }
+
+    private AtomicLongArray page(long value) {
+        if (value < 0 || value > MAX_VALUE) {
+            return null;
+        }
+        int index = (int) (value >>> PAGE_SHIFT);
+        AtomicLongArray[] directory = pages;
+        return index < directory.length ? directory[index] : null;
+    }
+
+    // Copy-on-write under the lock, so a reader never sees a directory being filled in and no page is lost
+    private synchronized AtomicLongArray allocatePage(long value) {
+        if (value < 0 || value > MAX_VALUE) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        int index = (int) (value >>> PAGE_SHIFT);
+        AtomicLongArray[] directory = pages;
+        if (index < directory.length && directory[index] != null) {
+            return directory[index];
+        }
+        AtomicLongArray[] grown = Arrays.copyOf(directory, index < directory.length
+                ? directory.length : (int) Math.min(Integer.MAX_VALUE, Math.max(index + 1L, directory.length * 2L)));
+        AtomicLongArray page = new AtomicLongArray(WORDS_PER_PAGE);
+        grown[index] = page;
+        pages = grown;
+        return page;
+    }
+}
@@ -0,0 +1,160 @@
+package com.inventory.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Map from non-negative {@code long} keys to values, for keys that are dense
+ * like database ids. The key is the position: values sit in pages of 4096
+ * slots allocated on first use, so a lookup is two array reads with no
+ * hashing, no boxed key and no allocation, and iteration runs in key order.
+ * Sparse keys waste the empty slots of their pages.
+ *
+ * <p>Reads never lock and see every completed write. Writes to slots are
+ * atomic, so concurrent writers are safe; only page allocation takes a lock.
+ */
+public final class ConcurrentLongObjectMap<V> {
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final long MAX_KEY = ((long) Integer.MAX_VALUE << PAGE_SHIFT) | PAGE_MASK;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private volatile AtomicReferenceArray<V>[] pages = new AtomicReferenceArray[16];
+    private final AtomicInteger size = new AtomicInteger();
+
+    public V get(long key) {
+        AtomicReferenceArray<V> page = page(key);
+        return page != null ? page.get((int) (key & PAGE_MASK)) : null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /** @return the previous value, or null */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        V previous = createPage(key).getAndSet((int) (key & PAGE_MASK), value);
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+        return previous;
+    }
+
+    /** Returns the value for the key, first storing the computed one if there is none. */
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        V value = mappingFunction.apply(key);
+        AtomicReferenceArray<V> page = createPage(key);
+        int slot = (int) (key & PAGE_MASK);
+        if (page.compareAndSet(slot, null, value)) {
+            size.incrementAndGet();
+            return value;
+        }
+        return page.get(slot);
+    }
+
+    /** @return the removed value, or null */
+    public V remove(long key) {
+        AtomicReferenceArray<V> page = page(key);
+        V previous = page != null ? page.getAndSet((int) (key & PAGE_MASK), null) : null;
+        if (previous != null) {
+            size.decrementAndGet();
+        }
+        return previous;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    /** Visits the values in key order; concurrent writes may or may not be seen. */
+    public void forEach(Consumer<? super V> action) {
+        AtomicReferenceArray<V>[] directory = pages;
+        for (int p = 0; p < directory.length; p++) {
+            AtomicReferenceArray<V> page = directory[p];
+            if (page == null) {
+                continue;
+            }
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                V value = page.get(slot);
+                if (value != null) {
+                    action.accept(value);
+                }
+            }
+        }
+    }
+
+    /** The values in key order. */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        forEach(values::add);
+        return values;
+    }
+
+    /** The keys in ascending order. */
+    public LongArrayList keys() {
+        LongArrayList keys = new LongArrayList(size());
+        AtomicReferenceArray<V>[] directory = pages;
+        for (int p = 0; p < directory.length; p++) {
+            AtomicReferenceArray<V> page = directory[p];
+            if (page == null) {
+                continue;
+            }
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                if (page.get(slot) != null) {
+                    keys.add(((long) p << PAGE_SHIFT) | slot);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private AtomicReferenceArray<V> page(long key) {
+        if (key < 0 || key > MAX_KEY) {
+            return null;
+        }
+        int index = (int) (key >>> PAGE_SHIFT);
+        AtomicReferenceArray<V>[] directory = pages;
+        return index < directory.length ? directory[index] : null;
+    }
+
+    private AtomicReferenceArray<V> createPage(long key) {
+        AtomicReferenceArray<V> page = page(key);
+        return page != null ? page : allocatePage(key);
+    }
+
+    // Copy-on-write under the lock, so a reader never sees a directory being filled in and no page is lost
+    private synchronized AtomicReferenceArray<V> allocatePage(long key) {
+        if (key < 0 || key > MAX_KEY) {
+            throw new IllegalArgumentException("Key out of range: " + key);
+        }
+        int index = (int) (key >>> PAGE_SHIFT);
+        AtomicReferenceArray<V>[] directory = pages;
+        if (index < directory.length && directory[index] != null) {
+            return directory[index];
+        }
+        AtomicReferenceArray<V>[] grown = Arrays.copyOf(directory, index < directory.length
+                ? directory.length : (int) Math.min(Integer.MAX_VALUE, Math.max(index + 1L, directory.length * 2L)));
+        AtomicReferenceArray<V> page = new AtomicReferenceArray<>(PAGE_SIZE);
+        grown[index] = page;
+        pages = grown;
+        return page;
+    }
+}
@@ -0,0 +1,125 @@
+package com.inventory.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency-based concurrency limit in the style of Netflix's gradient limiter.
+ *
+ * <p>Two moving averages of the round-trip time are kept: a short one that
+ * follows current latency and a long one that stands in for latency without
+ * queueing. Their ratio is the gradient; when current latency rises past
+ * {@code tolerance} times the long-term figure the limit shrinks towards the
+ * in-flight count the database can serve without queueing, and while latency
+ * stays level it grows by roughly the square root of the limit per sample.
+ * Only {@link Priority#CRITICAL} calls are sampled, since long reports and
+ * exports say little about how quickly a single query is served.
+ *
+ * <p>{@link Priority#BULK} work may only use {@code bulkShare} of the limit,
+ * so it is turned away first and critical work always has headroom.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority { CRITICAL, BULK }
+
+    private static final double SHORT_WINDOW_ALPHA = 0.1;
+    private static final double LONG_WINDOW_ALPHA = 1.0 / 600;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double bulkShare;
+    private final double tolerance;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Guarded by this; limit is also read without the lock when admitting
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double bulkShare,
+                                      double tolerance, LongSupplier nanoClock) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Require 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.bulkShare = bulkShare;
+        this.tolerance = tolerance;
+        this.nanoClock = nanoClock;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Admits a call if the limit allows it.
+     *
+     * @return a permit to release when the call finishes, or null if the call must be shed
+     */
+    public Permit tryAcquire(Priority priority) {
+        int cap = priority == Priority.BULK ? Math.max(1, (int) (limit * bulkShare)) : limit;
+        while (true) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(priority, current + 1, nanoClock.getAsLong());
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+        } else {
+            shortRtt += SHORT_WINDOW_ALPHA * (rttNanos - shortRtt);
+            longRtt += LONG_WINDOW_ALPHA * (rttNanos - longRtt);
+        }
+        // After a slow spell the long average lags behind; let it catch up so the limit can grow again
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        // Too little traffic to say anything about the limit
+        if (inFlightAtStart < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / Math.max(shortRtt, 1)));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public final class Permit {
+
+        private final Priority priority;
+        private final int inFlightAtStart;
+        private final long startNanos;
+
+        private Permit(Priority priority, int inFlightAtStart, long startNanos) {
+            this.priority = priority;
+            this.inFlightAtStart = inFlightAtStart;
+            this.startNanos = startNanos;
+        }
+
+        public void release() {
+            inFlight.decrementAndGet();
+            if (priority == Priority.CRITICAL) {
+                onSample(nanoClock.getAsLong() - startNanos, inFlightAtStart);
+            }
+        }
+    }
+}
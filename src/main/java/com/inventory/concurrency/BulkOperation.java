@@ -0,0 +1,18 @@
+package com.inventory.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method as low-priority database work, such as a report or
+ * an export. When the database slows down these are turned away first, so
+ * that ordinary reads and stock updates keep their connections.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BulkOperation {
+}
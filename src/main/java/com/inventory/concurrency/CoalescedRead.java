@@ -0,0 +1,19 @@
+package com.inventory.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only service method whose concurrent calls with equal
+ * arguments may share a single execution. The method must not depend on who
+ * calls it, and callers must not modify the returned object, since every
+ * waiter receives the same instance.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CoalescedRead {
+}
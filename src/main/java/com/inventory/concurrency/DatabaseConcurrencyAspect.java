@@ -0,0 +1,70 @@
+package com.inventory.concurrency;
+
+import com.inventory.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Puts every transactional service call, and every {@link BulkOperation},
+ * behind an {@link AdaptiveConcurrencyLimiter}. When the database slows down
+ * the limit drops and excess calls fail fast with 503 instead of queueing on
+ * the connection pool, which would stall every endpoint including login.
+ *
+ * <p>Only the outermost service call takes a permit; nested calls run under
+ * it. Ordered after {@link ReadCoalescingAspect}, so coalesced followers never
+ * take one, and before the transaction interceptor, so a shed call never
+ * borrows a connection.
+ *
+ * <p>Publishes {@code inventory.db.limit}, {@code inventory.db.in-flight} and
+ * {@code inventory.db.shed} (tagged {@code priority}).
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DatabaseConcurrencyAspect {
+
+    private static final ThreadLocal<Boolean> INSIDE = new ThreadLocal<>();
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter criticalShed;
+    private final Counter bulkShed;
+
+    public DatabaseConcurrencyAspect(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        Gauge.builder("inventory.db.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("inventory.db.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight).register(meterRegistry);
+        this.criticalShed = Counter.builder("inventory.db.shed").tag("priority", "critical").register(meterRegistry);
+        this.bulkShed = Counter.builder("inventory.db.shed").tag("priority", "bulk").register(meterRegistry);
+    }
+
+    @Around("@within(org.springframework.stereotype.Service) && "
+            + "(@annotation(org.springframework.transaction.annotation.Transactional) "
+            + "|| @annotation(com.inventory.concurrency.BulkOperation))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (INSIDE.get() != null) {
+            return joinPoint.proceed();
+        }
+
+        boolean bulk = ((MethodSignature) joinPoint.getSignature()).getMethod().isAnnotationPresent(BulkOperation.class);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(
+                bulk ? AdaptiveConcurrencyLimiter.Priority.BULK : AdaptiveConcurrencyLimiter.Priority.CRITICAL);
+        if (permit == null) {
+            (bulk ? bulkShed : criticalShed).increment();
+            throw new ServiceOverloadedException("The database is under heavy load, please retry shortly", 1);
+        }
+
+        INSIDE.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            INSIDE.remove();
+            permit.release();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.inventory.concurrency;
+
+import com.inventory.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight execution of {@link CoalescedRead} methods: while a call is
+ * running, identical calls (same method, equal arguments) wait for its result
+ * instead of running their own transaction and query. The first caller is the
+ * leader; the result or exception is handed to every follower, and the next
+ * call after completion starts a fresh execution, so nothing is cached.
+ *
+ * <p>Ordered ahead of the transaction interceptor so followers never open a
+ * transaction. Calls made inside a transaction, and calls from users who must
+ * read their own recent writes from the primary, are not coalesced.
+ *
+ * <p>Every call is counted as {@code inventory.reads.coalesced} tagged with
+ * the method and {@code role=leader|follower}; the collapse ratio is
+ * followers / (leaders + followers).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadCoalescingAspect {
+
+    private static final String METRIC = "inventory.reads.coalesced";
+
+    private final ConcurrentHashMap<CallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Method, Counter[]> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+
+    public ReadCoalescingAspect(MeterRegistry meterRegistry, ObjectProvider<ReadYourWritesTracker> readYourWritesTracker) {
+        this.meterRegistry = meterRegistry;
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Around("@annotation(com.inventory.concurrency.CoalescedRead)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive() || mustReadOwnWrites()) {
+            return joinPoint.proceed();
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Counter[] methodCounters = counters.computeIfAbsent(method, this::registerCounters);
+        CallKey key = new CallKey(method, joinPoint.getArgs());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+
+        if (leader != null) {
+            methodCounters[1].increment();
+            try {
+                return leader.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+
+        methodCounters[0].increment();
+        try {
+            Object result = joinPoint.proceed();
+            inFlight.remove(key, flight);
+            flight.complete(result);
+            return result;
+        } catch (Throwable t) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(t);
+            throw t;
+        }
+    }
+
+    private boolean mustReadOwnWrites() {
+        ReadYourWritesTracker tracker = readYourWritesTracker.getIfAvailable();
+        if (tracker == null) {
+            return false;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && tracker.isWithinWindow(authentication.getName());
+    }
+
+    private Counter[] registerCounters(Method method) {
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        return new Counter[] {
+                Counter.builder(METRIC).tag("method", name).tag("role", "leader").register(meterRegistry),
+                Counter.builder(METRIC).tag("method", name).tag("role", "follower").register(meterRegistry)
+        };
+    }
+
+    private static final class CallKey {
+        private final Method method;
+        private final Object[] args;
+        private final int hash;
+
+        CallKey(Method method, Object[] args) {
+            this.method = method;
+            this.args = args;
+            this.hash = 31 * method.hashCode() + Arrays.hashCode(args);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CallKey other && method.equals(other.method) && Arrays.equals(args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.inventory.config;
+
+import com.inventory.ratelimit.AdmissionControlProperties;
+import com.inventory.ratelimit.InMemoryRateLimitBackend;
+import com.inventory.ratelimit.RateLimitBackend;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfig {
+
+    @Bean
+    @Lazy(false)
+    @ConditionalOnMissingBean(RateLimitBackend.class)
+    public InMemoryRateLimitBackend inMemoryRateLimitBackend() {
+        return new InMemoryRateLimitBackend();
+    }
+}
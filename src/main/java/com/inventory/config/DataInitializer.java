@@ -2,44 +2,56 @@ package com.inventory.config;
 
 import com.inventory.model.Role;
 import com.inventory.repository.RoleRepository;
+import com.inventory.security.RoleRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
 
+    private static final Map<Role.RoleName, String> DEFAULT_ROLES = new EnumMap<>(Map.of(
+            Role.RoleName.ROLE_USER, "Standard user with read access to view products and categories",
+            Role.RoleName.ROLE_MANAGER, "Manager with read/write access to manage inventory",
+            Role.RoleName.ROLE_ADMIN, "Administrator with full access to all system features"
+    ));
+
     private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
 
+    // No surrounding transaction: saveAll commits or rolls back on its own, so a
+    // failed insert (another node seeding the same roles) is logged, not fatal
     @Override
     public void run(String... args) {
         try {
-            // Initialize roles if they don't exist
-            if (roleRepository.count() == 0) {
-                log.info("Initializing default roles...");
-
-                Role userRole = new Role();
-                userRole.setName(Role.RoleName.ROLE_USER);
-                userRole.setDescription("Standard user with read access to view products and categories");
-                roleRepository.save(userRole);
-
-                Role managerRole = new Role();
-                managerRole.setName(Role.RoleName.ROLE_MANAGER);
-                managerRole.setDescription("Manager with read/write access to manage inventory");
-                roleRepository.save(managerRole);
-
-                Role adminRole = new Role();
-                adminRole.setName(Role.RoleName.ROLE_ADMIN);
-                adminRole.setDescription("Administrator with full access to all system features");
-                roleRepository.save(adminRole);
-
-                log.info("Default roles initialized successfully");
-            } else {
+            // Create only the roles that are missing, in a single batch; the
+            // registry reloads itself once the insert commits
+            List<Role> missing = new ArrayList<>();
+            DEFAULT_ROLES.forEach((name, description) -> {
+                if (!roleRegistry.contains(name)) {
+                    Role role = new Role();
+                    role.setName(name);
+                    role.setDescription(description);
+                    missing.add(role);
+                }
+            });
+
+            if (missing.isEmpty()) {
                 log.info("Roles already exist, skipping initialization");
+                return;
             }
+
+            log.info("Initializing {} missing default roles...", missing.size());
+            roleRepository.saveAll(missing);
+            log.info("Default roles initialized successfully");
         } catch (Exception e) {
             log.error("Error initializing data: {}", e.getMessage());
         }
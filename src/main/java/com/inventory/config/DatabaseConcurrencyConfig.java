@@ -0,0 +1,30 @@
+package com.inventory.config;
+
+import com.inventory.concurrency.AdaptiveConcurrencyLimiter;
+import com.inventory.concurrency.DatabaseConcurrencyAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "inventory.db-limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseConcurrencyConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter databaseConcurrencyLimiter(
+            @Value("${inventory.db-limiter.initial-limit:20}") int initialLimit,
+            @Value("${inventory.db-limiter.min-limit:4}") int minLimit,
+            @Value("${inventory.db-limiter.max-limit:40}") int maxLimit,
+            @Value("${inventory.db-limiter.bulk-share:0.5}") double bulkShare,
+            @Value("${inventory.db-limiter.tolerance:1.5}") double tolerance) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, bulkShare, tolerance, System::nanoTime);
+    }
+
+    @Bean
+    public DatabaseConcurrencyAspect databaseConcurrencyAspect(AdaptiveConcurrencyLimiter databaseConcurrencyLimiter,
+                                                               MeterRegistry meterRegistry) {
+        return new DatabaseConcurrencyAspect(databaseConcurrencyLimiter, meterRegistry);
+    }
+}
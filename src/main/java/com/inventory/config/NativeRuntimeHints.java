@@ -0,0 +1,95 @@
+package com.inventory.config;
+
+import jakarta.persistence.Entity;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reachability metadata for the GraalVM native image (see the {@code native}
+ * Maven profile). Spring AOT covers most beans; this adds what it cannot infer:
+ * entity and DTO reflection, and the jjwt implementation classes that the
+ * jjwt API loads by name.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String MODEL_PACKAGE = "com.inventory.model";
+    private static final String DTO_PACKAGE = "com.inventory.dto";
+    private static final String EXCEPTION_PACKAGE = "com.inventory.exception";
+
+    private static final List<String> JJWT_IMPLEMENTATION_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        scan(classLoader, MODEL_PACKAGE, true,
+                type -> hints.reflection().registerType(type, MemberCategory.values()));
+        scan(classLoader, DTO_PACKAGE, false,
+                type -> bindingRegistrar.registerReflectionHints(hints.reflection(), type));
+        scan(classLoader, EXCEPTION_PACKAGE, false,
+                type -> bindingRegistrar.registerReflectionHints(hints.reflection(), type));
+
+        for (String typeName : JJWT_IMPLEMENTATION_TYPES) {
+            hints.reflection().registerType(TypeReference.of(typeName),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+    }
+
+    private void scan(ClassLoader classLoader, String basePackage, boolean entitiesOnly, Consumer<Class<?>> action) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isIndependent();
+            }
+        };
+        if (entitiesOnly) {
+            scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        } else {
+            scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+        }
+
+        for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+            Class<?> type = ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader);
+            action.accept(type);
+            for (Class<?> nested : type.getDeclaredClasses()) {
+                action.accept(nested);
+            }
+        }
+    }
+}
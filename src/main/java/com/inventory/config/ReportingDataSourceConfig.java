@@ -0,0 +1,25 @@
+package com.inventory.config;
+
+import com.inventory.datasource.ReportingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ReportingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("inventory.reporting.datasource")
+    public HikariConfig reportingHikariConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    public ReportingDataSource reportingDataSource(
+            HikariConfig reportingHikariConfig,
+            @Value("${inventory.reporting.query-timeout:30}") int queryTimeoutSeconds) {
+        return new ReportingDataSource(reportingHikariConfig, queryTimeoutSeconds);
+    }
+}
@@ -2,10 +2,14 @@ package com.inventory.controller;
 
 import com.inventory.dto.JwtResponse;
 import com.inventory.dto.LoginRequest;
+import com.inventory.dto.RefreshTokenRequest;
 import com.inventory.dto.UserRequest;
 import com.inventory.dto.UserResponse;
-import com.inventory.security.JwtTokenProvider;
+import com.inventory.security.LoginThrottle;
+import com.inventory.security.PasswordHashingExecutor;
+import com.inventory.service.AuthTokenService;
 import com.inventory.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -13,12 +17,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/auth")
@@ -26,11 +28,40 @@ import java.util.stream.Collectors;
 public class AuthController {
 
     private final AuthenticationManager authenticationManager;
-    private final JwtTokenProvider tokenProvider;
+    private final AuthTokenService authTokenService;
     private final UserService userService;
+    private final LoginThrottle loginThrottle;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
+    // BCrypt runs on the bounded hashing pool; the request thread is released
+    // while it waits and throttled attempts never reach the password check.
     @PostMapping("/login")
-    public ResponseEntity<JwtResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<JwtResponse>> authenticateUser(
+            @Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        loginThrottle.checkAttempt(loginRequest.getUsername(), request.getRemoteAddr());
+        return passwordHashingExecutor.submit(() -> authenticate(loginRequest));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        return ResponseEntity.ok(authTokenService.refresh(refreshRequest.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenRequest refreshRequest,
+                                       HttpServletRequest request) {
+        authTokenService.logout(refreshRequest != null ? refreshRequest.getRefreshToken() : null,
+                getJwtFromRequest(request));
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/register")
+    public ResponseEntity<UserResponse> registerUser(@Valid @RequestBody UserRequest userRequest) {
+        UserResponse response = userService.createUser(userRequest);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    private ResponseEntity<JwtResponse> authenticate(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         loginRequest.getUsername(),
@@ -38,26 +69,14 @@ public class AuthController {
                 )
         );
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
-
-        org.springframework.security.core.userdetails.User userDetails = 
-                (org.springframework.security.core.userdetails.User) authentication.getPrincipal();
-
-        Set<String> roles = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toSet());
-
-        // For simplicity, we're using placeholder values for id and email
-        // In a real application, you'd fetch these from the UserDetailsService
-        JwtResponse response = new JwtResponse(jwt, 0L, userDetails.getUsername(), "", roles);
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(authTokenService.issueTokens(authentication.getName()));
     }
 
-    @PostMapping("/register")
-    public ResponseEntity<UserResponse> registerUser(@Valid @RequestBody UserRequest userRequest) {
-        UserResponse response = userService.createUser(userRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    private String getJwtFromRequest(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
     }
 }
@@ -2,6 +2,7 @@ package com.inventory.controller;
 
 import com.inventory.dto.CategoryRequest;
 import com.inventory.dto.CategoryResponse;
+import com.inventory.service.CatalogQueryService;
 import com.inventory.service.CategoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +19,7 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogQueryService catalogQueryService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
@@ -29,14 +31,14 @@ public class CategoryController {
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
     public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable Long id) {
-        CategoryResponse response = categoryService.getCategoryById(id);
+        CategoryResponse response = catalogQueryService.getCategoryById(id);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
     public ResponseEntity<List<CategoryResponse>> getAllCategories() {
-        List<CategoryResponse> categories = categoryService.getAllCategories();
+        List<CategoryResponse> categories = catalogQueryService.getAllCategories();
         return ResponseEntity.ok(categories);
     }
 
@@ -1,7 +1,12 @@
 package com.inventory.controller;
 
+import com.inventory.dto.ProductFacetQuery;
+import com.inventory.dto.ProductFacetsResponse;
 import com.inventory.dto.ProductRequest;
 import com.inventory.dto.ProductResponse;
+import com.inventory.dto.ReorderSuggestion;
+import com.inventory.exception.BadRequestException;
+import com.inventory.service.CatalogQueryService;
 import com.inventory.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,13 +16,17 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final int MAX_FACET_LIMIT = 1000;
+
     private final ProductService productService;
+    private final CatalogQueryService catalogQueryService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
@@ -29,35 +38,69 @@ public class ProductController {
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
     public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
-        ProductResponse response = productService.getProductById(id);
+        ProductResponse response = catalogQueryService.getProductById(id);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
     public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        List<ProductResponse> products = productService.getAllProducts();
+        List<ProductResponse> products = catalogQueryService.getAllProducts();
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping("/batch")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
+    public ResponseEntity<List<ProductResponse>> getProductsByIds(@RequestParam long[] ids) {
+        List<ProductResponse> products = catalogQueryService.getProductsByIds(ids);
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping(params = "fields")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
+    public ResponseEntity<List<Map<String, Object>>> getAllProducts(@RequestParam List<String> fields) {
+        List<Map<String, Object>> products = productService.getAllProducts(fields);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/category/{categoryId}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
-    public ResponseEntity<List<ProductResponse>> getProductsByCategory(@PathVariable Long categoryId) {
-        List<ProductResponse> products = productService.getProductsByCategory(categoryId);
+    public ResponseEntity<List<ProductResponse>> getProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(defaultValue = "false") boolean includeSubcategories) {
+        List<ProductResponse> products = catalogQueryService.getProductsByCategory(categoryId, includeSubcategories);
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/facets")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
+    public ResponseEntity<ProductFacetsResponse> getProductFacets(
+            @RequestParam(name = "categoryId", required = false) List<Long> categoryIds,
+            @RequestParam(defaultValue = "false") boolean includeSubcategories,
+            @RequestParam(name = "status", required = false) List<String> statuses,
+            @RequestParam(name = "priceBand", required = false) List<String> priceBands,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_FACET_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_FACET_LIMIT);
+        }
+        ProductFacetsResponse response = catalogQueryService.getProductFacets(new ProductFacetQuery(
+                categoryIds, includeSubcategories, statuses, priceBands, inStock, afterId, limit));
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
     public ResponseEntity<List<ProductResponse>> searchProducts(@RequestParam String keyword) {
-        List<ProductResponse> products = productService.searchProducts(keyword);
+        List<ProductResponse> products = catalogQueryService.searchProducts(keyword);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/low-stock")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<List<ProductResponse>> getLowStockProducts() {
-        List<ProductResponse> products = productService.getLowStockProducts();
+        List<ProductResponse> products = catalogQueryService.getLowStockProducts();
         return ResponseEntity.ok(products);
     }
 
@@ -79,6 +122,12 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/reorder-suggestion")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ReorderSuggestion> getReorderSuggestion(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.getReorderSuggestion(id));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
@@ -0,0 +1,53 @@
+package com.inventory.controller;
+
+import com.inventory.dto.InventoryValuationReport;
+import com.inventory.exception.BadRequestException;
+import com.inventory.service.InventoryReportService;
+import com.inventory.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private static final int MAX_DAYS = 3650;
+    private static final int MAX_LIMIT = 500;
+
+    private final InventoryReportService inventoryReportService;
+    private final NotificationService notificationService;
+
+    @GetMapping("/inventory-valuation")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<InventoryValuationReport> getInventoryValuation(
+            @RequestParam(defaultValue = "30") int turnoverDays,
+            @RequestParam(defaultValue = "90") int deadStockDays,
+            @RequestParam(defaultValue = "50") int limit) {
+        checkRange("turnoverDays", turnoverDays, MAX_DAYS);
+        checkRange("deadStockDays", deadStockDays, MAX_DAYS);
+        checkRange("limit", limit, MAX_LIMIT);
+        return ResponseEntity.ok(inventoryReportService.generateValuationReport(turnoverDays, deadStockDays, limit));
+    }
+
+    @GetMapping("/inventory-valuation/live")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<InventoryValuationReport> getLiveInventoryValuation() {
+        return ResponseEntity.ok(inventoryReportService.generateLiveValuation());
+    }
+
+    @PostMapping("/inventory-valuation/send")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<Void> sendInventoryValuation() {
+        notificationService.sendInventoryReport();
+        return ResponseEntity.accepted().build();
+    }
+
+    private static void checkRange(String name, int value, int max) {
+        if (value < 1 || value > max) {
+            throw new BadRequestException(name + " must be between 1 and " + max);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.inventory.controller;
+
+import com.inventory.dto.PagedResponse;
+import com.inventory.dto.PriceChange;
+import com.inventory.dto.PriceChangeRunResponse;
+import com.inventory.dto.RepricingPreview;
+import com.inventory.dto.RepricingRule;
+import com.inventory.exception.BadRequestException;
+import com.inventory.pricing.RepricingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/pricing")
+@RequiredArgsConstructor
+public class RepricingController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final RepricingService repricingService;
+
+    @PostMapping("/preview")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<RepricingPreview> preview(@Valid @RequestBody RepricingRule rule) {
+        return ResponseEntity.ok(repricingService.preview(rule));
+    }
+
+    // Accepted: the run continues in the background; poll GET /pricing/runs/{id}
+    @PostMapping("/runs")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<PriceChangeRunResponse> startRun(@Valid @RequestBody RepricingRule rule, Principal principal) {
+        PriceChangeRunResponse run = repricingService.startRun(rule, principal.getName());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(run);
+    }
+
+    @GetMapping("/runs")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<PagedResponse<PriceChangeRunResponse>> getRuns(
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(PagedResponse.of(repricingService.getRuns(pageable)));
+    }
+
+    @GetMapping("/runs/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<PriceChangeRunResponse> getRun(@PathVariable Long id) {
+        return ResponseEntity.ok(repricingService.getRun(id));
+    }
+
+    @GetMapping("/runs/{id}/changes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<List<PriceChange>> getChanges(@PathVariable Long id,
+                                                        @RequestParam(defaultValue = "0") long afterProductId,
+                                                        @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(repricingService.getChanges(id, afterProductId, limit));
+    }
+
+    @PostMapping("/runs/{id}/revert")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<PriceChangeRunResponse> revert(@PathVariable Long id, Principal principal) {
+        PriceChangeRunResponse run = repricingService.startRevert(id, principal.getName());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(run);
+    }
+}
@@ -1,17 +1,18 @@
 package com.inventory.controller;
 
+import com.inventory.dto.PagedResponse;
 import com.inventory.dto.UserRequest;
 import com.inventory.dto.UserResponse;
 import com.inventory.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
@@ -35,8 +36,12 @@ public class UserController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers();
+    public ResponseEntity<PagedResponse<UserResponse>> getUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) String username,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        PagedResponse<UserResponse> users = userService.getUsers(role, enabled, username, pageable);
         return ResponseEntity.ok(users);
     }
 
@@ -0,0 +1,42 @@
+package com.inventory.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last ran a read-write transaction so that their
+ * own follow-up reads stay on the primary until the replica has had time to
+ * catch up.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowMillis;
+    private final ConcurrentHashMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void recordWrite(String username) {
+        lastWrites.put(username, System.currentTimeMillis());
+    }
+
+    public boolean isWithinWindow(String username) {
+        Long lastWrite = lastWrites.get(username);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - lastWrite < windowMillis) {
+            return true;
+        }
+        lastWrites.remove(username, lastWrite);
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.datasource.replica.read-your-writes-window:5000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        lastWrites.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+}
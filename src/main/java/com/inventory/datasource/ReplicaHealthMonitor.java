@@ -0,0 +1,76 @@
+package com.inventory.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Periodically checks that the replica is reachable and that its replication
+ * lag is within bounds. The replica starts out unhealthy so that nothing is
+ * routed to it before the first successful check.
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource replicaDataSource;
+    private final String lagQuery;
+    private final long maxLagMillis;
+
+    private volatile boolean healthy;
+
+    public ReplicaHealthMonitor(DataSource replicaDataSource, String lagQuery, long maxLagMillis) {
+        this.replicaDataSource = replicaDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.datasource.replica.health-check-interval:5000}")
+    public void check() {
+        boolean nowHealthy;
+        try (Connection connection = replicaDataSource.getConnection()) {
+            nowHealthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS) && lagWithinBounds(connection);
+        } catch (SQLException e) {
+            log.debug("Replica health check failed: {}", e.getMessage());
+            nowHealthy = false;
+        }
+
+        if (nowHealthy != healthy) {
+            if (nowHealthy) {
+                log.info("Replica is healthy, routing read-only transactions to it");
+            } else {
+                log.warn("Replica is unhealthy or lagging, routing all transactions to the primary");
+            }
+        }
+        healthy = nowHealthy;
+    }
+
+    private boolean lagWithinBounds(Connection connection) throws SQLException {
+        if (!StringUtils.hasText(lagQuery)) {
+            return true;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return true;
+            }
+            long lagMillis = (long) (resultSet.getDouble(1) * 1000);
+            if (lagMillis > maxLagMillis) {
+                log.debug("Replica lag {} ms exceeds limit of {} ms", lagMillis, maxLagMillis);
+                return false;
+            }
+            return true;
+        }
+    }
+}
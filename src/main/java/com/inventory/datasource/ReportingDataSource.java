@@ -0,0 +1,63 @@
+package com.inventory.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Function;
+
+/**
+ * Small, separate connection pool for long-running read-only report queries,
+ * so they never hold or wait for connections of the OLTP pool. Deliberately
+ * not exposed as a {@code DataSource} bean; it must not take part in JPA or
+ * in the application's transaction manager.
+ */
+public class ReportingDataSource implements AutoCloseable {
+
+    private final HikariDataSource dataSource;
+    private final int queryTimeoutSeconds;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReportingDataSource(HikariConfig config, int queryTimeoutSeconds) {
+        // Copying onto a no-arg instance keeps the pool lazy until the first report
+        this.dataSource = new HikariDataSource();
+        config.copyStateTo(dataSource);
+        dataSource.setReadOnly(true);
+
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
+
+        // One snapshot for all queries of a report
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        transactionTemplate.setTimeout(queryTimeoutSeconds);
+    }
+
+    public <T> T inSnapshot(Function<JdbcTemplate, T> work) {
+        return transactionTemplate.execute(status -> work.apply(jdbcTemplate));
+    }
+
+    /**
+     * Like {@link #inSnapshot(Function)}, but result sets are fetched
+     * {@code fetchSize} rows at a time. With auto-commit off inside the
+     * transaction, the PostgreSQL driver then reads through a server-side
+     * cursor instead of buffering the whole result.
+     */
+    public <T> T inSnapshot(int fetchSize, Function<JdbcTemplate, T> work) {
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setQueryTimeout(queryTimeoutSeconds);
+        streaming.setFetchSize(fetchSize);
+        return transactionTemplate.execute(status -> work.apply(streaming));
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+}
@@ -17,4 +17,7 @@ public class CategoryRequest {
 
     @Size(max = 500, message = "Description must not exceed 500 characters")
     private String description;
+
+    // Null for a top-level category; a different parent on update moves the category with its subtree
+    private Long parentId;
 }
@@ -13,6 +13,9 @@ public class CategoryResponse {
     private Long id;
     private String name;
     private String description;
+    private Long parentId;
+    private Integer depth;
+    // Products in the category and all of its descendants
     private Integer productCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
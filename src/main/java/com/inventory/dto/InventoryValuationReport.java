@@ -0,0 +1,60 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryValuationReport {
+    private LocalDateTime generatedAt;
+    private long elapsedMillis;
+    private long productCount;
+    private long totalUnits;
+    private BigDecimal totalValue;
+    private List<CategoryValuation> valuation;
+    private int turnoverDays;
+    private List<ProductTurnover> turnover;
+    private int deadStockDays;
+    private List<DeadStockItem> deadStock;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryValuation {
+        private Long categoryId;
+        private String categoryName;
+        private String status;
+        private long productCount;
+        private long units;
+        private BigDecimal value;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductTurnover {
+        private Long productId;
+        private String sku;
+        private String name;
+        private long unitsOut;
+        private int currentQuantity;
+        private Double turnoverRatio; // unitsOut / currentQuantity, null when out of stock
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeadStockItem {
+        private Long productId;
+        private String sku;
+        private String name;
+        private int quantity;
+        private BigDecimal value;
+    }
+}
@@ -12,6 +12,8 @@ import java.util.Set;
 public class JwtResponse {
     private String token;
     private String type = "Bearer";
+    private String refreshToken;
+    private Long expiresIn; // access token lifetime in seconds
     private Long id;
     private String username;
     private String email;
@@ -0,0 +1,18 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceChange {
+    private Long productId;
+    private String sku;  // null once the product has been deleted
+    private String name;
+    private BigDecimal oldPrice;
+    private BigDecimal newPrice;
+}
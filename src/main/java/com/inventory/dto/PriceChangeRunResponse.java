@@ -0,0 +1,26 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceChangeRunResponse {
+    private Long id;
+    private RepricingRule rule;
+    private String status;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    private long changedRows;
+    private long skippedRows;
+    private String revertedBy;
+    private LocalDateTime revertedAt;
+    private long restoredRows;
+    private String error;
+}
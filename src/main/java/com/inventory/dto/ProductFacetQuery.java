@@ -0,0 +1,24 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Filters of a faceted product query. Values within a facet are alternatives,
+ * facets narrow each other; an empty or null facet does not filter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetQuery {
+    private List<Long> categoryIds;
+    private boolean includeSubcategories;
+    private List<String> statuses;
+    private List<String> priceBands;
+    private Boolean inStock;
+    private long afterId;  // products are returned in id order, from the first id above this
+    private int limit;
+}
@@ -0,0 +1,35 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the products matching a {@link ProductFacetQuery}, with counts
+ * for every facet value. A facet's counts apply all the other facets' filters
+ * but not its own, so they say how many products choosing that value instead
+ * (or as well) would give.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetsResponse {
+    private long total;
+    private List<ProductResponse> products;
+    private Long nextAfterId;  // null on the last page
+    private List<FacetCount> categories;
+    private List<FacetCount> statuses;
+    private List<FacetCount> priceBands;
+    private List<FacetCount> inStock;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCount {
+        private String value;
+        private String label;  // category name; null for the other facets
+        private long count;
+    }
+}
@@ -0,0 +1,42 @@
+package com.inventory.dto;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fields of {@link ProductResponse} that can be requested individually
+ * through the sparse-fieldset parameter ({@code ?fields=id,sku,quantity}).
+ */
+public enum ProductField {
+    ID("id"),
+    SKU("sku"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    PRICE("price"),
+    QUANTITY("quantity"),
+    REORDER_LEVEL("reorderLevel"),
+    CATEGORY_ID("categoryId"),
+    CATEGORY_NAME("categoryName"),
+    STATUS("status"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private static final Map<String, ProductField> BY_FIELD_NAME = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(ProductField::getFieldName, Function.identity()));
+
+    private final String fieldName;
+
+    ProductField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public static ProductField fromFieldName(String fieldName) {
+        return BY_FIELD_NAME.get(fieldName);
+    }
+}
@@ -25,6 +25,7 @@ public class ProductRequest {
 
     @NotNull(message = "Price is required")
     @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+    @Digits(integer = 10, fraction = 2, message = "Price must have at most 10 integer digits and 2 decimals")
     private BigDecimal price;
 
     @NotNull(message = "Quantity is required")
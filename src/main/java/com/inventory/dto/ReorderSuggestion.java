@@ -0,0 +1,14 @@
+package com.inventory.dto;
+
+import lombok.Data;
+
+@Data
+public class ReorderSuggestion {
+    private Long productId;
+    private String sku;
+    private Integer currentReorderLevel;
+    private Integer suggestedReorderLevel;
+    private double dailyDemand;
+    private double demandStdDev;
+    private int observations;
+}
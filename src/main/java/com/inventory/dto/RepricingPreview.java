@@ -0,0 +1,17 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepricingPreview {
+    private long matchedProducts;
+    private long changedProducts;  // matched and the price actually differs
+    private long invalidProducts;  // the new price would be zero or less, or above the maximum
+    private List<PriceChange> sample;
+}
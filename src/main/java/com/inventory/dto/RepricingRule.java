@@ -0,0 +1,47 @@
+package com.inventory.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * A bulk price change: which products it selects, and how their price
+ * changes. Selector fields left unset match every product; those that are set
+ * must all match.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepricingRule {
+
+    public enum Adjustment {
+        PERCENT,    // price * (1 + value / 100), rounded half up to cents
+        AMOUNT,     // price + value
+        SET,        // value
+        SKU_PRICES  // the price given for the product's SKU in prices
+    }
+
+    private Long categoryId;
+
+    private boolean includeSubcategories; // also match products in categories below categoryId
+
+    @Size(max = 50, message = "SKU pattern must not exceed 50 characters")
+    private String skuPattern; // * matches any run of characters, ? any single one
+
+    private String status;
+
+    @NotNull(message = "Adjustment is required")
+    private Adjustment adjustment;
+
+    private BigDecimal value;
+
+    private Map<String, BigDecimal> prices;
+
+    @Size(max = 500, message = "Reason must not exceed 500 characters")
+    private String reason;
+}
@@ -0,0 +1,15 @@
+package com.inventory.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Every access token issued to the user so far must stop working: roles or
+ * password changed, or the user was deleted. Applied after commit, so a
+ * token refreshed before then still counts as issued before the change.
+ */
+@Getter
+@RequiredArgsConstructor
+public class AccessTokensRevokedEvent {
+    private final String username;
+}
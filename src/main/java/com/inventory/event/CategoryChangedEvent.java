@@ -0,0 +1,14 @@
+package com.inventory.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A category was created, updated or deleted. Listeners re-read the row after
+ * commit; a missing row means it was deleted along with its products.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CategoryChangedEvent {
+    private final long categoryId;
+}
@@ -0,0 +1,14 @@
+package com.inventory.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A product was created, updated or deleted. Listeners re-read the row after
+ * commit; a missing row means it was deleted.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ProductChangedEvent {
+    private final long productId;
+}
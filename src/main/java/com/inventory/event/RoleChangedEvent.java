@@ -0,0 +1,11 @@
+package com.inventory.event;
+
+import com.inventory.model.Role;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class RoleChangedEvent {
+    private final Role.RoleName roleName;
+}
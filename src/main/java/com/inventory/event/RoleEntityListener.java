@@ -0,0 +1,28 @@
+package com.inventory.event;
+
+import com.inventory.model.Role;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA callback on {@link Role}; Hibernate obtains it from the Spring context,
+ * so every write through the role repository is announced as a
+ * {@link RoleChangedEvent}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoleEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Role role) {
+        eventPublisher.publishEvent(new RoleChangedEvent(role.getName()));
+    }
+}
@@ -0,0 +1,11 @@
+package com.inventory.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class StockDecreasedEvent {
+    private final long productId;
+    private final int units;
+}
@@ -0,0 +1,9 @@
+package com.inventory.exception;
+
+public class BadRequestException extends DomainException {
+    private static final long serialVersionUID = 1L;
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,38 @@
+package com.inventory.exception;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Millisecond-granular {@link LocalDateTime} for error bodies. Bursts of errors
+ * within the same millisecond share one instance instead of each resolving
+ * the zone and allocating a new timestamp.
+ */
+final class CoarseClock {
+
+    private static volatile Tick last = new Tick(0, LocalDateTime.MIN);
+
+    private CoarseClock() {
+    }
+
+    static LocalDateTime now() {
+        long millis = System.currentTimeMillis();
+        Tick tick = last;
+        if (tick.millis != millis) {
+            tick = new Tick(millis, LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+            last = tick;
+        }
+        return tick.time;
+    }
+
+    private static final class Tick {
+        private final long millis;
+        private final LocalDateTime time;
+
+        private Tick(long millis, LocalDateTime time) {
+            this.millis = millis;
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.inventory.exception;
+
+/**
+ * Base class for expected, client-caused failures that map to a 4xx response.
+ * They are thrown far more often than real faults (scanners probing ids, bad
+ * tokens) and the handler never prints their trace, so the stack trace is not
+ * captured and the exception is not writable.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,6 +1,8 @@
 package com.inventory.exception;
 
-public class DuplicateResourceException extends RuntimeException {
+public class DuplicateResourceException extends DomainException {
+    private static final long serialVersionUID = 1L;
+
     public DuplicateResourceException(String message) {
         super(message);
     }
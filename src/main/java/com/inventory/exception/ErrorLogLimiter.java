@@ -0,0 +1,49 @@
+package com.inventory.exception;
+
+import com.inventory.ratelimit.BucketSpec;
+import com.inventory.ratelimit.KeyedRateLimiter;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how often expected errors are logged, per exception class. Entries
+ * that are dropped are counted and reported with the next one that gets
+ * through, so a flood still shows up in the log as a single line.
+ */
+@Component
+public class ErrorLogLimiter {
+
+    private final KeyedRateLimiter limiter = new KeyedRateLimiter();
+    private final BucketSpec spec;
+
+    private final ClassValue<LongAdder> suppressed = new ClassValue<>() {
+        @Override
+        protected LongAdder computeValue(Class<?> type) {
+            return new LongAdder();
+        }
+    };
+
+    public ErrorLogLimiter(@Value("${inventory.errors.log-per-second:5}") int logsPerSecond) {
+        this.spec = BucketSpec.of(logsPerSecond, logsPerSecond);
+    }
+
+    public void warn(Logger log, String label, Exception ex) {
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        Class<?> type = ex.getClass();
+        if (limiter.tryAcquire(type.getName(), spec) > 0) {
+            suppressed.get(type).increment();
+            return;
+        }
+        long dropped = suppressed.get(type).sumThenReset();
+        if (dropped > 0) {
+            log.warn("{}: {} ({} similar suppressed)", label, ex.getMessage(), dropped);
+        } else {
+            log.warn("{}: {}", label, ex.getMessage());
+        }
+    }
+}
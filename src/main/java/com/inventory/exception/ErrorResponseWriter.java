@@ -0,0 +1,35 @@
+package com.inventory.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes an {@link ErrorResponse} straight to the servlet response, for errors
+ * raised in filters before Spring MVC and {@link GlobalExceptionHandler} are
+ * involved. Uses the application's {@link ObjectMapper} through a reusable
+ * {@link ObjectWriter}.
+ */
+@Component
+public class ErrorResponseWriter {
+
+    private final ObjectWriter writer;
+
+    public ErrorResponseWriter(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writerFor(ErrorResponse.class);
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response,
+                      HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        writer.writeValue(response.getOutputStream(), new ErrorResponse(
+                CoarseClock.now(), status.value(), status.getReasonPhrase(), message, request.getRequestURI()));
+    }
+}
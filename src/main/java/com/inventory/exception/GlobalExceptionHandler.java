@@ -1,34 +1,41 @@
 package com.inventory.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
-import org.springframework.web.context.request.WebRequest;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+// Client errors are logged at WARN through ErrorLogLimiter; only unexpected
+// failures are logged at ERROR with their stack trace.
 @RestControllerAdvice
+@RequiredArgsConstructor
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final ErrorLogLimiter errorLogLimiter;
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleResourceNotFoundException(
-            ResourceNotFoundException ex, WebRequest request) {
-        log.error("Resource not found: {}", ex.getMessage());
+            ResourceNotFoundException ex, HttpServletRequest request) {
+        errorLogLimiter.warn(log, "Resource not found", ex);
 
         ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
+                CoarseClock.now(),
                 HttpStatus.NOT_FOUND.value(),
                 "Not Found",
                 ex.getMessage(),
-                request.getDescription(false).replace("uri=", "")
+                request.getRequestURI()
         );
 
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
@@ -36,24 +43,40 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(DuplicateResourceException.class)
     public ResponseEntity<ErrorResponse> handleDuplicateResourceException(
-            DuplicateResourceException ex, WebRequest request) {
-        log.error("Duplicate resource: {}", ex.getMessage());
+            DuplicateResourceException ex, HttpServletRequest request) {
+        errorLogLimiter.warn(log, "Duplicate resource", ex);
 
         ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
+                CoarseClock.now(),
                 HttpStatus.CONFLICT.value(),
                 "Conflict",
                 ex.getMessage(),
-                request.getDescription(false).replace("uri=", "")
+                request.getRequestURI()
         );
 
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequestException(
+            BadRequestException ex, HttpServletRequest request) {
+        errorLogLimiter.warn(log, "Bad request", ex);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                CoarseClock.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(
-            MethodArgumentNotValidException ex, WebRequest request) {
-        log.error("Validation error: {}", ex.getMessage());
+            MethodArgumentNotValidException ex, HttpServletRequest request) {
+        errorLogLimiter.warn(log, "Validation error", ex);
 
         Map<String, String> validationErrors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
@@ -63,28 +86,96 @@ public class GlobalExceptionHandler {
         });
 
         ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
+                CoarseClock.now(),
                 HttpStatus.BAD_REQUEST.value(),
                 "Validation Failed",
                 "Invalid input data",
-                request.getDescription(false).replace("uri=", ""),
+                request.getRequestURI(),
                 validationErrors
         );
 
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<ErrorResponse> handleAuthenticationException(
+            AuthenticationException ex, HttpServletRequest request) {
+        errorLogLimiter.warn(log, "Authentication failed", ex);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                CoarseClock.now(),
+                HttpStatus.UNAUTHORIZED.value(),
+                "Unauthorized",
+                "Invalid username or password",
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidTokenException(
+            InvalidTokenException ex, HttpServletRequest request) {
+        errorLogLimiter.warn(log, "Invalid token", ex);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                CoarseClock.now(),
+                HttpStatus.UNAUTHORIZED.value(),
+                "Unauthorized",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(
+            RateLimitExceededException ex, HttpServletRequest request) {
+        errorLogLimiter.warn(log, "Rate limit exceeded", ex);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                CoarseClock.now(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloadedException(
+            ServiceOverloadedException ex, HttpServletRequest request) {
+        errorLogLimiter.warn(log, "Request shed with 503", ex);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                CoarseClock.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorResponse> handleAccessDeniedException(
-            AccessDeniedException ex, WebRequest request) {
-        log.error("Access denied: {}", ex.getMessage());
+            AccessDeniedException ex, HttpServletRequest request) {
+        errorLogLimiter.warn(log, "Access denied", ex);
 
         ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
+                CoarseClock.now(),
                 HttpStatus.FORBIDDEN.value(),
                 "Forbidden",
                 "You don't have permission to access this resource",
-                request.getDescription(false).replace("uri=", "")
+                request.getRequestURI()
         );
 
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
@@ -92,15 +183,15 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(
-            Exception ex, WebRequest request) {
+            Exception ex, HttpServletRequest request) {
         log.error("Internal server error: {}", ex.getMessage(), ex);
 
         ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
+                CoarseClock.now(),
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
                 "Internal Server Error",
                 "An unexpected error occurred",
-                request.getDescription(false).replace("uri=", "")
+                request.getRequestURI()
         );
 
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -0,0 +1,9 @@
+package com.inventory.exception;
+
+public class InvalidTokenException extends DomainException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.inventory.exception;
+
+/**
+ * Work was shed because this node cannot take it right now, e.g. the database
+ * is saturated or the catalog read model is still loading; maps to 503 with a
+ * Retry-After. Thrown in bursts, so like {@link DomainException} it skips the
+ * stack trace.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
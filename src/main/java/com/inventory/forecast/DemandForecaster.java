@@ -0,0 +1,277 @@
+package com.inventory.forecast;
+
+import com.inventory.event.StockDecreasedEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Per-product demand forecast from committed stock decreases.
+ *
+ * <p>Decreases are added to a lock-free counter per product. On every
+ * recompute the counters are drained into an exponentially weighted mean and
+ * variance of daily demand, and a reorder level is suggested as demand over
+ * the lead time plus safety stock:
+ * {@code ceil(mean * leadTime + z * sqrt(variance * leadTime))}.
+ *
+ * <p>Each observation covers one recompute interval, usually shorter than a
+ * day. The demand over an interval of {@code d} days, divided by {@code d},
+ * varies {@code 1/d} times as much as daily demand, so squared deviations are
+ * scaled by {@code d}; the smoothing weight is per day and is scaled to the
+ * interval too. Hourly and daily recomputes then converge on the same figures.
+ *
+ * <p>Counters are per node, and auto-apply writes from whatever the local
+ * node has seen. It is meant for a single node; behind a load balancer each
+ * node would overwrite the others' levels with a partial view of demand.
+ *
+ * <p>State lives in primitive arrays indexed by product id, split into pages
+ * of 4096 ids that are allocated on first use (about 32 bytes per id). Each
+ * page is recomputed by a single thread of a parallel stream.
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class DemandForecaster {
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int MAX_PAGES = 1 << 19;
+    private static final double MILLIS_PER_DAY = 86_400_000d;
+    private static final int BATCH_SIZE = 500;
+    private static final String APPLY_SQL = "UPDATE products SET reorder_level = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double alpha;
+    private final double leadTimeDays;
+    private final double safetyFactor;
+    private final int minObservations;
+    private final boolean autoApply;
+
+    private volatile Page[] pages = new Page[0];
+    private volatile long lastRecomputeMillis = System.currentTimeMillis();
+
+    public DemandForecaster(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${inventory.forecast.smoothing:0.1}") double alpha,
+                            @Value("${inventory.forecast.lead-time-days:7}") double leadTimeDays,
+                            @Value("${inventory.forecast.safety-factor:1.65}") double safetyFactor,
+                            @Value("${inventory.forecast.min-observations:24}") int minObservations,
+                            @Value("${inventory.forecast.auto-apply:false}") boolean autoApply) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.alpha = alpha;
+        this.leadTimeDays = leadTimeDays;
+        this.safetyFactor = safetyFactor;
+        this.minObservations = minObservations;
+        this.autoApply = autoApply;
+    }
+
+    // After commit, so decreases from rolled-back updates are not counted
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockDecreased(StockDecreasedEvent event) {
+        record(event.getProductId(), event.getUnits());
+    }
+
+    public void record(long productId, int units) {
+        Page page = page(productId, true);
+        if (page != null) {
+            page.pending.addAndGet((int) (productId & PAGE_MASK), units);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.forecast.interval:3600000}",
+            initialDelayString = "${inventory.forecast.interval:3600000}")
+    public void recompute() {
+        long now = System.currentTimeMillis();
+        double elapsedDays = (now - lastRecomputeMillis) / MILLIS_PER_DAY;
+        long start = System.nanoTime();
+        int tracked = recompute(elapsedDays);
+        lastRecomputeMillis = now;
+        log.info("Demand forecast recomputed for {} products in {} ms", tracked, (System.nanoTime() - start) / 1_000_000);
+
+        if (autoApply) {
+            applySuggestions();
+        }
+    }
+
+    /**
+     * Folds the demand recorded over the last {@code elapsedDays} into every
+     * tracked product and returns the number of tracked products.
+     */
+    public int recompute(double elapsedDays) {
+        if (elapsedDays <= 0) {
+            return 0;
+        }
+        Page[] snapshot = pages;
+        // The weight a whole day of observations would have had
+        double weight = 1 - Math.pow(1 - alpha, elapsedDays);
+        return IntStream.range(0, snapshot.length)
+                .parallel()
+                .map(i -> snapshot[i] != null ? snapshot[i].fold(elapsedDays, weight) : 0)
+                .sum();
+    }
+
+    public Forecast forecast(long productId) {
+        Page page = page(productId, false);
+        if (page == null) {
+            return null;
+        }
+        // Plain reads; a recompute running concurrently may show either its own or the previous value
+        int slot = (int) (productId & PAGE_MASK);
+        if (page.observations[slot] == 0) {
+            return null;
+        }
+        return new Forecast(page.mean[slot], Math.sqrt(page.variance[slot]),
+                page.suggested[slot], page.observations[slot]);
+    }
+
+    /**
+     * Writes suggestions that differ from the last applied value to
+     * {@code products.reorder_level} in JDBC batches. Products with fewer than
+     * the minimum number of observations keep their manual level.
+     */
+    void applySuggestions() {
+        Page[] snapshot = pages;
+        // Parallel primitive arrays, so queuing a row allocates nothing
+        long[] ids = new long[BATCH_SIZE];
+        int[] levels = new int[BATCH_SIZE];
+        int queued = 0;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int applied = 0;
+        for (int p = 0; p < snapshot.length; p++) {
+            Page page = snapshot[p];
+            if (page == null) {
+                continue;
+            }
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                if (page.observations[slot] < minObservations || page.suggested[slot] == page.applied[slot]) {
+                    continue;
+                }
+                ids[queued] = ((long) p << PAGE_SHIFT) | slot;
+                levels[queued] = page.suggested[slot];
+                if (++queued == BATCH_SIZE) {
+                    applied += flush(ids, levels, queued, now);
+                    queued = 0;
+                }
+            }
+        }
+        applied += flush(ids, levels, queued, now);
+        if (applied > 0) {
+            log.info("Applied {} forecast reorder levels", applied);
+        }
+    }
+
+    private int flush(long[] ids, int[] levels, int count, Timestamp now) {
+        if (count == 0) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(APPLY_SQL,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setInt(1, levels[i]);
+                        ps.setTimestamp(2, now);
+                        ps.setLong(3, ids[i]);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return count;
+                    }
+                }));
+        // Marked only once written, so a failed batch is retried on the next run
+        for (int i = 0; i < count; i++) {
+            page(ids[i], false).applied[(int) (ids[i] & PAGE_MASK)] = levels[i];
+        }
+        return count;
+    }
+
+    private Page page(long productId, boolean create) {
+        if (productId <= 0 || (productId >>> PAGE_SHIFT) >= MAX_PAGES) {
+            return null;
+        }
+        int index = (int) (productId >>> PAGE_SHIFT);
+        Page[] current = pages;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        return create ? createPage(index) : null;
+    }
+
+    private synchronized Page createPage(int index) {
+        Page[] current = pages;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        if (index >= current.length) {
+            current = Arrays.copyOf(current, Math.min(MAX_PAGES, Math.max(index + 1, current.length * 2)));
+        }
+        Page page = new Page();
+        current[index] = page;
+        pages = current;
+        return page;
+    }
+
+    private final class Page {
+        final AtomicIntegerArray pending = new AtomicIntegerArray(PAGE_SIZE);
+        final double[] mean = new double[PAGE_SIZE];
+        final double[] variance = new double[PAGE_SIZE];
+        final int[] suggested = new int[PAGE_SIZE];
+        final int[] applied = new int[PAGE_SIZE];
+        final int[] observations = new int[PAGE_SIZE];
+
+        int fold(double elapsedDays, double weight) {
+            int tracked = 0;
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                int units = pending.getAndSet(slot, 0);
+                int seen = observations[slot];
+                if (seen == 0 && units == 0) {
+                    continue;
+                }
+                double demand = units / elapsedDays;
+                if (seen == 0) {
+                    mean[slot] = demand;
+                } else {
+                    double diff = demand - mean[slot];
+                    mean[slot] += weight * diff;
+                    // Per-day variance: a rate measured over elapsedDays varies 1/elapsedDays as much
+                    variance[slot] = (1 - weight) * (variance[slot] + weight * diff * diff * elapsedDays);
+                }
+                if (seen < Integer.MAX_VALUE) {
+                    observations[slot] = seen + 1;
+                }
+                suggested[slot] = (int) Math.ceil(mean[slot] * leadTimeDays
+                        + safetyFactor * Math.sqrt(variance[slot] * leadTimeDays));
+                tracked++;
+            }
+            return tracked;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Forecast {
+        private final double dailyDemand;
+        private final double demandStdDev;
+        private final int suggestedReorderLevel;
+        private final int observations;
+    }
+}
@@ -0,0 +1,12 @@
+package com.inventory.idempotency;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class CachedResponse {
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+}
@@ -0,0 +1,223 @@
+package com.inventory.idempotency;
+
+import com.inventory.model.IdempotencyRecord;
+import com.inventory.repository.IdempotencyRecordRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Responses of idempotent requests, keyed by user and Idempotency-Key.
+ *
+ * <p>A bounded in-memory map answers repeated keys on this node without a
+ * database round trip, and concurrent duplicates wait on the future of the
+ * request that is already running. The {@code idempotency_records} table
+ * makes a key visible to the other nodes: the first sighting of a key on a
+ * node claims it with an {@code INSERT ... ON CONFLICT DO NOTHING}, so exactly
+ * one node executes the request.
+ *
+ * <p>A claimed key whose response never arrives, because the node that owned
+ * it died mid-request, is taken over once its claim is older than
+ * {@code inventory.idempotency.lease}, rather than staying in progress until
+ * the key expires. The lease should outlast the slowest request.
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class IdempotencyStore {
+
+    public enum Status { EXECUTE, REPLAY, MISMATCH, IN_PROGRESS }
+
+    private final IdempotencyRecordRepository repository;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long waitTimeoutMillis;
+    private final long leaseMillis;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            @Value("${inventory.idempotency.ttl:86400000}") long ttlMillis,
+                            @Value("${inventory.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${inventory.idempotency.wait-timeout:10000}") long waitTimeoutMillis,
+                            @Value("${inventory.idempotency.lease:30000}") long leaseMillis) {
+        this.repository = repository;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.leaseMillis = leaseMillis;
+    }
+
+    /**
+     * Decides what to do with a request carrying {@code key}. On
+     * {@link Status#EXECUTE} the caller owns the key and must end with
+     * {@link #complete} or {@link #release}.
+     */
+    public Outcome acquire(String key, String fingerprint) {
+        while (true) {
+            long now = System.currentTimeMillis();
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtMillis < now) {
+                entries.remove(key, entry);
+                entry = null;
+            }
+            if (entry == null) {
+                Entry created = new Entry(fingerprint, now + ttlMillis);
+                entry = entries.putIfAbsent(key, created);
+                if (entry == null) {
+                    if (entries.size() > maxEntries) {
+                        evict();
+                    }
+                    return claim(key, created, now);
+                }
+            }
+
+            if (!entry.fingerprint.equals(fingerprint)) {
+                return new Outcome(Status.MISMATCH, null, null);
+            }
+            try {
+                CachedResponse response = entry.response.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+                if (response != null) {
+                    return new Outcome(Status.REPLAY, response, null);
+                }
+                // The owner failed and released the key; compete for it again
+            } catch (TimeoutException e) {
+                return new Outcome(Status.IN_PROGRESS, null, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Outcome(Status.IN_PROGRESS, null, null);
+            } catch (ExecutionException e) {
+                return new Outcome(Status.IN_PROGRESS, null, null);
+            }
+        }
+    }
+
+    private Outcome claim(String key, Entry entry, long now) {
+        try {
+            LocalDateTime createdAt = toDateTime(now);
+            LocalDateTime expiresAt = toDateTime(entry.expiresAtMillis);
+            if (repository.claim(key, entry.fingerprint, createdAt, expiresAt) == 1) {
+                return new Outcome(Status.EXECUTE, null, entry);
+            }
+
+            // Known to another node, or left behind by an expired or abandoned request
+            IdempotencyRecord record = repository.findByKey(key).orElse(null);
+            LocalDateTime leaseCutoff = toDateTime(now - leaseMillis);
+            boolean abandoned = record != null && record.getStatusCode() == null
+                    && record.getCreatedAt().isBefore(leaseCutoff);
+            if (record != null && (record.getExpiresAt().isBefore(createdAt) || abandoned)
+                    && repository.deleteIfExpired(key, createdAt, leaseCutoff) == 1
+                    && repository.claim(key, entry.fingerprint, createdAt, expiresAt) == 1) {
+                return new Outcome(Status.EXECUTE, null, entry);
+            }
+            if (record != null && !record.getFingerprint().equals(entry.fingerprint)) {
+                abandon(key, entry);
+                return new Outcome(Status.MISMATCH, null, null);
+            }
+            if (record == null || record.getStatusCode() == null) {
+                abandon(key, entry);
+                return new Outcome(Status.IN_PROGRESS, null, null);
+            }
+
+            CachedResponse response = new CachedResponse(record.getStatusCode(), record.getContentType(), record.getBody());
+            entry.response.complete(response);
+            return new Outcome(Status.REPLAY, response, null);
+        } catch (RuntimeException e) {
+            abandon(key, entry);
+            throw e;
+        }
+    }
+
+    public void complete(String key, Entry entry, CachedResponse response) {
+        try {
+            repository.complete(key, response.getStatus(), response.getContentType(), response.getBody());
+        } finally {
+            // Local waiters get the response even if persisting it failed
+            entry.response.complete(response);
+        }
+    }
+
+    /**
+     * Gives up an owned key after a failed request so that a retry executes
+     * it again.
+     */
+    public void release(String key, Entry entry) {
+        try {
+            repository.release(key);
+        } finally {
+            abandon(key, entry);
+        }
+    }
+
+    private void abandon(String key, Entry entry) {
+        entries.remove(key, entry);
+        entry.response.complete(null);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.idempotency.eviction-interval:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> e.getValue().expiresAtMillis < now);
+    }
+
+    @Scheduled(cron = "0 45 * * * *")
+    public void purgeExpiredRecords() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired idempotency records", deleted);
+    }
+
+    // Over capacity: expired entries go first, then completed ones in map order
+    // until a tenth of the room is free. They remain available from the table.
+    private void evict() {
+        evictExpired();
+        int target = maxEntries - maxEntries / 10;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (entry.response.isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    public static final class Entry {
+        private final String fingerprint;
+        private final long expiresAtMillis;
+        private final CompletableFuture<CachedResponse> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long expiresAtMillis) {
+            this.fingerprint = fingerprint;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    @Getter
+    public static final class Outcome {
+        private final Status status;
+        private final CachedResponse response;
+        private final Entry entry;
+
+        private Outcome(Status status, CachedResponse response, Entry entry) {
+            this.status = status;
+            this.response = response;
+            this.entry = entry;
+        }
+    }
+}
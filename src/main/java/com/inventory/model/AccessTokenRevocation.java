@@ -0,0 +1,33 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A revoked access token, or every token of a user issued before a cut-off.
+ * Times are epoch milliseconds, like the tokens' own iat and exp claims.
+ */
+@Entity
+@Table(name = "access_token_revocations")
+@Data
+@NoArgsConstructor
+public class AccessTokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Set with issuedBeforeMillis for a whole user
+    private String username;
+
+    // Set for a single token, the jti claim
+    @Column(length = 64)
+    private String tokenId;
+
+    private Long issuedBeforeMillis;
+
+    // No token covered by this row is valid after it
+    @Column(nullable = false)
+    private long expiresAtMillis;
+}
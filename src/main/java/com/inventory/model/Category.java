@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -28,6 +29,23 @@ public class Category {
     @Column(length = 500)
     private String description;
 
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    // Ids from the root down to this category, e.g. "/1/5/12/"
+    @Column(nullable = false)
+    private String path;
+
+    @Column(nullable = false)
+    private int depth;
+
+    // Products directly in this category. Only ever changed by
+    // CategoryRepository.adjustProductCount, so saving the entity never
+    // writes back a stale count.
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private int productCount;
+
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Product> products = new ArrayList<>();
 
@@ -0,0 +1,38 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_records")
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    // "<username>:<Idempotency-Key header>"
+    @Id
+    @Column(name = "idempotency_key", length = 320)
+    private String key;
+
+    // SHA-256 of method, path and body of the first request
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // Null while the first request is still being processed
+    private Integer statusCode;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Column(length = 65536)
+    private byte[] body;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,41 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// Written only by the set-based statements in RepricingService
+@Entity
+@Table(name = "price_change_log")
+@IdClass(PriceChangeLogEntry.Key.class)
+@Data
+@NoArgsConstructor
+public class PriceChangeLogEntry {
+
+    @Id
+    private Long runId;
+
+    // No foreign key, so the history outlives deleted products
+    @Id
+    private Long productId;
+
+    @Column(nullable = false)
+    private BigDecimal oldPrice;
+
+    @Column(nullable = false)
+    private BigDecimal newPrice;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long runId;
+        private Long productId;
+    }
+}
@@ -0,0 +1,55 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.Length;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "price_change_runs")
+@Data
+@NoArgsConstructor
+public class PriceChangeRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The repricing rule as submitted, as JSON
+    @Column(nullable = false, length = Length.LONG32)
+    private String rule;
+
+    @Column(nullable = false, length = 20)
+    private String status; // RUNNING, COMPLETED, FAILED, REVERTING, REVERT_FAILED, REVERTED
+
+    @Column(nullable = false)
+    private String createdBy;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Advanced by every committed chunk; a run that stops advancing was abandoned
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    @Column(nullable = false)
+    private long changedRows;
+
+    // Matched, but the new price would have been out of range
+    @Column(nullable = false)
+    private long skippedRows;
+
+    private String revertedBy;
+
+    private LocalDateTime revertedAt;
+
+    @Column(nullable = false)
+    private long restoredRows;
+
+    @Column(length = 1000)
+    private String error;
+}
@@ -1,5 +1,6 @@
 package com.inventory.model;
 
+import com.inventory.event.RoleEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "roles")
+@EntityListeners(RoleEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
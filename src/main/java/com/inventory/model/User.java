@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -34,7 +35,10 @@ public class User {
     @Column(nullable = false)
     private String fullName;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Lazy so list queries stay one statement; roles for a page of users are
+    // then loaded in a single batched IN query instead of one per user.
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JoinTable(
         name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id"),
@@ -0,0 +1,66 @@
+package com.inventory.money;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point money for internal computation: an amount is a {@code long}
+ * count of minor units (cents) at the catalog's currency scale of 2, the
+ * scale of the {@code products.price} column. Sums and products over the
+ * catalog then cost a machine add or multiply instead of a {@code BigDecimal}
+ * per step.
+ *
+ * <p>Nothing here rounds: a conversion that would lose digits and arithmetic
+ * that would overflow throw {@link ArithmeticException}. {@code BigDecimal}
+ * remains the type at the API and persistence boundaries; convert with
+ * {@link #toMinorUnits(BigDecimal)} and {@link #toBigDecimal(long)} there.
+ */
+public final class Money {
+
+    /** Digits after the decimal point. */
+    public static final int SCALE = 2;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L,
+            1_000_000_000_000_000_000L};
+
+    private Money() {
+    }
+
+    /** The amount in minor units; throws if it has more than {@link #SCALE} decimals or does not fit a long. */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE).unscaledValue().longValueExact();
+    }
+
+    /** The amount {@code unscaled * 10^-scale} in minor units, without going through {@code BigDecimal}. */
+    public static long toMinorUnits(long unscaled, int scale) {
+        if (scale == SCALE) {
+            return unscaled;
+        }
+        if (scale < SCALE) {
+            return Math.multiplyExact(unscaled, powerOfTen(SCALE - scale));
+        }
+        long divisor = powerOfTen(scale - SCALE);
+        if (unscaled % divisor != 0) {
+            throw new ArithmeticException("Rounding necessary");
+        }
+        return unscaled / divisor;
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /** Price times quantity, for stock values. */
+    public static long times(long minorUnits, long quantity) {
+        return Math.multiplyExact(minorUnits, quantity);
+    }
+
+    private static long powerOfTen(int exponent) {
+        if (exponent >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Scale out of range: " + exponent);
+        }
+        return POWERS_OF_TEN[exponent];
+    }
+}
@@ -0,0 +1,185 @@
+package com.inventory.pricing;
+
+import com.inventory.dto.RepricingRule;
+import com.inventory.dto.RepricingRule.Adjustment;
+import com.inventory.exception.BadRequestException;
+import com.inventory.money.Money;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A validated {@link RepricingRule} compiled to SQL: one query that selects
+ * the matching products with their current and new price, and the values to
+ * bind to it in statement order. Every statement of a run is built around it.
+ */
+final class PriceRule {
+
+    static final int MAX_SKU_PRICES = 100_000;
+
+    // Ten integer digits, as accepted for a single product
+    static final String VALID_PRICE = "new_price > 0 AND new_price < 10000000000";
+
+    private static final BigDecimal MIN_PERCENT = BigDecimal.valueOf(-100);
+    private static final BigDecimal MAX_PERCENT = BigDecimal.valueOf(1000);
+    private static final BigDecimal MAX_PRICE = new BigDecimal("10000000000");
+
+    private final String priceExpression;
+    private final Object priceValue;
+    private final String[] skus;
+    private final long[] pricesMinorUnits;
+    private final String filter;
+    private final List<Object> filterValues;
+
+    private PriceRule(String priceExpression, Object priceValue, String[] skus, long[] pricesMinorUnits,
+                      String filter, List<Object> filterValues) {
+        this.priceExpression = priceExpression;
+        this.priceValue = priceValue;
+        this.skus = skus;
+        this.pricesMinorUnits = pricesMinorUnits;
+        this.filter = filter;
+        this.filterValues = filterValues;
+    }
+
+    static PriceRule compile(RepricingRule rule) {
+        StringBuilder filter = new StringBuilder();
+        List<Object> filterValues = new ArrayList<>();
+        if (rule.getCategoryId() != null && rule.isIncludeSubcategories()) {
+            // Paths hold only ids and slashes, so the prefix needs no escaping
+            filter.append(" AND p.category_id IN (SELECT c.id FROM categories c JOIN categories root"
+                    + " ON c.path LIKE root.path || '%' WHERE root.id = ?)");
+            filterValues.add(rule.getCategoryId());
+        } else if (rule.getCategoryId() != null) {
+            filter.append(" AND p.category_id = ?");
+            filterValues.add(rule.getCategoryId());
+        }
+        if (StringUtils.hasText(rule.getSkuPattern())) {
+            filter.append(" AND p.sku LIKE ?");
+            filterValues.add(toLikePattern(rule.getSkuPattern()));
+        }
+        if (StringUtils.hasText(rule.getStatus())) {
+            filter.append(" AND p.status = ?");
+            filterValues.add(rule.getStatus());
+        }
+
+        Adjustment adjustment = rule.getAdjustment();
+        if (adjustment == null) {
+            throw new BadRequestException("Adjustment is required");
+        }
+        if (adjustment == Adjustment.SKU_PRICES) {
+            return compileSkuPrices(rule.getPrices(), filter.toString(), filterValues);
+        }
+        BigDecimal value = rule.getValue();
+        if (value == null) {
+            throw new BadRequestException("A value is required for a " + adjustment + " adjustment");
+        }
+        if (rule.getPrices() != null && !rule.getPrices().isEmpty()) {
+            throw new BadRequestException("Prices are only used by a SKU_PRICES adjustment");
+        }
+        if (adjustment == Adjustment.PERCENT) {
+            if (value.compareTo(MIN_PERCENT) <= 0 || value.compareTo(MAX_PERCENT) > 0) {
+                throw new BadRequestException("Percentage must be greater than -100 and at most 1000");
+            }
+            return new PriceRule("ROUND(p.price * ?, 2)", BigDecimal.ONE.add(value.movePointLeft(2)),
+                    null, null, filter.toString(), filterValues);
+        }
+        if (adjustment == Adjustment.AMOUNT) {
+            return new PriceRule("p.price + ?", Money.toBigDecimal(minorUnits(value)),
+                    null, null, filter.toString(), filterValues);
+        }
+        if (value.signum() <= 0 || value.compareTo(MAX_PRICE) >= 0) {
+            throw new BadRequestException("Price must be greater than 0 and have at most 10 integer digits");
+        }
+        return new PriceRule("CAST(? AS NUMERIC(38, 2))", Money.toBigDecimal(minorUnits(value)),
+                null, null, filter.toString(), filterValues);
+    }
+
+    private static PriceRule compileSkuPrices(Map<String, BigDecimal> prices, String filter, List<Object> filterValues) {
+        if (prices == null || prices.isEmpty()) {
+            throw new BadRequestException("Prices are required for a SKU_PRICES adjustment");
+        }
+        if (prices.size() > MAX_SKU_PRICES) {
+            throw new BadRequestException("At most " + MAX_SKU_PRICES + " prices per rule");
+        }
+        String[] skus = new String[prices.size()];
+        long[] minorUnits = new long[prices.size()];
+        int i = 0;
+        for (Map.Entry<String, BigDecimal> entry : prices.entrySet()) {
+            BigDecimal price = entry.getValue();
+            if (price == null || price.signum() <= 0 || price.compareTo(MAX_PRICE) >= 0) {
+                throw new BadRequestException("Price for SKU " + entry.getKey()
+                        + " must be greater than 0 and have at most 10 integer digits");
+            }
+            skus[i] = entry.getKey();
+            minorUnits[i] = minorUnits(price);
+            i++;
+        }
+        return new PriceRule("s.price_minor_units * 0.01", null, skus, minorUnits, filter, filterValues);
+    }
+
+    private static long minorUnits(BigDecimal amount) {
+        try {
+            return Money.toMinorUnits(amount);
+        } catch (ArithmeticException e) {
+            throw new BadRequestException("Amount " + amount.toPlainString() + " has more than 2 decimals");
+        }
+    }
+
+    // Everything but the wildcards is literal, including LIKE's own % and _
+    static String toLikePattern(String glob) {
+        StringBuilder like = new StringBuilder(glob.length() + 8);
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            switch (c) {
+                case '*' -> like.append('%');
+                case '?' -> like.append('_');
+                case '%', '_', '\\' -> like.append('\\').append(c);
+                default -> like.append(c);
+            }
+        }
+        return like.toString();
+    }
+
+    /** Number of SKUs of a SKU_PRICES rule; runs are chunked over these instead of over ids. */
+    int skuCount() {
+        return skus != null ? skus.length : 0;
+    }
+
+    /**
+     * Selects {@code id, sku, name, old_price, new_price} of the matching
+     * products in an id range and, for a SKU_PRICES rule, a slice of its SKUs.
+     */
+    String targetSql(boolean lock) {
+        StringBuilder sql = new StringBuilder("SELECT p.id, p.sku, p.name, p.price AS old_price, ")
+                .append(priceExpression).append(" AS new_price FROM products p");
+        if (skus != null) {
+            sql.append(" JOIN UNNEST(CAST(? AS VARCHAR[]), CAST(? AS BIGINT[])) AS s (sku, price_minor_units)"
+                    + " ON s.sku = p.sku");
+        }
+        sql.append(" WHERE p.id BETWEEN ? AND ?").append(filter);
+        if (lock) {
+            sql.append(" FOR UPDATE OF p");
+        }
+        return sql.toString();
+    }
+
+    /** Values for {@link #targetSql}, in order; callers append those of their own placeholders. */
+    List<Object> targetArgs(long fromId, long toId, int fromSku, int toSku) {
+        List<Object> args = new ArrayList<>(filterValues.size() + 4);
+        if (priceValue != null) {
+            args.add(priceValue);
+        }
+        if (skus != null) {
+            args.add(Arrays.copyOfRange(skus, fromSku, toSku));
+            args.add(Arrays.copyOfRange(pricesMinorUnits, fromSku, toSku));
+        }
+        args.add(fromId);
+        args.add(toId);
+        args.addAll(filterValues);
+        return args;
+    }
+}
@@ -0,0 +1,346 @@
+package com.inventory.pricing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.concurrency.BulkOperation;
+import com.inventory.datasource.ReportingDataSource;
+import com.inventory.dto.PriceChange;
+import com.inventory.dto.PriceChangeRunResponse;
+import com.inventory.dto.RepricingPreview;
+import com.inventory.dto.RepricingRule;
+import com.inventory.exception.BadRequestException;
+import com.inventory.exception.DuplicateResourceException;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.model.PriceChangeRun;
+import com.inventory.repository.PriceChangeRunRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies {@link RepricingRule}s to the catalogue as set-based SQL.
+ *
+ * <p>A run walks the products in id ranges (a SKU_PRICES rule: in slices of
+ * its SKUs), each in its own short transaction that locks the matching rows,
+ * updates their price and records old and new price in
+ * {@code price_change_log} with a single statement. A run interrupted part way
+ * leaves only whole chunks behind, each logged, so it can still be reverted.
+ * Reverting restores the old price of every product whose price is still the
+ * one the run set; products repriced since are left alone.
+ *
+ * <p>Runs execute on a background thread, one at a time per node. Every chunk
+ * sets {@code updated_at}, so the catalog read model on every node picks the
+ * new prices up on its next refresh. The statements use PostgreSQL's
+ * data-modifying {@code WITH} and {@code UPDATE ... FROM}.
+ */
+@Service
+@Slf4j
+public class RepricingService {
+
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+    static final String REVERTED = "REVERTED";
+    static final String REVERT_FAILED = "REVERT_FAILED";
+
+    private static final int SAMPLE_SIZE = 20;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String APPLY_SQL = """
+            WITH target AS (%s),
+            changed AS (
+                UPDATE products p SET price = t.new_price, updated_at = ?
+                FROM target t
+                WHERE p.id = t.id AND t.new_price <> t.old_price AND %s
+                RETURNING p.id, t.old_price, t.new_price),
+            logged AS (
+                INSERT INTO price_change_log (run_id, product_id, old_price, new_price)
+                SELECT ?, id, old_price, new_price FROM changed
+                RETURNING 1)
+            SELECT (SELECT COUNT(*) FROM logged),
+                   (SELECT COUNT(*) FROM target WHERE NOT (%s))
+            """;
+
+    private static final String REVERT_SQL = """
+            WITH restored AS (
+                UPDATE products p SET price = l.old_price, updated_at = ?
+                FROM price_change_log l
+                WHERE l.run_id = ? AND l.product_id BETWEEN ? AND ?
+                  AND p.id = l.product_id AND p.price = l.new_price
+                RETURNING p.id)
+            SELECT COUNT(*) FROM restored
+            """;
+
+    private static final String PROGRESS_SQL = """
+            UPDATE price_change_runs
+            SET changed_rows = changed_rows + ?, skipped_rows = skipped_rows + ?,
+                restored_rows = restored_rows + ?, updated_at = ?
+            WHERE id = ?
+            """;
+
+    private static final String CHANGES_SQL = """
+            SELECT l.product_id, p.sku, p.name, l.old_price, l.new_price
+            FROM price_change_log l
+            LEFT JOIN products p ON p.id = l.product_id
+            WHERE l.run_id = ? AND l.product_id > ?
+            ORDER BY l.product_id
+            LIMIT ?
+            """;
+
+    private static final RowMapper<PriceChange> PRICE_CHANGE = (rs, rowNum) -> new PriceChange(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBigDecimal(4), rs.getBigDecimal(5));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReportingDataSource reportingDataSource;
+    private final PriceChangeRunRepository runRepository;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final long abandonedAfterMillis;
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "repricing");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RepricingService(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            ReportingDataSource reportingDataSource,
+                            PriceChangeRunRepository runRepository,
+                            ObjectMapper objectMapper,
+                            @Value("${inventory.pricing.chunk-size:20000}") int chunkSize,
+                            @Value("${inventory.pricing.abandoned-after:300000}") long abandonedAfterMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.reportingDataSource = reportingDataSource;
+        this.runRepository = runRepository;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.abandonedAfterMillis = abandonedAfterMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Counts what a rule would change and shows the first few changes, without writing anything. */
+    @BulkOperation
+    public RepricingPreview preview(RepricingRule request) {
+        PriceRule rule = PriceRule.compile(request);
+        return reportingDataSource.inSnapshot(jdbc -> {
+            RepricingPreview preview = count(jdbc, rule);
+            List<Object> args = rule.targetArgs(Long.MIN_VALUE, Long.MAX_VALUE, 0, rule.skuCount());
+            args.add(SAMPLE_SIZE);
+            preview.setSample(jdbc.query("SELECT id, sku, name, old_price, new_price FROM ("
+                    + rule.targetSql(false) + ") t WHERE new_price <> old_price ORDER BY id LIMIT ?",
+                    PRICE_CHANGE, args.toArray()));
+            return preview;
+        });
+    }
+
+    /**
+     * Records a run and starts applying it in the background. Rejects a rule
+     * that would take any product's price out of range.
+     */
+    @BulkOperation
+    public PriceChangeRunResponse startRun(RepricingRule request, String username) {
+        PriceRule rule = PriceRule.compile(request);
+        RepricingPreview counts = reportingDataSource.inSnapshot(jdbc -> count(jdbc, rule));
+        if (counts.getInvalidProducts() > 0) {
+            throw new BadRequestException(counts.getInvalidProducts()
+                    + " products would get a price of zero or less, or above the maximum");
+        }
+        claim();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            PriceChangeRun run = new PriceChangeRun();
+            run.setRule(toJson(request));
+            run.setStatus(RUNNING);
+            run.setCreatedBy(username);
+            run.setCreatedAt(now);
+            run.setUpdatedAt(now);
+            run = runRepository.save(run);
+            long runId = run.getId();
+            executor.execute(() -> apply(runId, rule));
+            return toResponse(run);
+        } catch (RuntimeException e) {
+            busy.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts restoring the prices a run changed. A run that is still applying
+     * or reverting can only be reverted once it has stopped making progress.
+     */
+    public PriceChangeRunResponse startRevert(Long id, String username) {
+        claim();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            // Loaded only after the claim, so the response shows the claimed state
+            if (runRepository.claimRevert(id, username, now, now.minusNanos(abandonedAfterMillis * 1_000_000)) == 0) {
+                throw new BadRequestException("Run " + id + " cannot be reverted while it is " + findRun(id).getStatus());
+            }
+            executor.execute(() -> revert(id));
+            return toResponse(findRun(id));
+        } catch (RuntimeException e) {
+            busy.set(false);
+            throw e;
+        }
+    }
+
+    public PriceChangeRunResponse getRun(Long id) {
+        return toResponse(findRun(id));
+    }
+
+    public Page<PriceChangeRunResponse> getRuns(Pageable pageable) {
+        return runRepository.findAll(pageable).map(this::toResponse);
+    }
+
+    /** The products a run changed, by product id after {@code afterProductId}. */
+    public List<PriceChange> getChanges(Long id, long afterProductId, int limit) {
+        findRun(id);
+        return jdbcTemplate.query(CHANGES_SQL, PRICE_CHANGE, id, afterProductId, limit);
+    }
+
+    void apply(long runId, PriceRule rule) {
+        String sql = APPLY_SQL.formatted(rule.targetSql(true), PriceRule.VALID_PRICE, PriceRule.VALID_PRICE);
+        long start = System.nanoTime();
+        long changed = 0;
+        try {
+            if (rule.skuCount() > 0) {
+                for (int from = 0; from < rule.skuCount(); from += chunkSize) {
+                    changed += applyChunk(sql, runId, rule, Long.MIN_VALUE, Long.MAX_VALUE,
+                            from, Math.min(from + chunkSize, rule.skuCount()));
+                }
+            } else {
+                Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM products");
+                if (bounds.get("lo") != null) {
+                    long hi = ((Number) bounds.get("hi")).longValue();
+                    for (long from = ((Number) bounds.get("lo")).longValue(); from <= hi; from += chunkSize) {
+                        changed += applyChunk(sql, runId, rule, from, Math.min(from + chunkSize - 1, hi), 0, 0);
+                    }
+                }
+            }
+            finish(runId, COMPLETED, null);
+            log.info("Repricing run {} changed {} prices in {} ms", runId, changed, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Repricing run {} failed after changing {} prices", runId, changed, e);
+            finish(runId, FAILED, e.getMessage());
+        } finally {
+            busy.set(false);
+        }
+    }
+
+    private long applyChunk(String sql, long runId, PriceRule rule, long fromId, long toId, int fromSku, int toSku) {
+        return transactionTemplate.execute(status -> {
+            // Stamped per chunk, just before it commits: a read model refresh that ran
+            // since the run started must still see these rows as changed
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object> args = rule.targetArgs(fromId, toId, fromSku, toSku);
+            args.add(now);
+            args.add(runId);
+            long[] counts = jdbcTemplate.queryForObject(sql,
+                    (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}, args.toArray());
+            jdbcTemplate.update(PROGRESS_SQL, counts[0], counts[1], 0, now, runId);
+            return counts[0];
+        });
+    }
+
+    void revert(long runId) {
+        long start = System.nanoTime();
+        long restored = 0;
+        try {
+            Map<String, Object> bounds = jdbcTemplate.queryForMap(
+                    "SELECT MIN(product_id) AS lo, MAX(product_id) AS hi FROM price_change_log WHERE run_id = ?", runId);
+            if (bounds.get("lo") != null) {
+                long hi = ((Number) bounds.get("hi")).longValue();
+                for (long from = ((Number) bounds.get("lo")).longValue(); from <= hi; from += chunkSize) {
+                    restored += revertChunk(runId, from, Math.min(from + chunkSize - 1, hi));
+                }
+            }
+            finish(runId, REVERTED, null);
+            log.info("Repricing run {} reverted, {} prices restored in {} ms",
+                    runId, restored, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Reverting repricing run {} failed after restoring {} prices", runId, restored, e);
+            finish(runId, REVERT_FAILED, e.getMessage());
+        } finally {
+            busy.set(false);
+        }
+    }
+
+    private long revertChunk(long runId, long fromId, long toId) {
+        return transactionTemplate.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            long restored = jdbcTemplate.queryForObject(REVERT_SQL, Long.class, now, runId, fromId, toId);
+            jdbcTemplate.update(PROGRESS_SQL, 0, 0, restored, now, runId);
+            return restored;
+        });
+    }
+
+    private void finish(long runId, String status, String error) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String column = status.startsWith("REVERT") ? "reverted_at" : "completed_at";
+        if (error != null && error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        jdbcTemplate.update("UPDATE price_change_runs SET status = ?, " + column + " = ?, updated_at = ?, error = ?"
+                + " WHERE id = ?", status, now, now, error, runId);
+    }
+
+    private static RepricingPreview count(JdbcTemplate jdbc, PriceRule rule) {
+        String sql = "SELECT COUNT(*), COUNT(*) FILTER (WHERE new_price <> old_price),"
+                + " COUNT(*) FILTER (WHERE NOT (" + PriceRule.VALID_PRICE + ")) FROM (" + rule.targetSql(false) + ") t";
+        return jdbc.queryForObject(sql, (rs, rowNum) -> new RepricingPreview(rs.getLong(1), rs.getLong(2), rs.getLong(3), null),
+                rule.targetArgs(Long.MIN_VALUE, Long.MAX_VALUE, 0, rule.skuCount()).toArray());
+    }
+
+    private void claim() {
+        if (!busy.compareAndSet(false, true)) {
+            throw new DuplicateResourceException("A repricing run is already in progress on this node");
+        }
+    }
+
+    private PriceChangeRun findRun(Long id) {
+        return runRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Repricing run not found with id: " + id));
+    }
+
+    private String toJson(RepricingRule rule) {
+        try {
+            return objectMapper.writeValueAsString(rule);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PriceChangeRunResponse toResponse(PriceChangeRun run) {
+        RepricingRule rule;
+        try {
+            rule = objectMapper.readValue(run.getRule(), RepricingRule.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new PriceChangeRunResponse(run.getId(), rule, run.getStatus(), run.getCreatedBy(), run.getCreatedAt(),
+                run.getUpdatedAt(), run.getCompletedAt(), run.getChangedRows(), run.getSkippedRows(),
+                run.getRevertedBy(), run.getRevertedAt(), run.getRestoredRows(), run.getError());
+    }
+}
@@ -0,0 +1,209 @@
+package com.inventory.ratelimit;
+
+import com.inventory.exception.ErrorResponseWriter;
+import com.inventory.model.Role;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for authenticated requests, applied right after the JWT
+ * filter and before any work is done:
+ * <ol>
+ *   <li>a token bucket per principal, sized by the principal's highest role;</li>
+ *   <li>a token bucket per role, shared by everyone holding it as their highest role;</li>
+ *   <li>a cap on concurrent requests to each configured expensive endpoint.</li>
+ * </ol>
+ * Requests over a limit are rejected at once with 429 and {@code Retry-After}
+ * rather than queued, so a single client cannot tie up request threads.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String METRIC = "inventory.admission.rejected";
+
+    private final RateLimitBackend backend;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final boolean enabled;
+    private final Map<String, Tier> tiers = new HashMap<>();
+    private final List<EndpointLimit> expensiveEndpoints = new ArrayList<>();
+    private final Counter userRejections;
+    private final Counter roleRejections;
+    private final Counter concurrencyRejections;
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, RateLimitBackend backend,
+                                  ErrorResponseWriter errorResponseWriter, MeterRegistry meterRegistry) {
+        this.backend = backend;
+        this.errorResponseWriter = errorResponseWriter;
+        this.enabled = properties.isEnabled();
+
+        // Declared from least to most privileged; a principal is limited by its highest role
+        Role.RoleName[] roles = {Role.RoleName.ROLE_USER, Role.RoleName.ROLE_MANAGER, Role.RoleName.ROLE_ADMIN};
+        for (int rank = 0; rank < roles.length; rank++) {
+            String name = roles[rank].name().substring("ROLE_".length()).toLowerCase(Locale.ROOT);
+            tiers.put(roles[rank].name(), new Tier(rank, "role:" + roles[rank].name(),
+                    toSpec(properties.getPerUser().get(name)), toSpec(properties.getPerRole().get(name))));
+        }
+
+        int maxConcurrent = properties.getExpensive().getMaxConcurrent();
+        for (String endpoint : properties.getExpensive().getEndpoints()) {
+            String[] parts = endpoint.trim().split("\\s+", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expensive endpoint must be \"METHOD /path\": " + endpoint);
+            }
+            expensiveEndpoints.add(new EndpointLimit(parts[0].toUpperCase(Locale.ROOT),
+                    PathPatternParser.defaultInstance.parse(parts[1]), maxConcurrent));
+        }
+
+        this.userRejections = Counter.builder(METRIC).tag("limit", "user").register(meterRegistry);
+        this.roleRejections = Counter.builder(METRIC).tag("limit", "role").register(meterRegistry);
+        this.concurrencyRejections = Counter.builder(METRIC).tag("limit", "concurrency").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            // Rejected by authorization later; nothing to account for
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Tier tier = tierFor(authentication);
+        if (tier != null) {
+            if (tier.userSpec != null) {
+                long wait = backend.tryAcquire("user:" + authentication.getName(), tier.userSpec);
+                if (wait > 0) {
+                    reject(request, response, userRejections, wait, "Request rate limit exceeded");
+                    return;
+                }
+            }
+            if (tier.roleSpec != null) {
+                long wait = backend.tryAcquire(tier.roleKey, tier.roleSpec);
+                if (wait > 0) {
+                    reject(request, response, roleRejections, wait, "Request rate limit exceeded for your role");
+                    return;
+                }
+            }
+        }
+
+        EndpointLimit limit = expensiveEndpointFor(request);
+        if (limit == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limit.tryEnter()) {
+            reject(request, response, concurrencyRejections, TimeUnit.SECONDS.toNanos(1),
+                    "Too many concurrent requests for this endpoint");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.exit();
+        }
+    }
+
+    private Tier tierFor(Authentication authentication) {
+        Tier highest = null;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            Tier tier = tiers.get(authority.getAuthority());
+            if (tier != null && (highest == null || tier.rank > highest.rank)) {
+                highest = tier;
+            }
+        }
+        return highest;
+    }
+
+    private EndpointLimit expensiveEndpointFor(HttpServletRequest request) {
+        if (expensiveEndpoints.isEmpty()) {
+            return null;
+        }
+        PathContainer path = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        for (EndpointLimit limit : expensiveEndpoints) {
+            if (limit.method.equals(request.getMethod()) && limit.pattern.matches(path)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, Counter counter,
+                        long waitNanos, String message) throws IOException {
+        counter.increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setHeader("Retry-After", Long.toString(retryAfter));
+        errorResponseWriter.write(request, response, HttpStatus.TOO_MANY_REQUESTS, message);
+    }
+
+    private static BucketSpec toSpec(AdmissionControlProperties.Limit limit) {
+        return limit != null ? BucketSpec.of(limit.getCapacity(), limit.getRefillPerSecond()) : null;
+    }
+
+    private static final class Tier {
+        final int rank;
+        final String roleKey;
+        final BucketSpec userSpec;
+        final BucketSpec roleSpec;
+
+        Tier(int rank, String roleKey, BucketSpec userSpec, BucketSpec roleSpec) {
+            this.rank = rank;
+            this.roleKey = roleKey;
+            this.userSpec = userSpec;
+            this.roleSpec = roleSpec;
+        }
+    }
+
+    private static final class EndpointLimit {
+        final String method;
+        final PathPattern pattern;
+        final int maxConcurrent;
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        EndpointLimit(String method, PathPattern pattern, int maxConcurrent) {
+            this.method = method;
+            this.pattern = pattern;
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        boolean tryEnter() {
+            if (inFlight.incrementAndGet() > maxConcurrent) {
+                inFlight.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        void exit() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
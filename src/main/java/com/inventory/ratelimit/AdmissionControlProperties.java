@@ -0,0 +1,35 @@
+package com.inventory.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties("security.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    // Keyed by role name without prefix: user, manager, admin
+    private Map<String, Limit> perUser = new LinkedHashMap<>();
+    private Map<String, Limit> perRole = new LinkedHashMap<>();
+
+    private Expensive expensive = new Expensive();
+
+    @Data
+    public static class Limit {
+        private int capacity;
+        private double refillPerSecond;
+    }
+
+    @Data
+    public static class Expensive {
+        private int maxConcurrent = 4;
+        // "METHOD /path/pattern", e.g. "GET /products"
+        private List<String> endpoints = new ArrayList<>();
+    }
+}
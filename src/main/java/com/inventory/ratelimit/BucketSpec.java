@@ -0,0 +1,32 @@
+package com.inventory.ratelimit;
+
+/**
+ * Capacity and refill rate of a token bucket, pre-converted to the
+ * nanosecond intervals used by {@link KeyedRateLimiter}.
+ */
+public final class BucketSpec {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+
+    private BucketSpec(long emissionIntervalNanos, long burstToleranceNanos) {
+        this.emissionIntervalNanos = emissionIntervalNanos;
+        this.burstToleranceNanos = burstToleranceNanos;
+    }
+
+    public static BucketSpec of(int capacity, double refillPerSecond) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Bucket capacity and refill rate must be positive");
+        }
+        long emissionInterval = (long) (1_000_000_000L / refillPerSecond);
+        return new BucketSpec(emissionInterval, emissionInterval * (capacity - 1));
+    }
+
+    public long emissionIntervalNanos() {
+        return emissionIntervalNanos;
+    }
+
+    public long burstToleranceNanos() {
+        return burstToleranceNanos;
+    }
+}
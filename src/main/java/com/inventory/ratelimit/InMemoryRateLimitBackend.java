@@ -0,0 +1,34 @@
+package com.inventory.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Per-instance {@link RateLimitBackend} on a {@link KeyedRateLimiter}.
+ */
+@Slf4j
+public class InMemoryRateLimitBackend implements RateLimitBackend {
+
+    private final KeyedRateLimiter limiter;
+
+    public InMemoryRateLimitBackend() {
+        this(new KeyedRateLimiter());
+    }
+
+    public InMemoryRateLimitBackend(KeyedRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public long tryAcquire(String key, BucketSpec spec) {
+        return limiter.tryAcquire(key, spec);
+    }
+
+    @Scheduled(fixedDelayString = "${security.admission.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        int evicted = limiter.evictIdle();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle admission buckets", evicted);
+        }
+    }
+}
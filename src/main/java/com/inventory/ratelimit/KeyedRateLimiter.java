@@ -0,0 +1,68 @@
+package com.inventory.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by an arbitrary string (username, IP, role ...).
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the theoretical arrival
+ * time of the next request (the GCRA form of a token bucket), so a bucket costs
+ * one small object and acquiring is a lock-free CAS. A bucket whose arrival
+ * time has passed is full and therefore indistinguishable from a new one,
+ * which is what {@link #evictIdle()} relies on.
+ */
+public class KeyedRateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+
+    public KeyedRateLimiter() {
+        this(System::nanoTime);
+    }
+
+    public KeyedRateLimiter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one token from the bucket for {@code key}.
+     *
+     * @return 0 if the token was granted, otherwise the nanoseconds until one becomes available
+     */
+    public long tryAcquire(String key, BucketSpec spec) {
+        long now = nanoClock.getAsLong();
+        AtomicLong arrival = buckets.get(key);
+        if (arrival == null) {
+            arrival = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = arrival.get();
+            long start = Math.max(current, now);
+            long wait = start - now - spec.burstToleranceNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, start + spec.emissionIntervalNanos())) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely. A request racing with the
+     * removal may be granted one extra token, which is acceptable here.
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(arrival -> arrival.get() <= now);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
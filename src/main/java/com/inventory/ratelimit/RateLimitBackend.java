@@ -0,0 +1,17 @@
+package com.inventory.ratelimit;
+
+/**
+ * Storage for the token buckets of {@link AdmissionControlFilter}. The
+ * default {@link InMemoryRateLimitBackend} limits each instance separately;
+ * declaring another bean of this type (for example one backed by a shared
+ * cache) makes the limits apply across all instances.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Takes one token from the bucket for {@code key}.
+     *
+     * @return 0 if the token was granted, otherwise the nanoseconds until one becomes available
+     */
+    long tryAcquire(String key, BucketSpec spec);
+}
@@ -0,0 +1,16 @@
+package com.inventory.repository;
+
+import com.inventory.model.AccessTokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccessTokenRevocationRepository extends JpaRepository<AccessTokenRevocation, Long> {
+
+    @Modifying
+    @Query("DELETE FROM AccessTokenRevocation r WHERE r.expiresAtMillis < :cutoff")
+    int deleteExpired(@Param("cutoff") long cutoff);
+}
@@ -1,9 +1,16 @@
 package com.inventory.repository;
 
 import com.inventory.model.Category;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +19,32 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
 
     boolean existsByName(String name);
+
+    boolean existsByParentId(Long parentId);
+
+    // A scalar, so the value is read fresh even if the category is already in the persistence context
+    @Query("SELECT c.path FROM Category c WHERE c.id = :id")
+    Optional<String> findPathById(@Param("id") Long id);
+
+    // Always in id order, so transactions locking overlapping sets cannot deadlock on these rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Category c WHERE c.id IN :ids ORDER BY c.id")
+    List<Category> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COALESCE(SUM(c.productCount), 0) FROM Category c WHERE c.path LIKE :pathPrefix")
+    long sumProductCountByPathPrefix(@Param("pathPrefix") String pathPrefix);
+
+    @Query("SELECT MAX(c.depth) FROM Category c WHERE c.path LIKE :pathPrefix")
+    Integer findMaxDepthByPathPrefix(@Param("pathPrefix") String pathPrefix);
+
+    @Modifying
+    @Query("UPDATE Category c SET c.productCount = c.productCount + :delta WHERE c.id = :id")
+    int adjustProductCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /** Re-roots every category whose path starts with {@code oldPath}, the category itself included. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Category c SET c.path = CONCAT(:newPath, SUBSTRING(c.path, :oldPathLength + 1)), "
+            + "c.depth = c.depth + :depthDelta WHERE c.path LIKE :oldPathPrefix")
+    int movePaths(@Param("oldPathPrefix") String oldPathPrefix, @Param("oldPathLength") int oldPathLength,
+                  @Param("newPath") String newPath, @Param("depthDelta") int depthDelta);
 }
@@ -0,0 +1,62 @@
+package com.inventory.repository;
+
+import com.inventory.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims a key for this node; returns 0 if another request, possibly on
+     * another node, has claimed it first.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO idempotency_records (idempotency_key, fingerprint, created_at, expires_at)
+            VALUES (:key, :fingerprint, :createdAt, :expiresAt)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int claim(@Param("key") String key, @Param("fingerprint") String fingerprint,
+              @Param("createdAt") LocalDateTime createdAt, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Read-write on purpose, so it is never routed to a replica that has not seen the claim yet
+    @Transactional
+    Optional<IdempotencyRecord> findByKey(String key);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.contentType = :contentType, r.body = :body "
+            + "WHERE r.key = :key")
+    int complete(@Param("key") String key, @Param("statusCode") int statusCode,
+                 @Param("contentType") String contentType, @Param("body") byte[] body);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.statusCode IS NULL")
+    int release(@Param("key") String key);
+
+    /**
+     * Deletes the record of {@code key} if it has expired, or if it is still in
+     * progress but was claimed before {@code leaseCutoff}.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND (r.expiresAt < :now "
+            + "OR (r.statusCode IS NULL AND r.createdAt < :leaseCutoff))")
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now,
+                        @Param("leaseCutoff") LocalDateTime leaseCutoff);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,32 @@
+package com.inventory.repository;
+
+import com.inventory.model.PriceChangeRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PriceChangeRunRepository extends JpaRepository<PriceChangeRun, Long> {
+
+    /**
+     * Claims a run for reverting; returns 0 if it is not revertable. A run
+     * still applying or reverting may be claimed once it has made no progress
+     * since {@code abandonedBefore}, as its node has stopped.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE price_change_runs
+            SET status = 'REVERTING', reverted_by = :username, updated_at = :now, error = NULL
+            WHERE id = :id
+              AND (status IN ('COMPLETED', 'FAILED', 'REVERT_FAILED')
+                   OR (status IN ('RUNNING', 'REVERTING') AND updated_at < :abandonedBefore))
+            """, nativeQuery = true)
+    int claimRevert(@Param("id") Long id, @Param("username") String username,
+                    @Param("now") LocalDateTime now, @Param("abandonedBefore") LocalDateTime abandonedBefore);
+}
@@ -1,20 +1,32 @@
 package com.inventory.repository;
 
 import com.inventory.model.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     Optional<Product> findBySku(String sku);
 
+    // Serializes writers of one product, so the category it is moved out of is the one it is in
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
     List<Product> findByCategoryId(Long categoryId);
 
+    // A prefix of the category path selects a whole subtree
+    @Query("SELECT p FROM Product p JOIN FETCH p.category c WHERE c.path LIKE :pathPrefix")
+    List<Product> findByCategoryPathPrefix(@Param("pathPrefix") String pathPrefix);
+
     List<Product> findByStatus(String status);
 
     @Query("SELECT p FROM Product p WHERE p.quantity <= p.reorderLevel")
@@ -0,0 +1,14 @@
+package com.inventory.repository;
+
+import com.inventory.dto.ProductField;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Selects only the given columns for every product. Each row holds the
+     * values in the same order as {@code fields}.
+     */
+    List<Object[]> findAllProjected(List<ProductField> fields);
+}
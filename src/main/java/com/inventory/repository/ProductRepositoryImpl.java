@@ -0,0 +1,45 @@
+package com.inventory.repository;
+
+import com.inventory.dto.ProductField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final Map<ProductField, String> JPQL_PATHS = new EnumMap<>(Map.ofEntries(
+            Map.entry(ProductField.ID, "p.id"),
+            Map.entry(ProductField.SKU, "p.sku"),
+            Map.entry(ProductField.NAME, "p.name"),
+            Map.entry(ProductField.DESCRIPTION, "p.description"),
+            Map.entry(ProductField.PRICE, "p.price"),
+            Map.entry(ProductField.QUANTITY, "p.quantity"),
+            Map.entry(ProductField.REORDER_LEVEL, "p.reorderLevel"),
+            Map.entry(ProductField.CATEGORY_ID, "c.id"),
+            Map.entry(ProductField.CATEGORY_NAME, "c.name"),
+            Map.entry(ProductField.STATUS, "p.status"),
+            Map.entry(ProductField.CREATED_AT, "p.createdAt"),
+            Map.entry(ProductField.UPDATED_AT, "p.updatedAt")
+    ));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> findAllProjected(List<ProductField> fields) {
+        String select = fields.stream()
+                .map(JPQL_PATHS::get)
+                .collect(Collectors.joining(", "));
+
+        return entityManager.createQuery(
+                        "SELECT " + select + " FROM Product p LEFT JOIN p.category c", Tuple.class)
+                .getResultStream()
+                .map(Tuple::toArray)
+                .collect(Collectors.toList());
+    }
+}
@@ -1,14 +1,18 @@
 package com.inventory.repository;
 
 import com.inventory.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
 
+    // Every caller (login, token issue) needs the roles, so fetch them in the same query
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
@@ -0,0 +1,28 @@
+package com.inventory.repository;
+
+import com.inventory.model.Role;
+import com.inventory.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> hasRole(Role.RoleName roleName) {
+        // A user holds each role at most once, so the join cannot duplicate rows
+        return (root, query, cb) -> cb.equal(root.join("roles").get("name"), roleName);
+    }
+
+    public static Specification<User> isEnabled(boolean enabled) {
+        return (root, query, cb) -> cb.equal(root.get("enabled"), enabled);
+    }
+
+    // Case-sensitive LIKE 'prefix%' so PostgreSQL can use the text_pattern_ops index
+    public static Specification<User> usernameStartsWith(String prefix) {
+        String pattern = prefix.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("username"), pattern, '\\');
+    }
+}
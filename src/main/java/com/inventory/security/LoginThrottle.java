@@ -0,0 +1,60 @@
+package com.inventory.security;
+
+import com.inventory.exception.RateLimitExceededException;
+import com.inventory.ratelimit.BucketSpec;
+import com.inventory.ratelimit.KeyedRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-username and per-IP token buckets checked before any password hashing
+ * is done, so credential stuffing is rejected without spending BCrypt time.
+ */
+@Component
+@Slf4j
+public class LoginThrottle {
+
+    private final KeyedRateLimiter usernameLimiter = new KeyedRateLimiter();
+    private final KeyedRateLimiter ipLimiter = new KeyedRateLimiter();
+    private final BucketSpec usernameSpec;
+    private final BucketSpec ipSpec;
+
+    public LoginThrottle(@Value("${security.login.per-username.capacity:5}") int usernameCapacity,
+                         @Value("${security.login.per-username.refill-per-second:0.1}") double usernameRefill,
+                         @Value("${security.login.per-ip.capacity:200}") int ipCapacity,
+                         @Value("${security.login.per-ip.refill-per-second:20}") double ipRefill) {
+        this.usernameSpec = BucketSpec.of(usernameCapacity, usernameRefill);
+        this.ipSpec = BucketSpec.of(ipCapacity, ipRefill);
+    }
+
+    public void checkAttempt(String username, String remoteAddress) {
+        long ipWait = ipLimiter.tryAcquire(remoteAddress, ipSpec);
+        if (ipWait > 0) {
+            log.warn("Login throttled for IP {}", remoteAddress);
+            throw new RateLimitExceededException("Too many login attempts, please retry later", toSeconds(ipWait));
+        }
+
+        long usernameWait = usernameLimiter.tryAcquire(username.toLowerCase(Locale.ROOT), usernameSpec);
+        if (usernameWait > 0) {
+            log.warn("Login throttled for username {}", username);
+            throw new RateLimitExceededException("Too many login attempts, please retry later", toSeconds(usernameWait));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.login.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        int evicted = usernameLimiter.evictIdle() + ipLimiter.evictIdle();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle login throttle buckets", evicted);
+        }
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999L));
+    }
+}
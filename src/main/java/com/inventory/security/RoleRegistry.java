@@ -0,0 +1,163 @@
+package com.inventory.security;
+
+import com.inventory.event.RoleChangedEvent;
+import com.inventory.exception.BadRequestException;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.model.Role;
+import com.inventory.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of the role table plus shared authority objects.
+ *
+ * <p>Roles are loaded on first use and again after a {@link RoleChangedEvent}
+ * commits. Authorities depend only on {@link Role.RoleName}, so one
+ * {@link GrantedAuthority} per role and one unmodifiable set per combination of
+ * roles are built up front; resolving the authorities for a user or a token
+ * claim only computes a bit mask and returns one of those sets.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoleRegistry {
+
+    private static final Role.RoleName[] ROLE_NAMES = Role.RoleName.values();
+    private static final Set<GrantedAuthority>[] AUTHORITY_SETS = buildAuthoritySets();
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<Role.RoleName, Role> roles;
+
+    public Role getRole(Role.RoleName name) {
+        Role role = roles().get(name);
+        if (role == null) {
+            throw new ResourceNotFoundException("Role not found: " + name);
+        }
+        return role;
+    }
+
+    public boolean contains(Role.RoleName name) {
+        return roles().containsKey(name);
+    }
+
+    public Set<Role> resolve(Collection<String> roleNames) {
+        Set<Role> resolved = new HashSet<>();
+        for (String roleName : roleNames) {
+            resolved.add(getRole(parseRoleName(roleName)));
+        }
+        return resolved;
+    }
+
+    // Accepts "ADMIN" as well as "ROLE_ADMIN", in any case
+    public Role.RoleName parseRoleName(String roleName) {
+        String name = roleName.toUpperCase(Locale.ROOT);
+        try {
+            return Role.RoleName.valueOf(name.startsWith("ROLE_") ? name : "ROLE_" + name);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown role: " + roleName);
+        }
+    }
+
+    public Set<GrantedAuthority> authoritiesFor(Collection<Role> userRoles) {
+        int mask = 0;
+        for (Role role : userRoles) {
+            mask |= 1 << role.getName().ordinal();
+        }
+        return AUTHORITY_SETS[mask];
+    }
+
+    /**
+     * Resolves a comma-separated roles claim such as {@code ROLE_ADMIN,ROLE_USER}
+     * without splitting the string. Unknown names are ignored.
+     */
+    public Set<GrantedAuthority> authoritiesFor(String rolesClaim) {
+        if (rolesClaim == null) {
+            return AUTHORITY_SETS[0];
+        }
+        int mask = 0;
+        int start = 0;
+        int length = rolesClaim.length();
+        while (start < length) {
+            int end = rolesClaim.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            mask |= maskOf(rolesClaim, start, end - start);
+            start = end + 1;
+        }
+        return AUTHORITY_SETS[mask];
+    }
+
+    // Several roles written in one transaction collapse into a single reload on next use
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        log.info("Role {} changed, role registry will reload", event.getRoleName());
+        roles = null;
+    }
+
+    public synchronized void reload() {
+        Map<Role.RoleName, Role> loaded = new EnumMap<>(Role.RoleName.class);
+        for (Role role : roleRepository.findAll()) {
+            loaded.put(role.getName(), role);
+        }
+        roles = Collections.unmodifiableMap(loaded);
+        log.debug("Loaded {} roles", loaded.size());
+    }
+
+    private Map<Role.RoleName, Role> roles() {
+        Map<Role.RoleName, Role> current = roles;
+        if (current == null) {
+            synchronized (this) {
+                if (roles == null) {
+                    reload();
+                }
+                current = roles;
+            }
+        }
+        return current;
+    }
+
+    private static int maskOf(String claim, int offset, int length) {
+        for (Role.RoleName name : ROLE_NAMES) {
+            String value = name.name();
+            if (value.length() == length && claim.regionMatches(offset, value, 0, length)) {
+                return 1 << name.ordinal();
+            }
+        }
+        return 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Set<GrantedAuthority>[] buildAuthoritySets() {
+        GrantedAuthority[] authorities = new GrantedAuthority[ROLE_NAMES.length];
+        for (Role.RoleName name : ROLE_NAMES) {
+            authorities[name.ordinal()] = new SimpleGrantedAuthority(name.name());
+        }
+
+        Set<GrantedAuthority>[] sets = new Set[1 << ROLE_NAMES.length];
+        for (int mask = 0; mask < sets.length; mask++) {
+            Set<GrantedAuthority> set = new LinkedHashSet<>();
+            for (int i = 0; i < authorities.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    set.add(authorities[i]);
+                }
+            }
+            sets[mask] = Collections.unmodifiableSet(set);
+        }
+        return sets;
+    }
+}
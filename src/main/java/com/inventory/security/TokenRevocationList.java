@@ -0,0 +1,111 @@
+package com.inventory.security;
+
+import com.inventory.event.AccessTokensRevokedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory revocation state for access tokens, checked on every request
+ * without touching the database.
+ *
+ * <p>Revoked token ids are kept in a ring of time buckets keyed by the
+ * token's own expiry, so a lookup touches exactly one bucket and entries
+ * disappear on their own once the slot is reused for a later period. Whole
+ * users can also be cut off (role change, password change, deletion): any
+ * token issued up to the end of that second is rejected until it would have
+ * expired anyway. The cut-off is applied after the change commits, so a
+ * refresh that read the old roles is cut off too.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final long BUCKET_WIDTH_MILLIS = 60_000;
+
+    private final long accessTokenTtlMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final ConcurrentHashMap<String, Long> subjectsRevokedAt = new ConcurrentHashMap<>();
+
+    public TokenRevocationList(@Value("${jwt.expiration}") long accessTokenTtlMillis) {
+        this.accessTokenTtlMillis = accessTokenTtlMillis;
+        this.buckets = new AtomicReferenceArray<>((int) (accessTokenTtlMillis / BUCKET_WIDTH_MILLIS) + 2);
+    }
+
+    public void revoke(String tokenId, long expiresAtMillis) {
+        if (tokenId == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        long period = expiresAtMillis / BUCKET_WIDTH_MILLIS;
+        int slot = (int) (period % buckets.length());
+
+        while (true) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.period == period) {
+                bucket.tokenIds.add(tokenId);
+                return;
+            }
+            // Slot is empty or holds an already expired period
+            Bucket fresh = new Bucket(period);
+            fresh.tokenIds.add(tokenId);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                return;
+            }
+        }
+    }
+
+    public void revokeAllFor(String username) {
+        revokeAllFor(username, cutoffAfter(System.currentTimeMillis()));
+    }
+
+    /** Rejects tokens of {@code username} issued before {@code issuedBeforeMillis}. */
+    public void revokeAllFor(String username, long issuedBeforeMillis) {
+        subjectsRevokedAt.merge(username, issuedBeforeMillis, Math::max);
+    }
+
+    // JWT iat has whole-second precision, so the cutoff is rounded up to the
+    // next second: a token issued earlier in the same second must not survive.
+    // One re-issued later in that second is rejected as well and has to be
+    // refreshed once more.
+    static long cutoffAfter(long nowMillis) {
+        return nowMillis - nowMillis % 1000 + 1000;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccessTokensRevoked(AccessTokensRevokedEvent event) {
+        revokeAllFor(event.getUsername());
+    }
+
+    public boolean isRevoked(String tokenId, String username, long issuedAtMillis, long expiresAtMillis) {
+        Long subjectRevokedAt = subjectsRevokedAt.get(username);
+        if (subjectRevokedAt != null && issuedAtMillis < subjectRevokedAt) {
+            return true;
+        }
+        if (tokenId == null) {
+            return false;
+        }
+        long period = expiresAtMillis / BUCKET_WIDTH_MILLIS;
+        Bucket bucket = buckets.get((int) (period % buckets.length()));
+        return bucket != null && bucket.period == period && bucket.tokenIds.contains(tokenId);
+    }
+
+    @Scheduled(fixedDelay = BUCKET_WIDTH_MILLIS)
+    public void evictExpiredSubjects() {
+        long cutoff = System.currentTimeMillis() - accessTokenTtlMillis;
+        subjectsRevokedAt.values().removeIf(revokedAt -> revokedAt < cutoff);
+    }
+
+    private static final class Bucket {
+        private final long period;
+        private final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+
+        private Bucket(long period) {
+            this.period = period;
+        }
+    }
+}
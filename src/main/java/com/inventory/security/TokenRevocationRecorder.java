@@ -0,0 +1,71 @@
+package com.inventory.security;
+
+import com.inventory.event.AccessTokensRevokedEvent;
+import com.inventory.model.AccessTokenRevocation;
+import com.inventory.repository.AccessTokenRevocationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Writes revocations to {@code access_token_revocations}, where the reactive
+ * read application picks them up; {@link TokenRevocationList} only covers
+ * this process.
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class TokenRevocationRecorder {
+
+    private final AccessTokenRevocationRepository repository;
+    private final long accessTokenTtlMillis;
+
+    public TokenRevocationRecorder(AccessTokenRevocationRepository repository,
+                                   @Value("${jwt.expiration}") long accessTokenTtlMillis) {
+        this.repository = repository;
+        this.accessTokenTtlMillis = accessTokenTtlMillis;
+    }
+
+    /** Records a single token as part of the caller's transaction. */
+    @Transactional
+    public void recordToken(String tokenId, long expiresAtMillis) {
+        if (tokenId == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        AccessTokenRevocation revocation = new AccessTokenRevocation();
+        revocation.setTokenId(tokenId);
+        revocation.setExpiresAtMillis(expiresAtMillis);
+        repository.save(revocation);
+    }
+
+    // Same cut-off as the in-memory list, taken after the change commits; the
+    // change itself is not undone if this write fails
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAccessTokensRevoked(AccessTokensRevokedEvent event) {
+        long issuedBefore = TokenRevocationList.cutoffAfter(System.currentTimeMillis());
+        AccessTokenRevocation revocation = new AccessTokenRevocation();
+        revocation.setUsername(event.getUsername());
+        revocation.setIssuedBeforeMillis(issuedBefore);
+        revocation.setExpiresAtMillis(issuedBefore + accessTokenTtlMillis);
+        try {
+            repository.save(revocation);
+        } catch (RuntimeException e) {
+            log.error("Could not share the revocation of {}'s access tokens; the reactive application "
+                    + "accepts them until they expire", event.getUsername(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.expiration}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = repository.deleteExpired(System.currentTimeMillis());
+        log.debug("Purged {} expired access token revocations", deleted);
+    }
+}
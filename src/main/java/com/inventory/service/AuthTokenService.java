@@ -0,0 +1,165 @@
+package com.inventory.service;
+
+import com.inventory.dto.JwtResponse;
+import com.inventory.event.AccessTokensRevokedEvent;
+import com.inventory.exception.InvalidTokenException;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.model.RefreshToken;
+import com.inventory.model.User;
+import com.inventory.repository.RefreshTokenRepository;
+import com.inventory.repository.UserRepository;
+import com.inventory.security.JwtTokenProvider;
+import com.inventory.security.TokenRevocationList;
+import com.inventory.security.TokenRevocationRecorder;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Issues access/refresh token pairs. Refresh tokens are opaque random values
+ * stored only as a SHA-256 hash and rotated on every use; presenting an
+ * already rotated token is treated as theft and revokes the whole family.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtTokenProvider tokenProvider;
+    private final TokenRevocationList revocationList;
+    private final TokenRevocationRecorder revocationRecorder;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    @Transactional
+    public JwtResponse issueTokens(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+        return buildResponse(user, createRefreshToken(user));
+    }
+
+    // Reuse detection must survive the exception, hence noRollbackFor
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public JwtResponse refresh(String rawRefreshToken) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHashForUpdate(hash(rawRefreshToken))
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        User user = stored.getUser();
+
+        if (stored.getRevoked()) {
+            log.warn("Refresh token reuse detected for user {}, revoking all sessions", user.getUsername());
+            revokeAllSessions(user);
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new InvalidTokenException("Refresh token has expired");
+        }
+        if (!user.getEnabled()) {
+            throw new InvalidTokenException("User account is disabled");
+        }
+
+        stored.setRevoked(true);
+        return buildResponse(user, createRefreshToken(user));
+    }
+
+    @Transactional
+    public void logout(String rawRefreshToken, String accessToken) {
+        if (rawRefreshToken != null) {
+            refreshTokenRepository.findByTokenHashForUpdate(hash(rawRefreshToken))
+                    .ifPresent(token -> token.setRevoked(true));
+        }
+        if (accessToken != null) {
+            Claims claims = tokenProvider.parseClaims(accessToken);
+            if (claims != null) {
+                revocationList.revoke(claims.getId(), claims.getExpiration().getTime());
+                revocationRecorder.recordToken(claims.getId(), claims.getExpiration().getTime());
+            }
+        }
+    }
+
+    /**
+     * Invalidates outstanding access tokens so the next request must refresh
+     * and pick up the user's current roles. Refresh tokens stay valid. Takes
+     * effect once the caller's transaction commits.
+     */
+    public void revokeAccessTokens(User user) {
+        eventPublisher.publishEvent(new AccessTokensRevokedEvent(user.getUsername()));
+    }
+
+    /**
+     * Invalidates access and refresh tokens, forcing a new login.
+     */
+    @Transactional
+    public void revokeAllSessions(User user) {
+        eventPublisher.publishEvent(new AccessTokensRevokedEvent(user.getUsername()));
+        refreshTokenRepository.revokeAllByUserId(user.getId());
+    }
+
+    @Transactional
+    public void deleteAllFor(User user) {
+        eventPublisher.publishEvent(new AccessTokensRevokedEvent(user.getUsername()));
+        refreshTokenRepository.deleteAllByUserId(user.getId());
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void purgeExpiredRefreshTokens() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired refresh tokens", deleted);
+    }
+
+    private String createRefreshToken(User user) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setUser(user);
+        token.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    private JwtResponse buildResponse(User user, String refreshToken) {
+        Set<String> roles = user.getRoles().stream()
+                .map(role -> role.getName().name())
+                .collect(Collectors.toSet());
+
+        JwtResponse response = new JwtResponse(
+                tokenProvider.generateToken(user.getUsername(), roles),
+                user.getId(), user.getUsername(), user.getEmail(), roles);
+        response.setRefreshToken(refreshToken);
+        response.setExpiresIn(tokenProvider.getExpirationMillis() / 1000);
+        return response;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.inventory.service;
+
+import com.inventory.catalog.CatalogReadModel;
+import com.inventory.catalog.CategoryTree;
+import com.inventory.catalog.FacetFilter;
+import com.inventory.catalog.PriceBands;
+import com.inventory.collection.LongArrayList;
+import com.inventory.collection.LongHashSet;
+import com.inventory.collection.LongObjectHashMap;
+import com.inventory.dto.CategoryResponse;
+import com.inventory.dto.ProductFacetQuery;
+import com.inventory.dto.ProductFacetsResponse;
+import com.inventory.dto.ProductResponse;
+import com.inventory.exception.BadRequestException;
+import com.inventory.exception.ServiceOverloadedException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read side of the product and category API. Served from the
+ * {@link CatalogReadModel} once it is loaded, without a transaction, and from
+ * the database through {@link ProductService} and {@link CategoryService}
+ * otherwise.
+ *
+ * <p>Lookups by id that miss the model still go to the database, since the
+ * row may have been created on another node since the last refresh.
+ *
+ * <p>Facets are the exception while an enabled model is still loading: they
+ * are refused with 503 rather than counted with one {@code GROUP BY} per facet
+ * by every request that arrives in the meantime. With the model disabled they
+ * always come from the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogQueryService {
+
+    static final int MAX_BATCH_SIZE = 500;
+
+    private final CatalogReadModel readModel;
+    private final ProductService productService;
+    private final CategoryService categoryService;
+    private final ProductFacetService productFacetService;
+    private final CategoryTree categoryTree;
+    private final PriceBands priceBands;
+
+    public ProductResponse getProductById(Long id) {
+        ProductResponse product = readModel.isReady() ? readModel.findProduct(id) : null;
+        return product != null ? product : productService.getProductById(id);
+    }
+
+    /**
+     * The products with the given ids, in the order asked for; unknown and
+     * repeated ids are skipped. Ids the model does not have are fetched from
+     * the database in one query.
+     */
+    public List<ProductResponse> getProductsByIds(long[] ids) {
+        if (ids.length > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_BATCH_SIZE + " ids per request, got " + ids.length);
+        }
+        if (!readModel.isReady()) {
+            return productService.getProductsByIds(ids);
+        }
+        LongHashSet seen = new LongHashSet(ids.length);
+        LongArrayList misses = new LongArrayList();
+        List<ProductResponse> products = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            if (seen.add(id)) {
+                ProductResponse product = readModel.findProduct(id);
+                if (product == null) {
+                    misses.add(id);
+                }
+                // A null placeholder keeps the position for a database hit
+                products.add(product);
+            }
+        }
+        if (misses.isEmpty()) {
+            return products;
+        }
+        LongObjectHashMap<ProductResponse> fetched = new LongObjectHashMap<>(misses.size());
+        for (ProductResponse product : productService.getProductsByIds(misses.toArray())) {
+            fetched.put(product.getId(), product);
+        }
+        List<ProductResponse> merged = new ArrayList<>(products.size());
+        int miss = 0;
+        for (ProductResponse product : products) {
+            if (product == null) {
+                product = fetched.get(misses.get(miss++));
+            }
+            if (product != null) {
+                merged.add(product);
+            }
+        }
+        return merged;
+    }
+
+    public List<ProductResponse> getAllProducts() {
+        return readModel.isReady() ? readModel.findAllProducts() : productService.getAllProducts();
+    }
+
+    public List<ProductResponse> getProductsByCategory(Long categoryId, boolean includeSubcategories) {
+        return readModel.isReady()
+                ? readModel.findProductsByCategory(categoryId, includeSubcategories)
+                : productService.getProductsByCategory(categoryId, includeSubcategories);
+    }
+
+    public List<ProductResponse> searchProducts(String keyword) {
+        return readModel.isReady() ? readModel.searchProducts(keyword) : productService.searchProducts(keyword);
+    }
+
+    public List<ProductResponse> getLowStockProducts() {
+        return readModel.isReady() ? readModel.findLowStockProducts() : productService.getLowStockProducts();
+    }
+
+    public ProductFacetsResponse getProductFacets(ProductFacetQuery query) {
+        FacetFilter filter = FacetFilter.resolve(query, categoryTree, priceBands);
+        if (readModel.isReady()) {
+            return readModel.findFacets(filter);
+        }
+        if (readModel.isEnabled()) {
+            throw new ServiceOverloadedException("Product facets are not available until the catalog is loaded", 5);
+        }
+        return productFacetService.getProductFacets(filter);
+    }
+
+    public CategoryResponse getCategoryById(Long id) {
+        CategoryResponse category = readModel.isReady() ? readModel.findCategory(id) : null;
+        return category != null ? category : categoryService.getCategoryById(id);
+    }
+
+    public List<CategoryResponse> getAllCategories() {
+        return readModel.isReady() ? readModel.findAllCategories() : categoryService.getAllCategories();
+    }
+}
@@ -1,17 +1,25 @@
 package com.inventory.service;
 
+import com.inventory.catalog.CategoryTree;
+import com.inventory.concurrency.CoalescedRead;
 import com.inventory.dto.CategoryRequest;
 import com.inventory.dto.CategoryResponse;
+import com.inventory.event.CategoryChangedEvent;
+import com.inventory.exception.BadRequestException;
 import com.inventory.exception.DuplicateResourceException;
 import com.inventory.exception.ResourceNotFoundException;
 import com.inventory.model.Category;
 import com.inventory.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,6 +28,7 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public CategoryResponse createCategory(CategoryRequest request) {
@@ -32,25 +41,49 @@ public class CategoryService {
         Category category = new Category();
         category.setName(request.getName());
         category.setDescription(request.getDescription());
+        String parentPath = null;
+        if (request.getParentId() != null) {
+            Category parent = lockWithAncestors(request.getParentId());
+            checkDepth(parent.getDepth() + 1);
+            category.setParentId(parent.getId());
+            category.setDepth(parent.getDepth() + 1);
+            parentPath = parent.getPath();
+        }
+        // The path ends in the category's own id, which the insert assigns
+        category.setPath(CategoryTree.childPath(parentPath, 0));
 
         Category savedCategory = categoryRepository.save(category);
+        savedCategory.setPath(CategoryTree.childPath(parentPath, savedCategory.getId()));
+        categoryRepository.flush();
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getId()));
         log.info("Category created successfully with ID: {}", savedCategory.getId());
-        return mapToResponse(savedCategory);
+        return mapToResponse(savedCategory, 0);
     }
 
+    @CoalescedRead
     @Transactional(readOnly = true)
     public CategoryResponse getCategoryById(Long id) {
         log.debug("Fetching category with ID: {}", id);
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
-        return mapToResponse(category);
+        return mapToResponse(category, categoryRepository.sumProductCountByPathPrefix(category.getPath() + "%"));
     }
 
+    @CoalescedRead
     @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategories() {
         log.debug("Fetching all categories");
-        return categoryRepository.findAll().stream()
-                .map(this::mapToResponse)
+        List<Category> categories = categoryRepository.findAll();
+
+        // Each category's own products count towards every category on its path
+        Map<Long, Long> totals = new HashMap<>();
+        for (Category category : categories) {
+            for (Long ancestorId : CategoryTree.pathIds(category.getPath())) {
+                totals.merge(ancestorId, (long) category.getProductCount(), Long::sum);
+            }
+        }
+        return categories.stream()
+                .map(category -> mapToResponse(category, totals.getOrDefault(category.getId(), 0L)))
                 .collect(Collectors.toList());
     }
 
@@ -58,8 +91,7 @@ public class CategoryService {
     public CategoryResponse updateCategory(Long id, CategoryRequest request) {
         log.info("Updating category with ID: {}", id);
 
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+        Category category = lock(id);
 
         if (!category.getName().equals(request.getName()) && categoryRepository.existsByName(request.getName())) {
             throw new DuplicateResourceException("Category with name " + request.getName() + " already exists");
@@ -68,26 +100,102 @@ public class CategoryService {
         category.setName(request.getName());
         category.setDescription(request.getDescription());
 
-        Category updatedCategory = categoryRepository.save(category);
+        Category updatedCategory;
+        if (Objects.equals(category.getParentId(), request.getParentId())) {
+            updatedCategory = categoryRepository.save(category);
+        } else {
+            updatedCategory = move(category, request.getParentId());
+        }
+        eventPublisher.publishEvent(new CategoryChangedEvent(updatedCategory.getId()));
         log.info("Category updated successfully with ID: {}", updatedCategory.getId());
-        return mapToResponse(updatedCategory);
+        return mapToResponse(updatedCategory,
+                categoryRepository.sumProductCountByPathPrefix(updatedCategory.getPath() + "%"));
     }
 
     @Transactional
     public void deleteCategory(Long id) {
         log.info("Deleting category with ID: {}", id);
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+        Category category = lock(id);
+        if (categoryRepository.existsByParentId(id)) {
+            throw new BadRequestException("Category " + id + " has subcategories; move or delete them first");
+        }
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
         log.info("Category deleted successfully with ID: {}", id);
     }
 
-    private CategoryResponse mapToResponse(Category category) {
+    /**
+     * Moves a locked category, and with it its subtree, under another parent
+     * or to the top level. The paths below it are rewritten in one statement.
+     */
+    private Category move(Category category, Long parentId) {
+        String oldPath = category.getPath();
+        String newPath;
+        int newDepth;
+        if (parentId == null) {
+            newPath = CategoryTree.childPath(null, category.getId());
+            newDepth = 0;
+        } else {
+            Category parent = lockWithAncestors(parentId);
+            if (parent.getPath().startsWith(oldPath)) {
+                throw new BadRequestException("Category " + category.getId()
+                        + " cannot be moved under itself or one of its subcategories");
+            }
+            newPath = CategoryTree.childPath(parent.getPath(), category.getId());
+            newDepth = parent.getDepth() + 1;
+        }
+        int depthDelta = newDepth - category.getDepth();
+        checkDepth(categoryRepository.findMaxDepthByPathPrefix(oldPath + "%") + depthDelta);
+
+        log.info("Moving category {} from {} to {}", category.getId(), oldPath, newPath);
+        category.setParentId(parentId);
+        categoryRepository.save(category);
+        int moved = categoryRepository.movePaths(oldPath + "%", oldPath.length(), newPath, depthDelta);
+        log.debug("Re-rooted {} categories under {}", moved, newPath);
+        // The bulk update cleared the persistence context
+        return categoryRepository.findById(category.getId()).orElseThrow();
+    }
+
+    private Category lock(Long id) {
+        List<Category> locked = categoryRepository.findAllByIdForUpdate(List.of(id));
+        if (locked.isEmpty()) {
+            throw new ResourceNotFoundException("Category not found with id: " + id);
+        }
+        return locked.get(0);
+    }
+
+    /**
+     * Locks a category and every category above it, so that it can be neither
+     * moved nor deleted until the transaction ends. The path read before the
+     * locks may already be stale; if it is, the new path is locked as well.
+     */
+    private Category lockWithAncestors(Long id) {
+        while (true) {
+            String path = categoryRepository.findPathById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+            for (Category category : categoryRepository.findAllByIdForUpdate(CategoryTree.pathIds(path))) {
+                if (category.getId().equals(id) && category.getPath().equals(path)) {
+                    return category;
+                }
+            }
+        }
+    }
+
+    private static void checkDepth(int depth) {
+        if (depth > CategoryTree.MAX_DEPTH) {
+            throw new BadRequestException("Categories can be nested at most " + (CategoryTree.MAX_DEPTH + 1)
+                    + " levels deep");
+        }
+    }
+
+    private CategoryResponse mapToResponse(Category category, long productCount) {
         CategoryResponse response = new CategoryResponse();
         response.setId(category.getId());
         response.setName(category.getName());
         response.setDescription(category.getDescription());
-        response.setProductCount(category.getProducts() != null ? category.getProducts().size() : 0);
+        response.setParentId(category.getParentId());
+        response.setDepth(category.getDepth());
+        response.setProductCount((int) productCount);
         response.setCreatedAt(category.getCreatedAt());
         response.setUpdatedAt(category.getUpdatedAt());
         return response;
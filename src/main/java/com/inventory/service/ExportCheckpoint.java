@@ -0,0 +1,127 @@
+package com.inventory.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+/**
+ * Progress of a product export: the keyset position of the last row written
+ * and the file length at that point. Everything past {@code bytes} is
+ * discarded on resume.
+ */
+class ExportCheckpoint {
+
+    enum Mode { FULL, CHANGED }
+
+    private final Mode mode;
+    private final LocalDateTime since;
+    private final LocalDateTime until;
+    private final String fileName;
+    private LocalDateTime lastUpdatedAt;
+    private long lastId;
+    private long bytes;
+    private long rows;
+
+    ExportCheckpoint(Mode mode, LocalDateTime since, LocalDateTime until, String fileName) {
+        this.mode = mode;
+        this.since = since;
+        this.until = until;
+        this.fileName = fileName;
+        this.lastUpdatedAt = since;
+    }
+
+    static ExportCheckpoint load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        ExportCheckpoint checkpoint = new ExportCheckpoint(
+                Mode.valueOf(props.getProperty("mode")),
+                parse(props.getProperty("since")),
+                parse(props.getProperty("until")),
+                props.getProperty("fileName"));
+        checkpoint.lastUpdatedAt = parse(props.getProperty("lastUpdatedAt"));
+        checkpoint.lastId = Long.parseLong(props.getProperty("lastId"));
+        checkpoint.bytes = Long.parseLong(props.getProperty("bytes"));
+        checkpoint.rows = Long.parseLong(props.getProperty("rows"));
+        return checkpoint;
+    }
+
+    // Written to a temporary file and moved into place so a crash never leaves a torn checkpoint
+    void save(Path file) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("mode", mode.name());
+        props.setProperty("until", until.toString());
+        props.setProperty("fileName", fileName);
+        props.setProperty("lastId", Long.toString(lastId));
+        props.setProperty("bytes", Long.toString(bytes));
+        props.setProperty("rows", Long.toString(rows));
+        if (since != null) {
+            props.setProperty("since", since.toString());
+        }
+        if (lastUpdatedAt != null) {
+            props.setProperty("lastUpdatedAt", lastUpdatedAt.toString());
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            props.store(writer, null);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    void advance(LocalDateTime updatedAt, long id) {
+        this.lastUpdatedAt = updatedAt;
+        this.lastId = id;
+        this.rows++;
+    }
+
+    void committed(long bytes) {
+        this.bytes = bytes;
+    }
+
+    Mode getMode() {
+        return mode;
+    }
+
+    LocalDateTime getSince() {
+        return since;
+    }
+
+    LocalDateTime getUntil() {
+        return until;
+    }
+
+    String getFileName() {
+        return fileName;
+    }
+
+    LocalDateTime getLastUpdatedAt() {
+        return lastUpdatedAt;
+    }
+
+    long getLastId() {
+        return lastId;
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    private static LocalDateTime parse(String value) {
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.inventory.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class InventoryReportScheduler {
+
+    private final NotificationService notificationService;
+
+    // Goes through the @Async proxy so a long export never holds the single scheduler thread
+    @Scheduled(cron = "${inventory.reporting.export.cron:0 0 2 * * *}")
+    public void nightlyInventoryReport() {
+        notificationService.sendInventoryReport();
+    }
+}
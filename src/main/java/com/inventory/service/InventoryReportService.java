@@ -0,0 +1,152 @@
+package com.inventory.service;
+
+import com.inventory.catalog.CatalogReadModel;
+import com.inventory.concurrency.BulkOperation;
+import com.inventory.datasource.ReportingDataSource;
+import com.inventory.dto.InventoryValuationReport;
+import com.inventory.dto.InventoryValuationReport.CategoryValuation;
+import com.inventory.dto.InventoryValuationReport.DeadStockItem;
+import com.inventory.dto.InventoryValuationReport.ProductTurnover;
+import com.inventory.money.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stock valuation, turnover and dead-stock figures. Aggregation is pushed down
+ * to the database, which can use a parallel scan over products; only grouped
+ * rows and the top-N lists come back. Queries run on the reporting pool inside
+ * one read-only snapshot so the three parts are consistent with each other.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryReportService {
+
+    // Group on the narrow key first and join category names to the few result rows
+    private static final String VALUATION_SQL = """
+            SELECT v.category_id, c.name, v.status, v.product_count, v.units, v.stock_value
+            FROM (SELECT category_id, status, COUNT(*) AS product_count,
+                         SUM(quantity) AS units, SUM(price * quantity) AS stock_value
+                  FROM products
+                  GROUP BY category_id, status) v
+            LEFT JOIN categories c ON c.id = v.category_id
+            ORDER BY c.name, v.status
+            """;
+
+    private static final String TURNOVER_SQL = """
+            SELECT p.id, p.sku, p.name, p.quantity, o.units_out
+            FROM (SELECT product_id, -SUM(quantity_delta) AS units_out
+                  FROM stock_movements
+                  WHERE quantity_delta < 0 AND created_at >= ?
+                  GROUP BY product_id) o
+            JOIN products p ON p.id = o.product_id
+            ORDER BY o.units_out DESC, p.id
+            LIMIT ?
+            """;
+
+    private static final String DEAD_STOCK_SQL = """
+            SELECT p.id, p.sku, p.name, p.quantity, p.price * p.quantity AS stock_value
+            FROM products p
+            WHERE p.quantity > 0
+              AND NOT EXISTS (SELECT 1 FROM stock_movements m
+                              WHERE m.product_id = p.id AND m.quantity_delta < 0 AND m.created_at >= ?)
+            ORDER BY stock_value DESC, p.id
+            LIMIT ?
+            """;
+
+    private final ReportingDataSource reportingDataSource;
+    private final CatalogReadModel catalogReadModel;
+
+    @BulkOperation
+    public InventoryValuationReport generateValuationReport(int turnoverDays, int deadStockDays, int limit) {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        InventoryValuationReport report = reportingDataSource.inSnapshot(jdbc -> {
+            InventoryValuationReport r = new InventoryValuationReport();
+            r.setValuation(queryValuation(jdbc));
+            r.setTurnover(queryTurnover(jdbc, now.minusDays(turnoverDays), limit));
+            r.setDeadStock(queryDeadStock(jdbc, now.minusDays(deadStockDays), limit));
+            return r;
+        });
+
+        report.setTurnoverDays(turnoverDays);
+        report.setDeadStockDays(deadStockDays);
+        summarize(report, now, start);
+
+        log.info("Inventory valuation report generated in {} ms ({} products)",
+                report.getElapsedMillis(), report.getProductCount());
+        return report;
+    }
+
+    /**
+     * The valuation section alone, aggregated from the in-memory catalog when
+     * it is loaded, so it costs no database scan; from the database otherwise.
+     */
+    public InventoryValuationReport generateLiveValuation() {
+        long start = System.nanoTime();
+        InventoryValuationReport report = new InventoryValuationReport();
+        // Only the fallback touches the database, on the reporting pool
+        report.setValuation(catalogReadModel.isReady()
+                ? catalogReadModel.valuation()
+                : reportingDataSource.inSnapshot(this::queryValuation));
+        summarize(report, LocalDateTime.now(), start);
+        return report;
+    }
+
+    // Totals are summed in cents; the per-group values are exact at the price scale
+    private static void summarize(InventoryValuationReport report, LocalDateTime generatedAt, long start) {
+        long productCount = 0;
+        long totalUnits = 0;
+        long totalValue = 0;
+        for (CategoryValuation line : report.getValuation()) {
+            productCount += line.getProductCount();
+            totalUnits += line.getUnits();
+            totalValue = Math.addExact(totalValue, Money.toMinorUnits(line.getValue()));
+        }
+        report.setGeneratedAt(generatedAt);
+        report.setProductCount(productCount);
+        report.setTotalUnits(totalUnits);
+        report.setTotalValue(Money.toBigDecimal(totalValue));
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<CategoryValuation> queryValuation(JdbcTemplate jdbc) {
+        return jdbc.query(VALUATION_SQL, (rs, rowNum) -> new CategoryValuation(
+                rs.getObject(1, Long.class),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getLong(4),
+                rs.getLong(5),
+                nonNull(rs.getBigDecimal(6))));
+    }
+
+    private List<ProductTurnover> queryTurnover(JdbcTemplate jdbc, LocalDateTime since, int limit) {
+        return jdbc.query(TURNOVER_SQL, (rs, rowNum) -> {
+            int quantity = rs.getInt(4);
+            long unitsOut = rs.getLong(5);
+            return new ProductTurnover(rs.getLong(1), rs.getString(2), rs.getString(3), unitsOut, quantity,
+                    quantity > 0 ? (double) unitsOut / quantity : null);
+        }, Timestamp.valueOf(since), limit);
+    }
+
+    private List<DeadStockItem> queryDeadStock(JdbcTemplate jdbc, LocalDateTime since, int limit) {
+        return jdbc.query(DEAD_STOCK_SQL, (rs, rowNum) -> new DeadStockItem(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getInt(4),
+                nonNull(rs.getBigDecimal(5))), Timestamp.valueOf(since), limit);
+    }
+
+    private static BigDecimal nonNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
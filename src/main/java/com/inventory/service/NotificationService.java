@@ -1,14 +1,24 @@
 package com.inventory.service;
 
+import com.inventory.dto.InventoryValuationReport;
 import com.inventory.model.Product;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
 
+    private static final int DEFAULT_TURNOVER_DAYS = 30;
+    private static final int DEFAULT_DEAD_STOCK_DAYS = 90;
+    private static final int DEFAULT_REPORT_LIMIT = 50;
+
+    private final InventoryReportService inventoryReportService;
+    private final ProductExportService productExportService;
+
     @Async
     public void sendLowStockAlert(Product product) {
         log.info("Sending low stock alert for product: {} (SKU: {}), Current quantity: {}, Reorder level: {}",
@@ -27,14 +37,23 @@ public class NotificationService {
     @Async
     public void sendInventoryReport() {
         log.info("Generating and sending inventory report asynchronously...");
-        
-        // Simulate report generation
+
         try {
-            Thread.sleep(2000); // Simulate delay
+            ProductExportService.ExportResult export = productExportService.exportProducts();
+            if (export != null) {
+                log.info("Product export: {} ({} rows, {})", export.getFile(), export.getRows(),
+                        export.isIncremental() ? "changed since last export" : "full catalogue");
+            }
+
+            InventoryValuationReport report = inventoryReportService.generateValuationReport(
+                    DEFAULT_TURNOVER_DAYS, DEFAULT_DEAD_STOCK_DAYS, DEFAULT_REPORT_LIMIT);
+            // Delivery channel is still to be decided; the summary goes to the log for now
+            log.info("Inventory report: {} products, {} units, total value {}, {} dead-stock items",
+                    report.getProductCount(), report.getTotalUnits(), report.getTotalValue(),
+                    report.getDeadStock().size());
             log.info("Inventory report generated and sent successfully");
-        } catch (InterruptedException e) {
+        } catch (RuntimeException e) {
             log.error("Error generating report", e);
-            Thread.currentThread().interrupt();
         }
     }
 
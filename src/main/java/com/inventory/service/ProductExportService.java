@@ -0,0 +1,286 @@
+package com.inventory.service;
+
+import com.inventory.concurrency.BulkOperation;
+import com.inventory.datasource.ReportingDataSource;
+import com.inventory.service.ExportCheckpoint.Mode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the product catalogue to a gzip-compressed CSV file without loading
+ * it into memory. Rows are read in keyset-ordered chunks, each through a
+ * forward-only cursor on the reporting pool, and each chunk is written as its
+ * own gzip member. After a member is flushed to disk the checkpoint records
+ * the file length and the last key, so an interrupted run resumes by
+ * truncating the partial member and continuing from that key. Concatenated
+ * members form a valid gzip file.
+ *
+ * <p>Once a run has completed, later runs export only the products whose
+ * {@code updated_at} falls in the window since the previous run. The window
+ * starts {@code overlap} before the previous run ended: a transaction may
+ * stamp {@code updated_at} and commit only after that run read past it. Rows
+ * in the overlap can appear in two consecutive files; consumers dedupe them
+ * by {@code (id, updated_at)}.
+ */
+@Service
+@Slf4j
+public class ProductExportService {
+
+    private static final String HEADER =
+            "id,sku,name,category,price,quantity,reorder_level,status,updated_at\n";
+
+    private static final String SELECT = """
+            SELECT p.id, p.sku, p.name, c.name AS category_name, p.price, p.quantity,
+                   p.reorder_level, p.status, p.updated_at
+            FROM products p
+            LEFT JOIN categories c ON c.id = p.category_id
+            """;
+
+    private static final String FULL_SQL = SELECT + """
+            WHERE p.id > ?
+            ORDER BY p.id
+            LIMIT ?
+            """;
+
+    // Keyset on (updated_at, id), served by idx_products_updated_at_id; the upper
+    // bound leaves rows changed during the run to the next one
+    private static final String CHANGED_SQL = SELECT + """
+            WHERE (p.updated_at, p.id) > (?, ?) AND p.updated_at < ?
+            ORDER BY p.updated_at, p.id
+            LIMIT ?
+            """;
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final String CHECKPOINT_FILE = "product-export.checkpoint";
+    private static final String STATE_FILE = "product-export.state";
+    private static final String LAST_EXPORT_UNTIL = "lastExportUntil";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReportingDataSource reportingDataSource;
+    private final Path directory;
+    private final int chunkSize;
+    private final int fetchSize;
+    private final long overlapMillis;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ProductExportService(ReportingDataSource reportingDataSource,
+                                @Value("${inventory.reporting.export.directory:./reports}") String directory,
+                                @Value("${inventory.reporting.export.chunk-size:50000}") int chunkSize,
+                                @Value("${inventory.reporting.export.fetch-size:1000}") int fetchSize,
+                                @Value("${inventory.reporting.export.overlap:5000}") long overlapMillis) {
+        this.reportingDataSource = reportingDataSource;
+        this.directory = Paths.get(directory);
+        this.chunkSize = chunkSize;
+        this.fetchSize = fetchSize;
+        this.overlapMillis = overlapMillis;
+    }
+
+    /**
+     * Resumes an interrupted export if there is one; otherwise exports the
+     * products changed since the last completed run, or everything if there
+     * has been none. Returns null when an export is already in progress.
+     */
+    @BulkOperation
+    public ExportResult exportProducts() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Product export already running, skipping");
+            return null;
+        }
+        try {
+            Files.createDirectories(directory);
+            ExportCheckpoint checkpoint = ExportCheckpoint.load(directory.resolve(CHECKPOINT_FILE));
+            boolean resumed = checkpoint != null;
+            if (resumed) {
+                log.info("Resuming product export {} after {} rows", checkpoint.getFileName(), checkpoint.getRows());
+            } else {
+                checkpoint = newCheckpoint();
+            }
+            return export(checkpoint, resumed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Product export failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ExportCheckpoint newCheckpoint() throws IOException {
+        LocalDateTime lastUntil = readLastExportUntil();
+        LocalDateTime since = lastUntil != null ? lastUntil.minus(overlapMillis, ChronoUnit.MILLIS) : null;
+        LocalDateTime until = LocalDateTime.now();
+        Mode mode = since != null ? Mode.CHANGED : Mode.FULL;
+        String fileName = "products-" + mode.name().toLowerCase(Locale.ROOT) + "-" + FILE_TIMESTAMP.format(until) + ".csv.gz";
+        return new ExportCheckpoint(mode, since, until, fileName);
+    }
+
+    private ExportResult export(ExportCheckpoint checkpoint, boolean resumed) throws IOException {
+        long start = System.nanoTime();
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        Path partFile = directory.resolve(checkpoint.getFileName() + ".part");
+
+        try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Anything past the checkpoint is an unfinished member from an interrupted run
+            channel.truncate(checkpoint.getBytes());
+            channel.position(checkpoint.getBytes());
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+
+            boolean header = checkpoint.getBytes() == 0;
+            int written;
+            do {
+                long rowsBefore = checkpoint.getRows();
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(StreamUtils.nonClosing(out), BUFFER_SIZE), StandardCharsets.UTF_8))) {
+                    if (header) {
+                        writer.write(HEADER);
+                        header = false;
+                    }
+                    writeChunk(checkpoint, writer);
+                }
+                written = (int) (checkpoint.getRows() - rowsBefore);
+
+                out.flush();
+                channel.force(false);
+                checkpoint.committed(channel.position());
+                checkpoint.save(checkpointFile);
+            } while (written == chunkSize);
+        }
+
+        Path target = directory.resolve(checkpoint.getFileName());
+        Files.move(partFile, target, StandardCopyOption.REPLACE_EXISTING);
+        writeLastExportUntil(checkpoint.getUntil());
+        Files.delete(checkpointFile);
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Product export {} written: {} rows, {} bytes in {} ms",
+                target, checkpoint.getRows(), checkpoint.getBytes(), millis);
+        return new ExportResult(target, checkpoint.getMode() == Mode.CHANGED, resumed, checkpoint.getRows());
+    }
+
+    private void writeChunk(ExportCheckpoint checkpoint, Writer writer) {
+        StringBuilder line = new StringBuilder(256);
+        RowCallbackHandler handler = rs -> writeRow(rs, checkpoint, writer, line);
+        reportingDataSource.inSnapshot(fetchSize, jdbc -> {
+            if (checkpoint.getMode() == Mode.FULL) {
+                jdbc.query(FULL_SQL, handler, checkpoint.getLastId(), chunkSize);
+            } else {
+                jdbc.query(CHANGED_SQL, handler,
+                        Timestamp.valueOf(checkpoint.getLastUpdatedAt()), checkpoint.getLastId(),
+                        Timestamp.valueOf(checkpoint.getUntil()), chunkSize);
+            }
+            return null;
+        });
+    }
+
+    private void writeRow(ResultSet rs, ExportCheckpoint checkpoint, Writer writer, StringBuilder line)
+            throws SQLException {
+        long id = rs.getLong("id");
+        BigDecimal price = rs.getBigDecimal("price");
+        LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+
+        line.setLength(0);
+        line.append(id).append(',');
+        appendField(line, rs.getString("sku")).append(',');
+        appendField(line, rs.getString("name")).append(',');
+        appendField(line, rs.getString("category_name")).append(',');
+        line.append(price != null ? price.toPlainString() : "").append(',');
+        line.append(rs.getInt("quantity")).append(',');
+        line.append(rs.getInt("reorder_level")).append(',');
+        appendField(line, rs.getString("status")).append(',');
+        line.append(updatedAt).append('\n');
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        checkpoint.advance(updatedAt, id);
+    }
+
+    // RFC 4180 quoting, only where a value needs it
+    private static StringBuilder appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return line.append(value);
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    private LocalDateTime readLastExportUntil() throws IOException {
+        Path stateFile = directory.resolve(STATE_FILE);
+        if (!Files.exists(stateFile)) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        String value = props.getProperty(LAST_EXPORT_UNTIL);
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+
+    private void writeLastExportUntil(LocalDateTime until) throws IOException {
+        Properties props = new Properties();
+        props.setProperty(LAST_EXPORT_UNTIL, until.toString());
+        Path temp = directory.resolve(STATE_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            props.store(writer, null);
+        }
+        Files.move(temp, directory.resolve(STATE_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class ExportResult {
+        private final Path file;
+        private final boolean incremental;
+        private final boolean resumed;
+        private final long rows;
+    }
+}
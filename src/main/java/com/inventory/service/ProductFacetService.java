@@ -0,0 +1,155 @@
+package com.inventory.service;
+
+import com.inventory.catalog.CategoryTree;
+import com.inventory.catalog.FacetCounts;
+import com.inventory.catalog.FacetFilter;
+import com.inventory.catalog.PriceBands;
+import com.inventory.collection.LongObjectHashMap;
+import com.inventory.dto.ProductFacetsResponse;
+import com.inventory.dto.ProductResponse;
+import com.inventory.money.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Faceted product queries against the database: a count, a page of ids and
+ * one {@code GROUP BY} per facet, each with the other facets' filters. Used
+ * when the catalog read model is disabled; an enabled one answers the same
+ * query from bitmaps without touching the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductFacetService {
+
+    private static final int CATEGORY = 0;
+    private static final int STATUS = 1;
+    private static final int PRICE_BAND = 2;
+    private static final int STOCK = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryTree categoryTree;
+    private final PriceBands priceBands;
+    private final ProductService productService;
+
+    @Transactional(readOnly = true)
+    public ProductFacetsResponse getProductFacets(FacetFilter filter) {
+        log.debug("Counting product facets in the database");
+        Where all = where(filter, -1);
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products p" + all.sql, Long.class,
+                all.args.toArray());
+
+        // One row past the page says whether there is another
+        List<Object> pageArgs = new ArrayList<>(all.args);
+        pageArgs.add(filter.afterId());
+        pageArgs.add(filter.limit() + 1);
+        List<Long> ids = jdbcTemplate.queryForList("SELECT p.id FROM products p" + all.and("p.id > ?")
+                + " ORDER BY p.id LIMIT ?", Long.class, pageArgs.toArray());
+        Long nextAfterId = null;
+        if (ids.size() > filter.limit()) {
+            ids = ids.subList(0, filter.limit());
+            nextAfterId = ids.get(ids.size() - 1);
+        }
+        List<ProductResponse> products = ids.isEmpty() ? Collections.emptyList()
+                : productService.getProductsByIds(ids.stream().mapToLong(Long::longValue).toArray());
+
+        FacetCounts counts = new FacetCounts(priceBands);
+        Where others = where(filter, CATEGORY);
+        jdbcTemplate.query("SELECT p.category_id, COUNT(*) FROM products p" + others.sql + " GROUP BY p.category_id",
+                rs -> {
+                    counts.addCategory(rs.getLong(1), rs.getLong(2));
+                }, others.args.toArray());
+        others = where(filter, STATUS);
+        jdbcTemplate.query("SELECT p.status, COUNT(*) FROM products p" + others.sql + " GROUP BY p.status",
+                rs -> {
+                    counts.addStatus(rs.getString(1), rs.getLong(2));
+                }, others.args.toArray());
+        others = where(filter, PRICE_BAND);
+        jdbcTemplate.query("SELECT b.band, COUNT(*) FROM (SELECT " + bandCase() + " AS band FROM products p"
+                + others.sql + ") b GROUP BY b.band", rs -> {
+                    counts.addPriceBand(rs.getInt(1), rs.getLong(2));
+                }, others.args.toArray());
+        others = where(filter, STOCK);
+        jdbcTemplate.query("SELECT s.in_stock, COUNT(*) FROM (SELECT CASE WHEN p.quantity > 0 THEN 1 ELSE 0 END "
+                + "AS in_stock FROM products p" + others.sql + ") s GROUP BY s.in_stock", rs -> {
+                    counts.addStock(rs.getInt(1) == 1, rs.getLong(2));
+                }, others.args.toArray());
+
+        if (filter.includeSubcategories()) {
+            counts.rollUpCategories(categoryTree);
+        }
+        LongObjectHashMap<String> names = new LongObjectHashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM categories", rs -> {
+            names.put(rs.getLong(1), rs.getString(2));
+        });
+        return counts.toResponse(total != null ? total : 0, products, nextAfterId, names::get);
+    }
+
+    // Band numbers in the same order as PriceBands, bounds in the column's scale
+    private String bandCase() {
+        StringBuilder sql = new StringBuilder("CASE");
+        for (int band = 0; band < priceBands.count() - 1; band++) {
+            sql.append(" WHEN p.price < ").append(Money.toBigDecimal(priceBands.upperBound(band)).toPlainString())
+                    .append(" THEN ").append(band);
+        }
+        return sql.append(" ELSE ").append(priceBands.count() - 1).append(" END").toString();
+    }
+
+    // The filters of every facet but the excepted one
+    private Where where(FacetFilter filter, int except) {
+        Where where = new Where();
+        if (except != CATEGORY && filter.categoryIds() != null) {
+            StringBuilder in = new StringBuilder("p.category_id IN (");
+            for (int i = 0; i < filter.categoryIds().length; i++) {
+                in.append(i > 0 ? ", ?" : "?");
+                where.args.add(filter.categoryIds()[i]);
+            }
+            where.add(in.append(')').toString());
+        }
+        if (except != STATUS && filter.statuses() != null) {
+            StringBuilder in = new StringBuilder("p.status IN (");
+            for (int i = 0; i < filter.statuses().length; i++) {
+                in.append(i > 0 ? ", ?" : "?");
+                where.args.add(filter.statuses()[i]);
+            }
+            where.add(in.append(')').toString());
+        }
+        if (except != PRICE_BAND && filter.priceBands() != null) {
+            StringBuilder bands = new StringBuilder("(");
+            for (int i = 0; i < filter.priceBands().length; i++) {
+                int band = filter.priceBands()[i];
+                bands.append(i > 0 ? " OR " : "").append("p.price >= ?");
+                where.args.add(Money.toBigDecimal(priceBands.lowerBound(band)));
+                if (band < priceBands.count() - 1) {
+                    bands.append(" AND p.price < ?");
+                    where.args.add(Money.toBigDecimal(priceBands.upperBound(band)));
+                }
+            }
+            where.add(bands.append(')').toString());
+        }
+        if (except != STOCK && filter.inStock() != null) {
+            where.add(filter.inStock() ? "p.quantity > 0" : "p.quantity <= 0");
+        }
+        return where;
+    }
+
+    private static final class Where {
+        String sql = "";
+        final List<Object> args = new ArrayList<>();
+
+        void add(String condition) {
+            sql = and(condition);
+        }
+
+        String and(String condition) {
+            return sql + (sql.isEmpty() ? " WHERE " : " AND ") + condition;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.inventory.service;
+
+import com.inventory.dto.ProductResponse;
+import com.inventory.model.Product;
+
+/**
+ * Entity to API mapping for products, shared by the servlet API and the
+ * reactive read module so both return identical documents.
+ */
+public final class ProductMapper {
+
+    private ProductMapper() {
+    }
+
+    public static ProductResponse toResponse(Product product) {
+        ProductResponse response = new ProductResponse();
+        response.setId(product.getId());
+        response.setSku(product.getSku());
+        response.setName(product.getName());
+        response.setDescription(product.getDescription());
+        response.setPrice(product.getPrice());
+        response.setQuantity(product.getQuantity());
+        response.setReorderLevel(product.getReorderLevel());
+        response.setCategoryId(product.getCategory().getId());
+        response.setCategoryName(product.getCategory().getName());
+        response.setStatus(product.getStatus());
+        response.setCreatedAt(product.getCreatedAt());
+        response.setUpdatedAt(product.getUpdatedAt());
+        return response;
+    }
+}
@@ -1,19 +1,38 @@
 package com.inventory.service;
 
+import com.inventory.catalog.CategoryTree;
+import com.inventory.collection.LongHashSet;
+import com.inventory.collection.LongObjectHashMap;
+import com.inventory.concurrency.CoalescedRead;
+import com.inventory.dto.ProductField;
 import com.inventory.dto.ProductRequest;
 import com.inventory.dto.ProductResponse;
+import com.inventory.dto.ReorderSuggestion;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.event.StockDecreasedEvent;
+import com.inventory.exception.BadRequestException;
 import com.inventory.exception.ResourceNotFoundException;
 import com.inventory.exception.DuplicateResourceException;
+import com.inventory.forecast.DemandForecaster;
 import com.inventory.model.Category;
 import com.inventory.model.Product;
+import com.inventory.model.StockMovement;
 import com.inventory.repository.CategoryRepository;
 import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockMovementRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,7 +42,11 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryTree categoryTree;
     private final NotificationService notificationService;
+    private final StockMovementRepository stockMovementRepository;
+    private final DemandForecaster demandForecaster;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
@@ -38,48 +61,111 @@ public class ProductService {
 
         Product product = mapToEntity(request, category);
         Product savedProduct = productRepository.save(product);
+        categoryRepository.adjustProductCount(category.getId(), 1);
 
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId()));
         log.info("Product created successfully with ID: {}", savedProduct.getId());
-        return mapToResponse(savedProduct);
+        return ProductMapper.toResponse(savedProduct);
     }
 
+    @CoalescedRead
     @Transactional(readOnly = true)
     public ProductResponse getProductById(Long id) {
         log.debug("Fetching product with ID: {}", id);
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return mapToResponse(product);
+        return ProductMapper.toResponse(product);
     }
 
+    @CoalescedRead
     @Transactional(readOnly = true)
     public List<ProductResponse> getAllProducts() {
         log.debug("Fetching all products");
         return productRepository.findAll().stream()
-                .map(this::mapToResponse)
+                .map(ProductMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
+    /** The products with the given ids, in the order asked for; unknown and repeated ids are skipped. */
     @Transactional(readOnly = true)
-    public List<ProductResponse> getProductsByCategory(Long categoryId) {
-        log.debug("Fetching products for category ID: {}", categoryId);
-        return productRepository.findByCategoryId(categoryId).stream()
-                .map(this::mapToResponse)
+    public List<ProductResponse> getProductsByIds(long[] ids) {
+        log.debug("Fetching {} products by ID", ids.length);
+        List<Long> keys = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            keys.add(id);
+        }
+        LongObjectHashMap<Product> found = new LongObjectHashMap<>(ids.length);
+        for (Product product : productRepository.findAllById(keys)) {
+            found.put(product.getId(), product);
+        }
+        List<ProductResponse> products = new ArrayList<>(found.size());
+        LongHashSet seen = new LongHashSet(found.size());
+        for (long id : ids) {
+            Product product = found.get(id);
+            if (product != null && seen.add(id)) {
+                products.add(ProductMapper.toResponse(product));
+            }
+        }
+        return products;
+    }
+
+    @CoalescedRead
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllProducts(List<String> fieldNames) {
+        List<ProductField> fields = parseFields(fieldNames);
+        log.debug("Fetching all products with fields: {}", fields);
+
+        List<Map<String, Object>> products = new ArrayList<>();
+        for (Object[] row : productRepository.findAllProjected(fields)) {
+            Map<String, Object> product = new LinkedHashMap<>(fields.size() * 2);
+            for (int i = 0; i < fields.size(); i++) {
+                product.put(fields.get(i).getFieldName(), row[i]);
+            }
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * Products in a category, or with {@code includeSubcategories} in its
+     * whole subtree. The subtree is one query: a prefix match on the
+     * category path, which the cached tree supplies.
+     */
+    @CoalescedRead
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductsByCategory(Long categoryId, boolean includeSubcategories) {
+        log.debug("Fetching products for category ID: {} (subcategories: {})", categoryId, includeSubcategories);
+        List<Product> products;
+        if (includeSubcategories) {
+            String path = categoryTree.path(categoryId);
+            if (path == null) {
+                // Created on another node since the tree was last read
+                path = categoryRepository.findPathById(categoryId).orElse(null);
+            }
+            products = path != null ? productRepository.findByCategoryPathPrefix(path + "%") : List.of();
+        } else {
+            products = productRepository.findByCategoryId(categoryId);
+        }
+        return products.stream()
+                .map(ProductMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
+    @CoalescedRead
     @Transactional(readOnly = true)
     public List<ProductResponse> searchProducts(String keyword) {
         log.debug("Searching products with keyword: {}", keyword);
         return productRepository.searchProducts(keyword).stream()
-                .map(this::mapToResponse)
+                .map(ProductMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
+    @CoalescedRead
     @Transactional(readOnly = true)
     public List<ProductResponse> getLowStockProducts() {
         log.debug("Fetching low stock products");
         return productRepository.findLowStockProducts().stream()
-                .map(this::mapToResponse)
+                .map(ProductMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
@@ -87,7 +173,7 @@ public class ProductService {
     public ProductResponse updateProduct(Long id, ProductRequest request) {
         log.info("Updating product with ID: {}", id);
 
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
         if (!product.getSku().equals(request.getSku()) && productRepository.existsBySku(request.getSku())) {
@@ -97,22 +183,49 @@ public class ProductService {
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + request.getCategoryId()));
 
+        Long previousCategoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        recordMovement(product, request.getQuantity());
         updateProductFields(product, request, category);
         Product updatedProduct = productRepository.save(product);
+        moveProductCount(previousCategoryId, category.getId());
 
+        eventPublisher.publishEvent(new ProductChangedEvent(updatedProduct.getId()));
         log.info("Product updated successfully with ID: {}", updatedProduct.getId());
-        return mapToResponse(updatedProduct);
+        return ProductMapper.toResponse(updatedProduct);
     }
 
     @Transactional
     public void deleteProduct(Long id) {
         log.info("Deleting product with ID: {}", id);
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         productRepository.delete(product);
+        if (product.getCategory() != null) {
+            categoryRepository.adjustProductCount(product.getCategory().getId(), -1);
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
         log.info("Product deleted successfully with ID: {}", id);
     }
 
+    @Transactional(readOnly = true)
+    public ReorderSuggestion getReorderSuggestion(Long id) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+
+        ReorderSuggestion suggestion = new ReorderSuggestion();
+        suggestion.setProductId(product.getId());
+        suggestion.setSku(product.getSku());
+        suggestion.setCurrentReorderLevel(product.getReorderLevel());
+        DemandForecaster.Forecast forecast = demandForecaster.forecast(id);
+        if (forecast != null) {
+            suggestion.setSuggestedReorderLevel(forecast.getSuggestedReorderLevel());
+            suggestion.setDailyDemand(forecast.getDailyDemand());
+            suggestion.setDemandStdDev(forecast.getDemandStdDev());
+            suggestion.setObservations(forecast.getObservations());
+        }
+        return suggestion;
+    }
+
     @Transactional
     public ProductResponse updateStock(Long id, Integer quantity) {
         log.info("Updating stock for product ID: {} with quantity: {}", id, quantity);
@@ -120,6 +233,7 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
+        recordMovement(product, quantity);
         product.setQuantity(quantity);
 
         // Update status based on stock level
@@ -133,8 +247,60 @@ public class ProductService {
         }
 
         Product updatedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
         log.info("Stock updated successfully for product ID: {}", id);
-        return mapToResponse(updatedProduct);
+        return ProductMapper.toResponse(updatedProduct);
+    }
+
+    // Feeds turnover and dead-stock reporting
+    private void recordMovement(Product product, int newQuantity) {
+        int delta = newQuantity - product.getQuantity();
+        if (delta == 0) {
+            return;
+        }
+        StockMovement movement = new StockMovement();
+        movement.setProduct(product);
+        movement.setQuantityDelta(delta);
+        movement.setQuantityAfter(newQuantity);
+        stockMovementRepository.save(movement);
+        if (delta < 0) {
+            eventPublisher.publishEvent(new StockDecreasedEvent(product.getId(), -delta));
+        }
+    }
+
+    private List<ProductField> parseFields(List<String> fieldNames) {
+        Set<ProductField> fields = new LinkedHashSet<>();
+        for (String fieldName : fieldNames) {
+            String trimmed = fieldName.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            ProductField field = ProductField.fromFieldName(trimmed);
+            if (field == null) {
+                throw new BadRequestException("Unknown product field: " + trimmed);
+            }
+            fields.add(field);
+        }
+        if (fields.isEmpty()) {
+            throw new BadRequestException("At least one product field must be requested");
+        }
+        return new ArrayList<>(fields);
+    }
+
+    // Lower id first, so two products trading categories cannot deadlock on the two rows
+    private void moveProductCount(Long fromCategoryId, Long toCategoryId) {
+        if (Objects.equals(fromCategoryId, toCategoryId)) {
+            return;
+        }
+        if (fromCategoryId == null) {
+            categoryRepository.adjustProductCount(toCategoryId, 1);
+        } else if (fromCategoryId < toCategoryId) {
+            categoryRepository.adjustProductCount(fromCategoryId, -1);
+            categoryRepository.adjustProductCount(toCategoryId, 1);
+        } else {
+            categoryRepository.adjustProductCount(toCategoryId, 1);
+            categoryRepository.adjustProductCount(fromCategoryId, -1);
+        }
     }
 
     // Mapping methods
@@ -161,21 +327,4 @@ public class ProductService {
         product.setCategory(category);
         product.setStatus(request.getStatus());
     }
-
-    private ProductResponse mapToResponse(Product product) {
-        ProductResponse response = new ProductResponse();
-        response.setId(product.getId());
-        response.setSku(product.getSku());
-        response.setName(product.getName());
-        response.setDescription(product.getDescription());
-        response.setPrice(product.getPrice());
-        response.setQuantity(product.getQuantity());
-        response.setReorderLevel(product.getReorderLevel());
-        response.setCategoryId(product.getCategory().getId());
-        response.setCategoryName(product.getCategory().getName());
-        response.setStatus(product.getStatus());
-        response.setCreatedAt(product.getCreatedAt());
-        response.setUpdatedAt(product.getUpdatedAt());
-        return response;
-    }
 }
@@ -1,21 +1,29 @@
 package com.inventory.service;
 
+import com.inventory.dto.PagedResponse;
 import com.inventory.dto.UserRequest;
 import com.inventory.dto.UserResponse;
+import com.inventory.exception.BadRequestException;
 import com.inventory.exception.DuplicateResourceException;
 import com.inventory.exception.ResourceNotFoundException;
 import com.inventory.model.Role;
 import com.inventory.model.User;
-import com.inventory.repository.RoleRepository;
 import com.inventory.repository.UserRepository;
+import com.inventory.repository.UserSpecifications;
+import com.inventory.security.RoleRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -24,9 +32,12 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UserService {
 
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "username", "email", "createdAt");
+
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
+    private final AuthTokenService authTokenService;
 
     @Transactional
     public UserResponse createUser(UserRequest request) {
@@ -46,19 +57,11 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setFullName(request.getFullName());
 
-        Set<Role> roles = new HashSet<>();
         if (request.getRoles() == null || request.getRoles().isEmpty()) {
-            Role userRole = roleRepository.findByName(Role.RoleName.ROLE_USER)
-                    .orElseThrow(() -> new ResourceNotFoundException("Role not found"));
-            roles.add(userRole);
+            user.setRoles(new HashSet<>(Set.of(roleRegistry.getRole(Role.RoleName.ROLE_USER))));
         } else {
-            for (String roleName : request.getRoles()) {
-                Role role = roleRepository.findByName(Role.RoleName.valueOf(roleName))
-                        .orElseThrow(() -> new ResourceNotFoundException("Role not found: " + roleName));
-                roles.add(role);
-            }
+            user.setRoles(roleRegistry.resolve(request.getRoles()));
         }
-        user.setRoles(roles);
 
         User savedUser = userRepository.save(user);
         log.info("User created successfully with ID: {}", savedUser.getId());
@@ -74,11 +77,25 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
-    public List<UserResponse> getAllUsers() {
-        log.debug("Fetching all users");
-        return userRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public PagedResponse<UserResponse> getUsers(String role, Boolean enabled, String usernamePrefix,
+                                                Pageable pageable) {
+        log.debug("Fetching users: role={}, enabled={}, usernamePrefix={}, page={}",
+                role, enabled, usernamePrefix, pageable);
+
+        Specification<User> spec = Specification.where(null);
+        if (StringUtils.hasText(role)) {
+            spec = spec.and(UserSpecifications.hasRole(roleRegistry.parseRoleName(role)));
+        }
+        if (enabled != null) {
+            spec = spec.and(UserSpecifications.isEnabled(enabled));
+        }
+        if (StringUtils.hasText(usernamePrefix)) {
+            spec = spec.and(UserSpecifications.usernameStartsWith(usernamePrefix));
+        }
+
+        Page<UserResponse> page = userRepository.findAll(spec, withStableSort(pageable))
+                .map(this::mapToResponse);
+        return PagedResponse.of(page);
     }
 
     @Transactional
@@ -95,8 +112,20 @@ public class UserService {
         user.setEmail(request.getEmail());
         user.setFullName(request.getFullName());
 
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+        // Access tokens carry roles, so both changes must cut off issued tokens
+        if (request.getRoles() != null && !request.getRoles().isEmpty()) {
+            Set<Role> roles = roleRegistry.resolve(request.getRoles());
+            if (!roles.equals(user.getRoles())) {
+                user.setRoles(roles);
+                authTokenService.revokeAccessTokens(user);
+            }
+        }
+
+        // The request always carries a password; only an actual change ends sessions
+        if (request.getPassword() != null && !request.getPassword().isEmpty()
+                && !passwordEncoder.matches(request.getPassword(), user.getPassword())) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
+            authTokenService.revokeAllSessions(user);
         }
 
         User updatedUser = userRepository.save(user);
@@ -109,10 +138,25 @@ public class UserService {
         log.info("Deleting user with ID: {}", id);
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        authTokenService.deleteAllFor(user);
         userRepository.delete(user);
         log.info("User deleted successfully with ID: {}", id);
     }
 
+    // Offset paging needs a total order, so ties are broken by id
+    private Pageable withStableSort(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_FIELDS.contains(order.getProperty())) {
+                throw new BadRequestException("Cannot sort users by: " + order.getProperty());
+            }
+        }
+        if (pageable.getSort().getOrderFor("id") != null) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().and(Sort.by("id")));
+    }
+
     private UserResponse mapToResponse(User user) {
         UserResponse response = new UserResponse();
         response.setId(user.getId());
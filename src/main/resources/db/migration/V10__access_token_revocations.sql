@@ -0,0 +1,11 @@
+-- Revocations the reactive read application has to see as well; rows are
+-- purged once no token they cover can still be valid.
+CREATE TABLE access_token_revocations (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username             VARCHAR(255),
+    token_id             VARCHAR(64),
+    issued_before_millis BIGINT,
+    expires_at_millis    BIGINT NOT NULL
+);
+
+CREATE INDEX idx_access_token_revocations_expires_at ON access_token_revocations (expires_at_millis);
@@ -0,0 +1,14 @@
+-- Seed data carried over from db/init.sql
+INSERT INTO roles (name, description) VALUES
+('ROLE_USER', 'Standard user with read access to view products and categories'),
+('ROLE_MANAGER', 'Manager with read/write access to manage inventory'),
+('ROLE_ADMIN', 'Administrator with full access to all system features')
+ON CONFLICT DO NOTHING;
+
+INSERT INTO categories (name, description, created_at, updated_at) VALUES
+('Electronics', 'Electronic devices and accessories', NOW(), NOW()),
+('Furniture', 'Office and home furniture', NOW(), NOW()),
+('Stationery', 'Office supplies and stationery items', NOW(), NOW()),
+('Hardware', 'Computer hardware and components', NOW(), NOW()),
+('Software', 'Software licenses and applications', NOW(), NOW())
+ON CONFLICT DO NOTHING;
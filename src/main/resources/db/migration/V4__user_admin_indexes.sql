@@ -0,0 +1,8 @@
+-- Username prefix search (LIKE 'abc%') regardless of the database collation
+CREATE INDEX idx_users_username_pattern ON users (username text_pattern_ops);
+
+-- Disabled accounts are rare; keep the index small
+CREATE INDEX idx_users_disabled ON users (id) WHERE enabled = false;
+
+-- The primary key leads with user_id; filtering users by role needs role_id first
+CREATE INDEX idx_user_roles_role_id ON user_roles (role_id, user_id);
@@ -0,0 +1,13 @@
+CREATE TABLE stock_movements (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id     BIGINT       NOT NULL REFERENCES products (id) ON DELETE CASCADE,
+    quantity_delta INTEGER      NOT NULL,
+    quantity_after INTEGER      NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL
+);
+
+-- Outbound movements only: turnover scans a time window, dead stock probes per product
+CREATE INDEX idx_stock_movements_out_time ON stock_movements (created_at, product_id)
+    INCLUDE (quantity_delta) WHERE quantity_delta < 0;
+CREATE INDEX idx_stock_movements_out_product ON stock_movements (product_id, created_at)
+    WHERE quantity_delta < 0;
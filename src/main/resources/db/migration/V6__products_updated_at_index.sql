@@ -0,0 +1,2 @@
+-- Keyset order for the incremental ("changed since last export") product export
+CREATE INDEX idx_products_updated_at_id ON products (updated_at, id);
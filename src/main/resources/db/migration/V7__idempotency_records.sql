@@ -0,0 +1,11 @@
+CREATE TABLE idempotency_records (
+    idempotency_key VARCHAR(320) PRIMARY KEY,
+    fingerprint     VARCHAR(64)  NOT NULL,
+    status_code     INTEGER,
+    content_type    VARCHAR(100),
+    body            BYTEA,
+    created_at      TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_idempotency_records_expires_at ON idempotency_records (expires_at);
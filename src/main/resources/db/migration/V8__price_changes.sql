@@ -0,0 +1,25 @@
+CREATE TABLE price_change_runs (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    rule          TEXT         NOT NULL,
+    status        VARCHAR(20)  NOT NULL,
+    created_by    VARCHAR(255) NOT NULL,
+    created_at    TIMESTAMP(6) NOT NULL,
+    updated_at    TIMESTAMP(6) NOT NULL,
+    completed_at  TIMESTAMP(6),
+    changed_rows  BIGINT       NOT NULL,
+    skipped_rows  BIGINT       NOT NULL,
+    reverted_by   VARCHAR(255),
+    reverted_at   TIMESTAMP(6),
+    restored_rows BIGINT       NOT NULL,
+    error         VARCHAR(1000)
+);
+
+-- One row per product a run changed, written in the same transaction as the
+-- price. No foreign key to products, so the history outlives deleted products.
+CREATE TABLE price_change_log (
+    run_id     BIGINT         NOT NULL REFERENCES price_change_runs (id) ON DELETE CASCADE,
+    product_id BIGINT         NOT NULL,
+    old_price  NUMERIC(38, 2) NOT NULL,
+    new_price  NUMERIC(38, 2) NOT NULL,
+    PRIMARY KEY (run_id, product_id)
+);
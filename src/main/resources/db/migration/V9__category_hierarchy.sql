@@ -0,0 +1,18 @@
+-- Categories form a tree. path lists the ids from the root down to the
+-- category itself ('/1/5/12/'), so a subtree is one prefix range of path.
+-- product_count counts the products directly in the category; totals for a
+-- subtree add up those of its categories.
+ALTER TABLE categories ADD COLUMN parent_id BIGINT REFERENCES categories (id);
+ALTER TABLE categories ADD COLUMN path VARCHAR(255) COLLATE "C";
+ALTER TABLE categories ADD COLUMN depth INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE categories ADD COLUMN product_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE categories c
+SET path          = '/' || c.id || '/',
+    product_count = (SELECT COUNT(*) FROM products p WHERE p.category_id = c.id);
+
+ALTER TABLE categories ALTER COLUMN path SET NOT NULL;
+
+-- "C" collation orders by bytes, so LIKE '/1/5/%' is a range scan on this index
+CREATE INDEX idx_categories_path ON categories (path);
+CREATE INDEX idx_categories_parent_id ON categories (parent_id);
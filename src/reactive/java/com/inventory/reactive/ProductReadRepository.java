@@ -0,0 +1,95 @@
+package com.inventory.reactive;
+
+import com.inventory.model.Category;
+import com.inventory.model.Product;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Product reads over R2DBC. Rows are mapped onto the JPA entity classes (used
+ * here as plain objects) so the servlet mapping to {@code ProductResponse}
+ * applies unchanged. Multi-row queries fetch {@code fetch-size} rows per round
+ * trip and only as fast as the subscriber requests them, so a slow client
+ * holds back the database cursor instead of filling memory.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ProductReadRepository {
+
+    private static final String SELECT = """
+            SELECT p.id, p.sku, p.name, p.description, p.price, p.quantity, p.reorder_level, p.status,
+                   p.created_at, p.updated_at, c.id AS category_id, c.name AS category_name
+            FROM products p
+            LEFT JOIN categories c ON c.id = p.category_id
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ProductReadRepository(DatabaseClient databaseClient,
+                                 @Value("${inventory.reactive.fetch-size:256}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Mono<Product> findById(Long id) {
+        return databaseClient.sql(SELECT + "WHERE p.id = :id")
+                .bind("id", id)
+                .map(ProductReadRepository::toProduct)
+                .one();
+    }
+
+    public Flux<Product> findAll() {
+        return databaseClient.sql(SELECT + "ORDER BY p.id")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ProductReadRepository::toProduct)
+                .all();
+    }
+
+    public Flux<Product> findByCategoryId(Long categoryId) {
+        return databaseClient.sql(SELECT + "WHERE p.category_id = :categoryId ORDER BY p.id")
+                .bind("categoryId", categoryId)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ProductReadRepository::toProduct)
+                .all();
+    }
+
+    // Same matching as ProductRepository.searchProducts
+    public Flux<Product> search(String keyword) {
+        return databaseClient.sql(SELECT
+                        + "WHERE LOWER(p.name) LIKE :pattern OR LOWER(p.description) LIKE :pattern ORDER BY p.id")
+                .bind("pattern", "%" + keyword.toLowerCase(Locale.ROOT) + "%")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ProductReadRepository::toProduct)
+                .all();
+    }
+
+    private static Product toProduct(Readable row) {
+        Category category = new Category();
+        category.setId(row.get("category_id", Long.class));
+        category.setName(row.get("category_name", String.class));
+
+        Product product = new Product();
+        product.setId(row.get("id", Long.class));
+        product.setSku(row.get("sku", String.class));
+        product.setName(row.get("name", String.class));
+        product.setDescription(row.get("description", String.class));
+        product.setPrice(row.get("price", BigDecimal.class));
+        product.setQuantity(row.get("quantity", Integer.class));
+        product.setReorderLevel(row.get("reorder_level", Integer.class));
+        product.setStatus(row.get("status", String.class));
+        product.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        product.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        product.setCategory(category);
+        return product;
+    }
+}
@@ -0,0 +1,47 @@
+package com.inventory.reactive;
+
+import com.inventory.exception.ErrorLogLimiter;
+import com.inventory.security.JwtTokenProvider;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Read-only WebFlux + R2DBC deployment of the product read endpoints. It runs
+ * as its own process next to the servlet application, usually behind the same
+ * load balancer with GET /api/products routed here, and accepts the access
+ * tokens the servlet application issues.
+ *
+ * <p>Only this package is scanned, and nothing from the JDBC/JPA stack is
+ * started. Every bean here is conditional on a reactive web application, so
+ * the servlet application skips the package when it scans {@code com.inventory}.
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        FlywayAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class
+})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import({JwtTokenProvider.class, ErrorLogLimiter.class})
+public class ReactiveCatalogApplication {
+
+    // Tomcat is on the class path for the servlet application and would otherwise be preferred
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveCatalogApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+}
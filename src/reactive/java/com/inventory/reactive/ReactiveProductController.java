@@ -0,0 +1,58 @@
+package com.inventory.reactive;
+
+import com.inventory.dto.ProductResponse;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.service.ProductMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of the read endpoints in {@code ProductController},
+ * returning the same documents. Lists are written as they are read, either as
+ * one JSON array or, with {@code Accept: application/x-ndjson}, one product
+ * per line.
+ */
+@RestController
+@RequestMapping("/products")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductController {
+
+    private final ProductReadRepository productReadRepository;
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
+    public Mono<ProductResponse> getProductById(@PathVariable Long id) {
+        return productReadRepository.findById(id)
+                .map(ProductMapper::toResponse)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Product not found with id: " + id)));
+    }
+
+    @GetMapping(params = "!fields", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
+    public Flux<ProductResponse> getAllProducts() {
+        return productReadRepository.findAll().map(ProductMapper::toResponse);
+    }
+
+    @GetMapping(value = "/category/{categoryId}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
+    public Flux<ProductResponse> getProductsByCategory(@PathVariable Long categoryId) {
+        return productReadRepository.findByCategoryId(categoryId).map(ProductMapper::toResponse);
+    }
+
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'MANAGER')")
+    public Flux<ProductResponse> searchProducts(@RequestParam String keyword) {
+        return productReadRepository.search(keyword).map(ProductMapper::toResponse);
+    }
+}
@@ -0,0 +1,73 @@
+package com.inventory.reactive;
+
+import com.inventory.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.server.WebFilter;
+
+/**
+ * Same rules as the servlet application: stateless bearer tokens, the roles
+ * claim trusted for the token's lifetime, and per-endpoint role checks with
+ * {@code @PreAuthorize}. Revocations come from the servlet application
+ * through {@link SharedTokenRevocations}.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtTokenProvider tokenProvider,
+                                                         SharedTokenRevocations revocations) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exception -> exception
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers("/actuator/health").permitAll()
+                        .anyExchange().authenticated())
+                .addFilterAt(bearerTokenFilter(tokenProvider, revocations), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    // Token parsing and the revocation check are CPU-only, so they run on the event loop
+    private static WebFilter bearerTokenFilter(JwtTokenProvider tokenProvider, SharedTokenRevocations revocations) {
+        return (exchange, chain) -> {
+            String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (header == null || !header.startsWith(BEARER_PREFIX)) {
+                return chain.filter(exchange);
+            }
+            Claims claims = tokenProvider.parseClaims(header.substring(BEARER_PREFIX.length()));
+            if (claims == null || revocations.isRevoked(claims.getId(), claims.getSubject(),
+                    claims.getIssuedAt().getTime(), claims.getExpiration().getTime())) {
+                return chain.filter(exchange);
+            }
+            String roles = claims.get(JwtTokenProvider.ROLES_CLAIM, String.class);
+            UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                    claims.getSubject(), null, AuthorityUtils.commaSeparatedStringToAuthorityList(roles));
+            return chain.filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.inventory.reactive;
+
+import com.inventory.security.TokenRevocationList;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * The servlet application's revocations, read from
+ * {@code access_token_revocations} every {@code revocation-poll} and checked
+ * in memory. The table only holds revocations of tokens that have not
+ * expired, so each poll reloads all of it into a fresh list and swaps it in.
+ * A revocation takes effect here up to one poll later than in the servlet
+ * application.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class SharedTokenRevocations {
+
+    private static final String SELECT = """
+            SELECT username, token_id, issued_before_millis, expires_at_millis
+            FROM access_token_revocations
+            WHERE expires_at_millis > :now
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final long accessTokenTtlMillis;
+    private final Duration pollInterval;
+    private volatile TokenRevocationList revocations;
+    private Disposable polling;
+
+    public SharedTokenRevocations(DatabaseClient databaseClient,
+                                  @Value("${jwt.expiration}") long accessTokenTtlMillis,
+                                  @Value("${inventory.reactive.revocation-poll:2000}") long pollMillis) {
+        this.databaseClient = databaseClient;
+        this.accessTokenTtlMillis = accessTokenTtlMillis;
+        this.pollInterval = Duration.ofMillis(pollMillis);
+        this.revocations = new TokenRevocationList(accessTokenTtlMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        // A failed poll keeps the previous list until the next one succeeds
+        polling = Flux.interval(Duration.ZERO, pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> load().onErrorResume(e -> {
+                    log.warn("Could not reload access token revocations: {}", e.toString());
+                    return Mono.empty();
+                }))
+                .subscribe(loaded -> revocations = loaded);
+    }
+
+    @PreDestroy
+    public void stop() {
+        polling.dispose();
+    }
+
+    public boolean isRevoked(String tokenId, String username, long issuedAtMillis, long expiresAtMillis) {
+        return revocations.isRevoked(tokenId, username, issuedAtMillis, expiresAtMillis);
+    }
+
+    private Mono<TokenRevocationList> load() {
+        return databaseClient.sql(SELECT)
+                .bind("now", System.currentTimeMillis())
+                .fetch().all()
+                .collect(() -> new TokenRevocationList(accessTokenTtlMillis), (list, row) -> {
+                    long expiresAt = ((Number) row.get("expires_at_millis")).longValue();
+                    String tokenId = (String) row.get("token_id");
+                    if (tokenId != null) {
+                        list.revoke(tokenId, expiresAt);
+                    }
+                    String username = (String) row.get("username");
+                    Number issuedBefore = (Number) row.get("issued_before_millis");
+                    if (username != null && issuedBefore != null) {
+                        list.revokeAllFor(username, issuedBefore.longValue());
+                    }
+                });
+    }
+}
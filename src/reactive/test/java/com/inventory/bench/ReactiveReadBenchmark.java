@@ -0,0 +1,212 @@
+package com.inventory.bench;
+
+import com.inventory.InventoryManagementSystemApplication;
+import com.inventory.reactive.ReactiveCatalogApplication;
+import com.inventory.security.JwtTokenProvider;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Servlet + JPA versus WebFlux + R2DBC for {@code GET /products/{id}} under
+ * many concurrent clients. Each application is started in turn in this JVM;
+ * {@code bench.clients} clients (default 10,000), each on its own HTTP
+ * connection, send {@code bench.requests} sequential requests for random
+ * products. Reported per stack: p50/p99/max latency, failed requests, and the
+ * peak number of database connections and JVM threads in use.
+ *
+ * <p>Point it at PostgreSQL with {@code -Dbench.db=//host:5432/db}
+ * ({@code bench.db.username}, {@code bench.db.password}); both pools are
+ * capped at {@code bench.pool} (default 20) connections. Without it the run
+ * uses in-memory H2. H2 executes queries on the calling thread even through
+ * R2DBC, so H2 numbers only check the harness.
+ *
+ * <p>Skipped unless {@code bench} is set:
+ * {@code mvn -Preactive test -Dtest=ReactiveReadBenchmark -Dbench=true}.
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class ReactiveReadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 10_000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("bench.requests", 5);
+    private static final int PRODUCTS = Integer.getInteger("bench.products", 10_000);
+    private static final int POOL_SIZE = Integer.getInteger("bench.pool", 20);
+    private static final String DB = System.getProperty("bench.db");
+
+    @Test
+    void servletVersusReactive() {
+        String token;
+        try (ConfigurableApplicationContext servlet = startServlet()) {
+            seed(servlet.getBean(JdbcTemplate.class));
+            token = servlet.getBean(JwtTokenProvider.class).generateToken("bench", List.of("ROLE_USER"));
+            HikariDataSource dataSource = servlet.getBean(HikariDataSource.class);
+            run("servlet", port(servlet), token, () -> dataSource.getHikariPoolMXBean().getActiveConnections());
+        }
+        try (ConfigurableApplicationContext reactive = startReactive()) {
+            ConnectionPool pool = reactive.getBean(ConnectionPool.class);
+            run("reactive", port(reactive), token, () -> pool.getMetrics().map(m -> m.acquiredSize()).orElse(-1));
+        }
+    }
+
+    private static ConfigurableApplicationContext startServlet() {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.hibernate.ddl-auto=" + (DB == null ? "create" : "update"),
+                "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "security.admission.enabled=false",
+                "inventory.db-limiter.enabled=false",
+                "logging.level.com.inventory=WARN",
+                "logging.level.org.springframework.security=WARN"));
+        if (DB == null) {
+            properties.addAll(List.of(
+                    "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                    "spring.datasource.driver-class-name=org.h2.Driver",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.password=",
+                    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+        } else {
+            properties.addAll(List.of(
+                    "spring.datasource.url=jdbc:postgresql:" + DB,
+                    "spring.datasource.username=" + System.getProperty("bench.db.username", "postgres"),
+                    "spring.datasource.password=" + System.getProperty("bench.db.password", "postgres")));
+        }
+        return new SpringApplicationBuilder(InventoryManagementSystemApplication.class)
+                .run(asArguments(properties));
+    }
+
+    private static ConfigurableApplicationContext startReactive() {
+        String url = DB == null
+                ? "r2dbc:h2:mem:///bench?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"
+                : "r2dbc:postgresql:" + DB;
+        return new SpringApplicationBuilder(ReactiveCatalogApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(asArguments(List.of(
+                        "server.port=0",
+                        "spring.r2dbc.url=" + url,
+                        "spring.r2dbc.username=" + (DB == null ? "sa" : System.getProperty("bench.db.username", "postgres")),
+                        "spring.r2dbc.password=" + (DB == null ? "" : System.getProperty("bench.db.password", "postgres")),
+                        "spring.r2dbc.pool.initial-size=" + POOL_SIZE,
+                        "spring.r2dbc.pool.max-size=" + POOL_SIZE,
+                        "spring.r2dbc.pool.max-acquire-time=30s")));
+    }
+
+    // Command line arguments, so they win over application.yml
+    private static String[] asArguments(List<String> properties) {
+        return properties.stream().map(property -> "--" + property).toArray(String[]::new);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+        if (existing != null && existing >= PRODUCTS) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO categories (name, description, created_at, updated_at) "
+                + "VALUES ('Bench', 'benchmark data', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        Long categoryId = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Bench'", Long.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            rows.add(new Object[] {"BENCH-" + i, "Bench product " + i, categoryId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (sku, name, description, price, quantity, reorder_level, "
+                + "category_id, status, created_at, updated_at) "
+                + "VALUES (?, ?, 'benchmark', 9.99, 100, 10, ?, 'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", rows);
+    }
+
+    private static void run(String label, int port, String token, IntSupplier connectionsInUse) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        AtomicInteger peakConnections = new AtomicInteger();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakConnections.accumulateAndGet(connectionsInUse.getAsInt(), Math::max),
+                0, 5, TimeUnit.MILLISECONDS);
+
+        ConnectionProvider connections = ConnectionProvider.builder("bench-" + label)
+                .maxConnections(CLIENTS)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        HttpClient client = HttpClient.create(connections)
+                .baseUrl("http://localhost:" + port + "/api")
+                .headers(headers -> headers.set("Authorization", "Bearer " + token))
+                .responseTimeout(Duration.ofSeconds(60));
+
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long begin = System.nanoTime();
+        Flux.range(0, CLIENTS)
+                .flatMap(c -> Flux.range(0, REQUESTS_PER_CLIENT)
+                        .concatMap(i -> timedGet(client, latencies, completed, failed)), CLIENTS)
+                .blockLast();
+        long elapsed = System.nanoTime() - begin;
+
+        sampler.shutdownNow();
+        connections.dispose();
+
+        long[] sorted = Arrays.copyOf(latencies, completed.get());
+        Arrays.sort(sorted);
+        System.out.printf("%-8s %,d requests from %,d clients in %,d ms: p50 %.1f ms, p99 %.1f ms, max %.1f ms, "
+                        + "%,d failed, peak %d DB connections, peak %d JVM threads%n",
+                label, latencies.length, CLIENTS, elapsed / 1_000_000,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0),
+                failed.get(), peakConnections.get(), threads.getPeakThreadCount());
+    }
+
+    private static Mono<Void> timedGet(HttpClient client, long[] latencies, AtomicInteger completed,
+                                       AtomicInteger failed) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            long id = 1 + ThreadLocalRandom.current().nextInt(PRODUCTS);
+            return client.get().uri("/products/" + id)
+                    .responseSingle((response, body) -> body.asByteArray().thenReturn(response.status().code()))
+                    .doOnNext(status -> {
+                        if (status == 200) {
+                            latencies[completed.getAndIncrement()] = System.nanoTime() - start;
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    })
+                    .onErrorResume(e -> {
+                        failed.incrementAndGet();
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
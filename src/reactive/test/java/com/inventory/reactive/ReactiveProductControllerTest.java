@@ -0,0 +1,186 @@
+package com.inventory.reactive;
+
+import com.inventory.dto.ProductResponse;
+import com.inventory.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ReactiveCatalogApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive-catalog?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "spring.r2dbc.username=sa",
+                "spring.r2dbc.password=",
+                "inventory.reactive.fetch-size=2",
+                "inventory.reactive.revocation-poll=50"
+        })
+@ActiveProfiles("reactive")
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        for (String sql : List.of(
+                "DROP TABLE IF EXISTS products",
+                "DROP TABLE IF EXISTS categories",
+                """
+                CREATE TABLE IF NOT EXISTS access_token_revocations (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    username VARCHAR(255), token_id VARCHAR(64), issued_before_millis BIGINT,
+                    expires_at_millis BIGINT NOT NULL)
+                """,
+                "DELETE FROM access_token_revocations",
+                "CREATE TABLE categories (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL)",
+                """
+                CREATE TABLE products (id BIGINT PRIMARY KEY, sku VARCHAR(255) NOT NULL, name VARCHAR(255) NOT NULL,
+                    description VARCHAR(1000), price NUMERIC(38, 2) NOT NULL, quantity INTEGER NOT NULL,
+                    reorder_level INTEGER NOT NULL, category_id BIGINT REFERENCES categories (id),
+                    status VARCHAR(255) NOT NULL, created_at TIMESTAMP(6) NOT NULL, updated_at TIMESTAMP(6) NOT NULL)
+                """,
+                "INSERT INTO categories VALUES (1, 'Tools'), (2, 'Garden')",
+                """
+                INSERT INTO products VALUES
+                    (1, 'HAM-1', 'Claw Hammer', 'Steel', 19.90, 12, 5, 1, 'ACTIVE', TIMESTAMP '2024-01-01 10:00:00', TIMESTAMP '2024-01-02 10:00:00'),
+                    (2, 'SAW-1', 'Hand Saw', NULL, 24.50, 3, 5, 1, 'ACTIVE', TIMESTAMP '2024-01-01 10:00:00', TIMESTAMP '2024-01-01 10:00:00'),
+                    (3, 'HOS-1', 'Garden Hose', 'Rubber, 20 m', 31.00, 40, 10, 2, 'ACTIVE', TIMESTAMP '2024-01-01 10:00:00', TIMESTAMP '2024-01-01 10:00:00'),
+                    (4, 'TAP-1', 'Tape', NULL, 2.50, 100, 10, NULL, 'ACTIVE', TIMESTAMP '2024-01-01 10:00:00', TIMESTAMP '2024-01-01 10:00:00')
+                """)) {
+            databaseClient.sql(sql).then().block();
+        }
+    }
+
+    @Test
+    void getProductById_ReturnsSameDocumentAsServletApi() {
+        // Act
+        ProductResponse product = get("/products/1", "ROLE_USER")
+                .expectStatus().isOk()
+                .expectBody(ProductResponse.class).returnResult().getResponseBody();
+
+        // Assert
+        assertNotNull(product);
+        assertEquals("HAM-1", product.getSku());
+        assertEquals(0, product.getPrice().compareTo(new java.math.BigDecimal("19.90")));
+        assertEquals(1L, product.getCategoryId());
+        assertEquals("Tools", product.getCategoryName());
+        assertEquals(java.time.LocalDateTime.of(2024, 1, 2, 10, 0), product.getUpdatedAt());
+    }
+
+    @Test
+    void unknownProduct_Returns404ErrorResponse() {
+        get("/products/99", "ROLE_USER")
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("Product not found with id: 99")
+                .jsonPath("$.path").isEqualTo("/api/products/99");
+    }
+
+    @Test
+    void listsStreamAsNdjsonAcrossFetches() {
+        // Act
+        List<ProductResponse> all = webTestClient.get().uri("/products")
+                .header("Authorization", "Bearer " + token("ROLE_MANAGER"))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ProductResponse.class)
+                .getResponseBody().collectList().block();
+        List<ProductResponse> tools = get("/products/category/1", "ROLE_USER")
+                .expectStatus().isOk()
+                .expectBodyList(ProductResponse.class).returnResult().getResponseBody();
+        List<ProductResponse> found = get("/products/search?keyword=GARDEN", "ROLE_USER")
+                .expectStatus().isOk()
+                .expectBodyList(ProductResponse.class).returnResult().getResponseBody();
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L), all.stream().map(ProductResponse::getId).toList());
+        assertEquals(List.of(1L, 2L), tools.stream().map(ProductResponse::getId).toList());
+        assertEquals(List.of(3L), found.stream().map(ProductResponse::getId).toList());
+    }
+
+    @Test
+    void missingTokenOrRole_IsRejected() {
+        webTestClient.get().uri("/products/1").exchange().expectStatus().isUnauthorized();
+        webTestClient.get().uri("/products/1").header("Authorization", "Bearer not-a-token")
+                .exchange().expectStatus().isUnauthorized();
+        get("/products/1", "ROLE_NONE").expectStatus().isForbidden();
+    }
+
+    @Test
+    void productWithoutCategory_IsStillReturned() {
+        // Act
+        ProductResponse product = get("/products/4", "ROLE_USER")
+                .expectStatus().isOk()
+                .expectBody(ProductResponse.class).returnResult().getResponseBody();
+
+        // Assert
+        assertNotNull(product);
+        assertEquals("TAP-1", product.getSku());
+        assertNull(product.getCategoryId());
+    }
+
+    @Test
+    void tokensRevokedByTheServletApplication_AreRejectedAfterTheNextPoll() throws InterruptedException {
+        // Arrange
+        String loggedOut = tokenProvider.generateToken("reader", List.of("ROLE_USER"));
+        String demoted = tokenProvider.generateToken("demoted", List.of("ROLE_MANAGER"));
+        Claims claims = tokenProvider.parseClaims(loggedOut);
+        databaseClient.sql("INSERT INTO access_token_revocations (token_id, expires_at_millis) VALUES (:id, :exp)")
+                .bind("id", claims.getId())
+                .bind("exp", claims.getExpiration().getTime())
+                .then().block();
+        databaseClient.sql("INSERT INTO access_token_revocations (username, issued_before_millis, expires_at_millis) "
+                        + "VALUES ('demoted', :before, :exp)")
+                .bind("before", System.currentTimeMillis() + 1000)
+                .bind("exp", claims.getExpiration().getTime() + 1000)
+                .then().block();
+
+        // Act
+        boolean rejected = false;
+        for (int attempt = 0; attempt < 100 && !rejected; attempt++) {
+            Thread.sleep(50);
+            rejected = status(loggedOut) == 401 && status(demoted) == 401;
+        }
+
+        // Assert
+        assertTrue(rejected);
+        get("/products/1", "ROLE_USER").expectStatus().isOk();
+    }
+
+    private int status(String token) {
+        return webTestClient.get().uri("/products/1")
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .returnResult(Void.class).getStatus().value();
+    }
+
+    private WebTestClient.ResponseSpec get(String uri, String role) {
+        return webTestClient.get().uri(uri)
+                .header("Authorization", "Bearer " + token(role))
+                .exchange();
+    }
+
+    private String token(String role) {
+        return tokenProvider.generateToken("reader", List.of(role));
+    }
+}
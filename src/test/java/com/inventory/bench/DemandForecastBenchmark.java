@@ -0,0 +1,45 @@
+package com.inventory.bench;
+
+import com.inventory.forecast.DemandForecaster;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Recompute time of the demand forecast over one million products. Skipped
+ * unless {@code bench} is set:
+ * {@code mvn test -Dtest=DemandForecastBenchmark -Dbench=true}.
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class DemandForecastBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int ROUNDS = 20;
+
+    @Test
+    void recomputeOneMillionProducts() {
+        DemandForecaster forecaster = new DemandForecaster(null, null, 0.1, 7, 1.65, 24, false);
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (long id = 1; id <= PRODUCTS; id++) {
+                forecaster.record(id, random.nextInt(50));
+            }
+            long start = System.nanoTime();
+            forecaster.recompute(1.0 / 24);
+            long elapsed = System.nanoTime() - start;
+            if (round >= ROUNDS / 2) {
+                best = Math.min(best, elapsed);
+                total += elapsed;
+            }
+        }
+        assertNotNull(forecaster.forecast(PRODUCTS));
+        System.out.printf("Forecast recompute, %,d products, %d cores: best %.1f ms, mean %.1f ms%n",
+                PRODUCTS, Runtime.getRuntime().availableProcessors(),
+                best / 1e6, total / 1e6 / (ROUNDS - ROUNDS / 2));
+    }
+}
@@ -0,0 +1,101 @@
+package com.inventory.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.inventory.exception.ErrorLogLimiter;
+import com.inventory.exception.ErrorResponseWriter;
+import com.inventory.exception.GlobalExceptionHandler;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.security.JwtAuthenticationEntryPoint;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Single-threaded throughput of the 404 and 401 paths, without a database.
+ * Skipped unless {@code bench} is set:
+ * {@code mvn test -Dtest=ErrorPathBenchmark -Dbench=true}.
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class ErrorPathBenchmark {
+
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(3);
+    private static final long MEASURE_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    @BeforeAll
+    static void useApplicationLogLevel() {
+        // Without a Spring Boot context logback would default to DEBUG
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+    }
+
+    @Test
+    void notFoundThroughput() throws Exception {
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new MissingProductController())
+                .setControllerAdvice(new GlobalExceptionHandler(new ErrorLogLimiter(5)))
+                .build();
+
+        report("404 handler", () -> {
+            int status = mvc.perform(get("/products/42")).andReturn().getResponse().getStatus();
+            assertEquals(404, status);
+        });
+    }
+
+    @Test
+    void unauthorizedThroughput() throws Exception {
+        JwtAuthenticationEntryPoint entryPoint = new JwtAuthenticationEntryPoint(
+                new ErrorResponseWriter(Jackson2ObjectMapperBuilder.json().build()), new ErrorLogLimiter(5));
+        InsufficientAuthenticationException exception =
+                new InsufficientAuthenticationException("Full authentication is required");
+
+        report("401 entry point", () -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/42");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            entryPoint.commence(request, response, exception);
+            assertEquals(401, response.getStatus());
+        });
+    }
+
+    private static void report(String name, Operation operation) throws Exception {
+        run(operation, WARMUP_NANOS);
+        long ops = run(operation, MEASURE_NANOS);
+        System.out.printf("BENCH %-16s %,10.0f ops/s%n", name, ops * 1e9 / MEASURE_NANOS);
+    }
+
+    private static long run(Operation operation, long durationNanos) throws Exception {
+        long deadline = System.nanoTime() + durationNanos;
+        long ops = 0;
+        while (System.nanoTime() < deadline) {
+            operation.run();
+            ops++;
+        }
+        return ops;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+
+    @RestController
+    static class MissingProductController {
+        @GetMapping("/products/{id}")
+        Object getProduct(@PathVariable Long id) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.inventory.bench;
+
+import com.inventory.catalog.FacetCounts;
+import com.inventory.catalog.FacetFilter;
+import com.inventory.catalog.FacetIndex;
+import com.inventory.catalog.PriceBands;
+import com.inventory.dto.ProductFacetQuery;
+import com.inventory.dto.ProductFacetsResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * One faceted query over 1 million products in 200 categories: five
+ * categories, one status, two price bands and in stock, with counts for every
+ * facet value and the first page of 50 ids. The bitmaps of {@link FacetIndex}
+ * against a single pass over the products in plain arrays, which is the
+ * cheapest in-memory form of the {@code GROUP BY} queries. Both give the same
+ * response; the setup checks that before anything is timed.
+ *
+ * <p>Skipped unless {@code bench} is set:
+ * {@code mvn test -Dtest=FacetIndexBenchmark -Dbench=true}.
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+public class FacetIndexBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int CATEGORIES = 200;
+    private static final String[] STATUSES = {"ACTIVE", "LOW_STOCK", "DISCONTINUED"};
+    private static final int PAGE = 50;
+
+    @Test
+    void bitmapsVersusScan() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FacetIndexBenchmark.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .jvmArgs("-Xmx2g")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .build()).run();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        final PriceBands bands = new PriceBands("10,25,50,100,250,500");
+        final FacetIndex index = new FacetIndex(bands);
+        final long[] categoryIds = new long[PRODUCTS];
+        final String[] statuses = new String[PRODUCTS];
+        final long[] priceMinorUnits = new long[PRODUCTS];
+        final int[] quantities = new int[PRODUCTS];
+        FacetFilter filter;
+
+        @Setup
+        public void load() {
+            Random random = new Random(47);
+            for (int i = 0; i < PRODUCTS; i++) {
+                long id = i + 1;
+                categoryIds[i] = 1 + random.nextInt(CATEGORIES);
+                statuses[i] = STATUSES[random.nextInt(10) < 8 ? 0 : 1 + random.nextInt(2)];
+                priceMinorUnits[i] = 100 + random.nextInt(100_000);
+                quantities[i] = random.nextInt(10) == 0 ? 0 : random.nextInt(500);
+                int row = i;
+                index.update(null, new FacetIndex.Faceted() {
+                    public long id() {
+                        return id;
+                    }
+
+                    public long categoryId() {
+                        return categoryIds[row];
+                    }
+
+                    public String status() {
+                        return statuses[row];
+                    }
+
+                    public long priceMinorUnits() {
+                        return priceMinorUnits[row];
+                    }
+
+                    public int quantity() {
+                        return quantities[row];
+                    }
+                });
+            }
+            filter = FacetFilter.resolve(new ProductFacetQuery(List.of(3L, 17L, 42L, 99L, 150L), false,
+                    List.of("ACTIVE"), List.of("10-25", "100-250"), true, 0, PAGE), null, bands);
+            assertEquals(queryBitmaps(this), scanArrays(this));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ProductFacetsResponse bitmaps(Catalog catalog) {
+        return queryBitmaps(catalog);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ProductFacetsResponse scan(Catalog catalog) {
+        return scanArrays(catalog);
+    }
+
+    private static ProductFacetsResponse queryBitmaps(Catalog catalog) {
+        FacetIndex.Result result = catalog.index.query(catalog.filter);
+        List<Long> ids = result.page(0, PAGE);
+        return result.counts().toResponse(result.total(), null, ids.get(ids.size() - 1), id -> "c" + id);
+    }
+
+    private static ProductFacetsResponse scanArrays(Catalog catalog) {
+        FacetFilter filter = catalog.filter;
+        boolean[] categories = new boolean[CATEGORIES + 1];
+        for (long categoryId : filter.categoryIds()) {
+            categories[(int) categoryId] = true;
+        }
+        boolean[] priceBands = new boolean[catalog.bands.count()];
+        for (int band : filter.priceBands()) {
+            priceBands[band] = true;
+        }
+        String status = filter.statuses()[0];
+        boolean inStock = filter.inStock();
+
+        FacetCounts counts = new FacetCounts(catalog.bands);
+        long[] byCategory = new long[CATEGORIES + 1];
+        long[] byStatus = new long[STATUSES.length];
+        long[] byBand = new long[catalog.bands.count()];
+        long[] byStock = new long[2];
+        long total = 0;
+        List<Long> page = new ArrayList<>(PAGE);
+        for (int i = 0; i < PRODUCTS; i++) {
+            int band = catalog.bands.bandOf(catalog.priceMinorUnits[i]);
+            boolean stocked = catalog.quantities[i] > 0;
+            boolean c = categories[(int) catalog.categoryIds[i]];
+            boolean s = catalog.statuses[i].equals(status);
+            boolean b = priceBands[band];
+            boolean q = stocked == inStock;
+            // A product counts for a facet's value when it passes every other facet
+            if (s && b && q) {
+                byCategory[(int) catalog.categoryIds[i]]++;
+            }
+            if (c && b && q) {
+                byStatus[statusIndex(catalog.statuses[i])]++;
+            }
+            if (c && s && q) {
+                byBand[band]++;
+            }
+            if (c && s && b) {
+                byStock[stocked ? 0 : 1]++;
+                if (q) {
+                    total++;
+                    if (page.size() < PAGE) {
+                        page.add(i + 1L);
+                    }
+                }
+            }
+        }
+        for (int category = 1; category <= CATEGORIES; category++) {
+            counts.addCategory(category, byCategory[category]);
+        }
+        for (int s = 0; s < STATUSES.length; s++) {
+            counts.addStatus(STATUSES[s], byStatus[s]);
+        }
+        for (int band = 0; band < byBand.length; band++) {
+            counts.addPriceBand(band, byBand[band]);
+        }
+        counts.addStock(true, byStock[0]);
+        counts.addStock(false, byStock[1]);
+        return counts.toResponse(total, null, page.get(page.size() - 1), id -> "c" + id);
+    }
+
+    private static int statusIndex(String status) {
+        for (int s = 0; s < STATUSES.length; s++) {
+            if (STATUSES[s].equals(status)) {
+                return s;
+            }
+        }
+        throw new IllegalArgumentException(status);
+    }
+}
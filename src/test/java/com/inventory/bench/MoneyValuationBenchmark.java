@@ -0,0 +1,113 @@
+package com.inventory.bench;
+
+import com.inventory.money.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Stock valuation over 10 million rows: price times quantity summed per
+ * category (500 categories), with prices held as {@code BigDecimal} versus
+ * {@link Money} minor units. Both produce the same totals; the setup checks
+ * that before anything is timed.
+ *
+ * <p>Skipped unless {@code bench} is set:
+ * {@code mvn test -Dtest=MoneyValuationBenchmark -Dbench=true}.
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+public class MoneyValuationBenchmark {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 10_000_000);
+    private static final int CATEGORIES = 500;
+
+    @Test
+    void bigDecimalVersusMinorUnits() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoneyValuationBenchmark.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .jvmArgs("-Xmx3g", "-Dbench.rows=" + ROWS)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(3))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(3))
+                .build()).run();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Rows {
+        final BigDecimal[] prices = new BigDecimal[ROWS];
+        final long[] priceMinorUnits = new long[ROWS];
+        final int[] quantities = new int[ROWS];
+        final int[] categories = new int[ROWS];
+
+        @Setup
+        public void load() {
+            Random random = new Random(47);
+            for (int i = 0; i < ROWS; i++) {
+                long cents = 1 + random.nextInt(10_000_000);
+                prices[i] = BigDecimal.valueOf(cents, Money.SCALE);
+                priceMinorUnits[i] = cents;
+                quantities[i] = random.nextInt(1_000);
+                categories[i] = random.nextInt(CATEGORIES);
+            }
+            BigDecimal[] expected = valueWithBigDecimal(this);
+            long[] actual = valueWithMinorUnits(this);
+            for (int c = 0; c < CATEGORIES; c++) {
+                assertEquals(expected[c], Money.toBigDecimal(actual[c]));
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BigDecimal[] bigDecimal(Rows rows) {
+        return valueWithBigDecimal(rows);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long[] minorUnits(Rows rows) {
+        return valueWithMinorUnits(rows);
+    }
+
+    private static BigDecimal[] valueWithBigDecimal(Rows rows) {
+        BigDecimal[] totals = new BigDecimal[CATEGORIES];
+        Arrays.fill(totals, BigDecimal.ZERO.setScale(Money.SCALE));
+        for (int i = 0; i < ROWS; i++) {
+            int category = rows.categories[i];
+            totals[category] = totals[category].add(rows.prices[i].multiply(BigDecimal.valueOf(rows.quantities[i])));
+        }
+        return totals;
+    }
+
+    private static long[] valueWithMinorUnits(Rows rows) {
+        long[] totals = new long[CATEGORIES];
+        for (int i = 0; i < ROWS; i++) {
+            int category = rows.categories[i];
+            totals[category] = Math.addExact(totals[category],
+                    Money.times(rows.priceMinorUnits[i], rows.quantities[i]));
+        }
+        return totals;
+    }
+}
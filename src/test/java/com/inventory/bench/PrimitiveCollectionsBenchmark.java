@@ -0,0 +1,155 @@
+package com.inventory.bench;
+
+import com.inventory.collection.ConcurrentLongBitSet;
+import com.inventory.collection.ConcurrentLongObjectMap;
+import com.inventory.collection.LongHashSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request allocation of the catalog read model's id bookkeeping, boxed
+ * ({@code ConcurrentSkipListMap<Long, ...>}, {@code HashSet<Long>}, as the
+ * model was) against the primitive collections it uses now. A batch lookup
+ * dedupes 100 ids (some repeated), fetches each entry and resolves its
+ * category; the low-stock scan walks the low-stock set and fetches the
+ * entries. Both run over 200,000 products in 500 categories, 2% low on stock.
+ * Look at {@code gc.alloc.rate.norm} (bytes per operation).
+ *
+ * <p>Skipped unless {@code bench} is set:
+ * {@code mvn test -Dtest=PrimitiveCollectionsBenchmark -Dbench=true}.
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+public class PrimitiveCollectionsBenchmark {
+
+    private static final int PRODUCTS = 200_000;
+    private static final int CATEGORIES = 500;
+    private static final int BATCH = 100;
+
+    @Test
+    void boxedVersusPrimitive() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PrimitiveCollectionsBenchmark.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .build()).run();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        final ConcurrentSkipListMap<Long, BoxedEntry> boxedProducts = new ConcurrentSkipListMap<>();
+        final ConcurrentHashMap<Long, String> boxedCategories = new ConcurrentHashMap<>();
+        final Set<Long> boxedLowStock = new ConcurrentSkipListSet<>();
+        final ConcurrentLongObjectMap<Entry> products = new ConcurrentLongObjectMap<>();
+        final ConcurrentLongObjectMap<String> categories = new ConcurrentLongObjectMap<>();
+        final ConcurrentLongBitSet lowStock = new ConcurrentLongBitSet();
+        final long[] batch = new long[BATCH];
+
+        @Setup
+        public void load() {
+            Random random = new Random(46);
+            for (long id = 1; id <= CATEGORIES; id++) {
+                boxedCategories.put(id, "Category " + id);
+                categories.put(id, "Category " + id);
+            }
+            for (long id = 1; id <= PRODUCTS; id++) {
+                long categoryId = 1 + random.nextInt(CATEGORIES);
+                boxedProducts.put(id, new BoxedEntry(id, categoryId));
+                products.put(id, new Entry(id, categoryId));
+                if (random.nextInt(50) == 0) {
+                    boxedLowStock.add(id);
+                    lowStock.add(id);
+                }
+            }
+            for (int i = 0; i < BATCH; i++) {
+                batch[i] = i % 10 == 9 ? batch[i - 1] : 1 + random.nextInt(PRODUCTS);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void batchLookupBoxed(Catalog catalog, Blackhole blackhole) {
+        Set<Long> seen = new HashSet<>(BATCH * 2);
+        for (long id : catalog.batch) {
+            if (seen.add(id)) {
+                BoxedEntry entry = catalog.boxedProducts.get(id);
+                blackhole.consume(catalog.boxedCategories.get(entry.categoryId));
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void batchLookupPrimitive(Catalog catalog, Blackhole blackhole) {
+        LongHashSet seen = new LongHashSet(BATCH);
+        for (long id : catalog.batch) {
+            if (seen.add(id)) {
+                Entry entry = catalog.products.get(id);
+                blackhole.consume(catalog.categories.get(entry.categoryId));
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void lowStockScanBoxed(Catalog catalog, Blackhole blackhole) {
+        for (Long id : catalog.boxedLowStock) {
+            blackhole.consume(catalog.boxedProducts.get(id));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void lowStockScanPrimitive(Catalog catalog, Blackhole blackhole) {
+        catalog.lowStock.forEach(id -> blackhole.consume(catalog.products.get(id)));
+    }
+
+    static final class BoxedEntry {
+        final long id;
+        final Long categoryId;
+
+        BoxedEntry(long id, Long categoryId) {
+            this.id = id;
+            this.categoryId = categoryId;
+        }
+    }
+
+    static final class Entry {
+        final long id;
+        final long categoryId;
+
+        Entry(long id, long categoryId) {
+            this.id = id;
+            this.categoryId = categoryId;
+        }
+    }
+}
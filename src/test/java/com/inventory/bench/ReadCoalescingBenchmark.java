@@ -0,0 +1,97 @@
+package com.inventory.bench;
+
+import com.inventory.concurrency.CoalescedRead;
+import com.inventory.concurrency.ReadCoalescingAspect;
+import com.inventory.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thundering herd on one product: 200 threads repeatedly read the same id
+ * from a fake service that takes 2 ms per query on a pool of 10
+ * connections, with and without coalescing. Skipped unless {@code bench} is set:
+ * {@code mvn test -Dtest=ReadCoalescingBenchmark -Dbench=true}.
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class ReadCoalescingBenchmark {
+
+    private static final int THREADS = 200;
+    private static final int READS_PER_THREAD = 50;
+    private static final int POOL_SIZE = 10;
+    private static final long QUERY_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Test
+    void thunderingHerd() throws Exception {
+        FakeProductService direct = new FakeProductService();
+        run("direct", direct, direct);
+
+        FakeProductService target = new FakeProductService();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ReadCoalescingAspect(registry,
+                new StaticListableBeanFactory().getBeanProvider(ReadYourWritesTracker.class)));
+        run("coalesced", factory.getProxy(), target);
+
+        double leaders = registry.find("inventory.reads.coalesced").tag("role", "leader").counter().count();
+        double followers = registry.find("inventory.reads.coalesced").tag("role", "follower").counter().count();
+        System.out.printf("collapse ratio %.3f (%d leaders, %d followers)%n",
+                followers / (leaders + followers), (long) leaders, (long) followers);
+    }
+
+    private static void run(String label, FakeProductService service, FakeProductService target) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < READS_PER_THREAD; i++) {
+                        service.getProductById(42L);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+
+        int reads = THREADS * READS_PER_THREAD;
+        System.out.printf("%-9s %,d reads in %d ms (%,.0f reads/s), %,d queries%n",
+                label, reads, elapsed / 1_000_000, reads / (elapsed / 1e9), target.queries.get());
+    }
+
+    static class FakeProductService {
+        final AtomicInteger queries = new AtomicInteger();
+        final Semaphore connections = new Semaphore(POOL_SIZE);
+
+        @CoalescedRead
+        public String getProductById(Long id) {
+            queries.incrementAndGet();
+            connections.acquireUninterruptibly();
+            try {
+                LockSupport.parkNanos(QUERY_NANOS);
+            } finally {
+                connections.release();
+            }
+            return "product-" + id;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.inventory.bench;
+
+import com.inventory.InventoryManagementSystemApplication;
+import com.inventory.dto.PriceChangeRunResponse;
+import com.inventory.dto.RepricingPreview;
+import com.inventory.dto.RepricingRule;
+import com.inventory.dto.RepricingRule.Adjustment;
+import com.inventory.pricing.RepricingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * End-to-end repricing runs over {@code bench.products} products (default one
+ * million) in PostgreSQL: preview and apply "+4% on everything in the
+ * category", a SKU_PRICES run over 100,000 SKUs, and reverting both. Times
+ * are wall clock from start to the run's final status.
+ *
+ * <p>Needs PostgreSQL, as the runs do: {@code -Dbench.db=//host:5432/db}
+ * ({@code bench.db.username}, {@code bench.db.password}). Products are seeded
+ * on the first run and left in place. Skipped unless {@code bench} is set:
+ * {@code mvn test -Dtest=RepricingBenchmark -Dbench=true -Dbench.db=//localhost:5432/bench}.
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+@EnabledIfSystemProperty(named = "bench.db", matches = ".+")
+class RepricingBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("bench.products", 1_000_000);
+    private static final int SKU_PRICES = 100_000;
+    private static final String DB = System.getProperty("bench.db");
+
+    @Test
+    void repriceOneMillionProducts() throws InterruptedException {
+        try (ConfigurableApplicationContext context = start()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            RepricingService repricing = context.getBean(RepricingService.class);
+            long categoryId = seed(jdbcTemplate);
+
+            RepricingRule percent = new RepricingRule();
+            percent.setCategoryId(categoryId);
+            percent.setAdjustment(Adjustment.PERCENT);
+            percent.setValue(BigDecimal.valueOf(4));
+            RepricingPreview preview = timed("preview +4%", () -> repricing.preview(percent));
+            assertEquals(PRODUCTS, preview.getMatchedProducts());
+
+            PriceChangeRunResponse run = awaitRun("apply +4%", repricing,
+                    () -> repricing.startRun(percent, "bench"), "COMPLETED");
+            assertEquals(preview.getChangedProducts(), run.getChangedRows());
+
+            Map<String, BigDecimal> prices = new LinkedHashMap<>();
+            for (int i = 0; i < SKU_PRICES; i++) {
+                prices.put("REPRICE-" + (i * (PRODUCTS / SKU_PRICES)), BigDecimal.valueOf(1999 + i % 100, 2));
+            }
+            RepricingRule bySku = new RepricingRule();
+            bySku.setAdjustment(Adjustment.SKU_PRICES);
+            bySku.setPrices(prices);
+            PriceChangeRunResponse skuRun = awaitRun("apply 100k SKU prices", repricing,
+                    () -> repricing.startRun(bySku, "bench"), "COMPLETED");
+
+            // Newest first, so the percent run finds every price it set
+            awaitRun("revert 100k SKU prices", repricing,
+                    () -> repricing.startRevert(skuRun.getId(), "bench"), "REVERTED");
+            PriceChangeRunResponse reverted = awaitRun("revert +4%", repricing,
+                    () -> repricing.startRevert(run.getId(), "bench"), "REVERTED");
+            assertEquals(run.getChangedRows(), reverted.getRestoredRows());
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(InventoryManagementSystemApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:postgresql:" + DB,
+                "--spring.datasource.username=" + System.getProperty("bench.db.username", "postgres"),
+                "--spring.datasource.password=" + System.getProperty("bench.db.password", "postgres"),
+                "--spring.jpa.show-sql=false",
+                "--inventory.reporting.query-timeout=300",
+                "--logging.level.com.inventory=WARN",
+                "--logging.level.com.inventory.pricing=INFO");
+    }
+
+    private static long seed(JdbcTemplate jdbcTemplate) {
+        List<Long> existing = jdbcTemplate.queryForList("SELECT id FROM categories WHERE name = 'Repricing bench'", Long.class);
+        if (!existing.isEmpty()) {
+            return existing.get(0);
+        }
+        jdbcTemplate.update("INSERT INTO categories (name, description, path, created_at, updated_at) "
+                + "VALUES ('Repricing bench', 'benchmark data', '/', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        long categoryId = jdbcTemplate.queryForObject(
+                "SELECT id FROM categories WHERE name = 'Repricing bench'", Long.class);
+        jdbcTemplate.update("UPDATE categories SET path = ?, product_count = ? WHERE id = ?",
+                "/" + categoryId + "/", PRODUCTS, categoryId);
+        jdbcTemplate.update("INSERT INTO products (sku, name, description, price, quantity, reorder_level, "
+                + "category_id, status, created_at, updated_at) "
+                + "SELECT 'REPRICE-' || g, 'Repricing product ' || g, 'benchmark', 1.99 + g % 5000, 100, 10, ?, "
+                + "'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM generate_series(0, ? - 1) g", categoryId, PRODUCTS);
+        jdbcTemplate.execute("VACUUM ANALYZE products");
+        return categoryId;
+    }
+
+    private static <T> T timed(String label, Supplier<T> action) {
+        long start = System.nanoTime();
+        T result = action.get();
+        System.out.printf("%-24s %,8d ms%n", label, (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private static PriceChangeRunResponse awaitRun(String label, RepricingService repricing,
+                                                   Supplier<PriceChangeRunResponse> start, String expectedStatus)
+            throws InterruptedException {
+        long begin = System.nanoTime();
+        PriceChangeRunResponse run = start.get();
+        while (run.getStatus().equals("RUNNING") || run.getStatus().equals("REVERTING")) {
+            Thread.sleep(50);
+            run = repricing.getRun(run.getId());
+        }
+        System.out.printf("%-24s %,8d ms  %,d changed, %,d restored%n", label, (System.nanoTime() - begin) / 1_000_000,
+                run.getChangedRows(), run.getRestoredRows());
+        assertEquals(expectedStatus, run.getStatus(), run.getError());
+        return run;
+    }
+}
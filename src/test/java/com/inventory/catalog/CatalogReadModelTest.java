@@ -0,0 +1,353 @@
+package com.inventory.catalog;
+
+import com.inventory.dto.InventoryValuationReport.CategoryValuation;
+import com.inventory.dto.ProductFacetQuery;
+import com.inventory.dto.ProductFacetsResponse;
+import com.inventory.dto.ProductFacetsResponse.FacetCount;
+import com.inventory.dto.ProductResponse;
+import com.inventory.event.CategoryChangedEvent;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.service.ProductFacetService;
+import com.inventory.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogReadModelTest {
+
+    private static final String URL = "jdbc:h2:mem:catalog;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private CategoryTree categoryTree;
+    private final PriceBands priceBands = new PriceBands("10,25");
+    private CatalogReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        jdbcTemplate.execute("""
+                CREATE TABLE categories (id BIGINT PRIMARY KEY, name VARCHAR(100), description VARCHAR(500),
+                    parent_id BIGINT, path VARCHAR(255), depth INT DEFAULT 0,
+                    created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP, updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP)
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE products (id BIGINT PRIMARY KEY, sku VARCHAR(50), name VARCHAR(200),
+                    description VARCHAR(1000), price DECIMAL(10, 2), quantity INT, reorder_level INT,
+                    status VARCHAR(20), category_id BIGINT,
+                    created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP, updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP)
+                """);
+        jdbcTemplate.update("INSERT INTO categories (id, name, path) VALUES (1, 'Tools', '/1/'), (2, 'Garden', '/2/')");
+        for (long id = 1; id <= 100; id++) {
+            jdbcTemplate.update("INSERT INTO products (id, sku, name, description, price, quantity, reorder_level, "
+                            + "status, category_id) VALUES (?, ?, ?, ?, 9.50, ?, 10, 'ACTIVE', ?)",
+                    id, "SKU-" + id, "Product " + id, id == 42 ? "Claw hammer" : null, id % 10 == 0 ? 5 : 50,
+                    id % 2 + 1);
+        }
+        categoryTree = new CategoryTree(jdbcTemplate);
+        readModel = new CatalogReadModel(jdbcTemplate, categoryTree, priceBands, true, 3, 5000, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void rebuild_LoadsEveryProductInParallelAndIndexesThem() {
+        // Act
+        assertFalse(readModel.isReady());
+        readModel.rebuild();
+
+        // Assert
+        assertTrue(readModel.isReady());
+        List<ProductResponse> all = readModel.findAllProducts();
+        assertEquals(100, all.size());
+        assertEquals(1L, all.get(0).getId());
+        assertEquals(100L, all.get(99).getId());
+        assertEquals("Tools", readModel.findProduct(42).getCategoryName());
+        assertEquals(42L, readModel.findProductBySku("SKU-42").getId());
+        assertEquals(50, readModel.findProductsByCategory(2, false).size());
+        assertEquals(10, readModel.findLowStockProducts().size());
+        assertEquals(100, readModel.findProductsByStatus("ACTIVE").size());
+        assertEquals(List.of(42L), readModel.searchProducts("HAMMER").stream().map(ProductResponse::getId).toList());
+        assertEquals(50, readModel.findCategory(1).getProductCount());
+    }
+
+    @Test
+    void changeEvents_MoveProductsBetweenIndexes() {
+        // Arrange
+        readModel.rebuild();
+
+        // Act
+        jdbcTemplate.update("UPDATE products SET category_id = 1, quantity = 1, sku = 'SKU-7B' WHERE id = 7");
+        readModel.onProductChanged(new ProductChangedEvent(7));
+        jdbcTemplate.update("DELETE FROM products WHERE id = 8");
+        readModel.onProductChanged(new ProductChangedEvent(8));
+
+        // Assert
+        assertEquals(1L, readModel.findProduct(7).getCategoryId());
+        assertNull(readModel.findProductBySku("SKU-7"));
+        assertEquals(7L, readModel.findProductBySku("SKU-7B").getId());
+        assertTrue(readModel.findProductsByCategory(1, false).stream().anyMatch(p -> p.getId() == 7L));
+        assertTrue(readModel.findProductsByCategory(2, false).stream().noneMatch(p -> p.getId() == 7L));
+        assertTrue(readModel.findLowStockProducts().stream().anyMatch(p -> p.getId() == 7L));
+        assertNull(readModel.findProduct(8));
+        assertEquals(50, readModel.findCategory(1).getProductCount());
+        assertEquals(49, readModel.findCategory(2).getProductCount());
+    }
+
+    @Test
+    void changeEvents_KeepTheNewerRowWhenReloadsArriveOutOfOrder() {
+        // Arrange
+        readModel.rebuild();
+        LocalDateTime later = LocalDateTime.now().plusMinutes(1);
+        jdbcTemplate.update("UPDATE products SET quantity = 1, updated_at = ? WHERE id = 7", Timestamp.valueOf(later));
+        readModel.onProductChanged(new ProductChangedEvent(7));
+
+        // Act: the row an earlier commit's reload read, installed after the later one
+        jdbcTemplate.update("UPDATE products SET quantity = 99, updated_at = ? WHERE id = 7",
+                Timestamp.valueOf(later.minusSeconds(1)));
+        readModel.onProductChanged(new ProductChangedEvent(7));
+
+        // Assert
+        assertEquals(1, readModel.findProduct(7).getQuantity());
+        assertTrue(readModel.findLowStockProducts().stream().anyMatch(p -> p.getId() == 7L));
+    }
+
+    @Test
+    void categoryEvents_RenameAndCascadeToProducts() {
+        // Arrange
+        readModel.rebuild();
+
+        // Act
+        jdbcTemplate.update("UPDATE categories SET name = 'Hand tools' WHERE id = 1");
+        readModel.onCategoryChanged(new CategoryChangedEvent(1));
+        jdbcTemplate.update("DELETE FROM products WHERE category_id = 2");
+        jdbcTemplate.update("DELETE FROM categories WHERE id = 2");
+        readModel.onCategoryChanged(new CategoryChangedEvent(2));
+
+        // Assert
+        assertEquals("Hand tools", readModel.findProduct(42).getCategoryName());
+        assertNull(readModel.findCategory(2));
+        assertNull(readModel.findProduct(1));
+        assertEquals(50, readModel.findAllProducts().size());
+    }
+
+    @Test
+    void subcategories_AreIncludedThroughTheCategoryTree() {
+        // Arrange
+        readModel.rebuild();
+
+        // Act: Garden becomes a subcategory of Tools
+        jdbcTemplate.update("UPDATE categories SET parent_id = 1, path = '/1/2/', depth = 1 WHERE id = 2");
+        categoryTree.onCategoryChanged(new CategoryChangedEvent(2));
+        readModel.onCategoryChanged(new CategoryChangedEvent(2));
+
+        // Assert
+        assertEquals(50, readModel.findProductsByCategory(1, false).size());
+        assertEquals(100, readModel.findProductsByCategory(1, true).size());
+        assertEquals(50, readModel.findProductsByCategory(2, true).size());
+        assertEquals(100, readModel.findCategory(1).getProductCount());
+        assertEquals(50, readModel.findCategory(2).getProductCount());
+        assertEquals(1L, readModel.findCategory(2).getParentId());
+        assertEquals(1, readModel.findCategory(2).getDepth());
+        assertEquals(List.of(1L, 2L), CategoryTree.pathIds("/1/2/"));
+    }
+
+    @Test
+    void facets_IntersectFiltersAndCountEachFacetWithoutItsOwnFilter() {
+        // Arrange
+        readModel.rebuild();
+        jdbcTemplate.update("UPDATE products SET category_id = 1, price = 30, quantity = 0, status = 'DISCONTINUED' "
+                + "WHERE id = 7");
+        readModel.onProductChanged(new ProductChangedEvent(7));
+
+        // Act
+        ProductFacetsResponse garden = readModel.findFacets(FacetFilter.resolve(
+                new ProductFacetQuery(List.of(2L), false, List.of("ACTIVE"), null, null, 0, 10),
+                categoryTree, priceBands));
+        ProductFacetsResponse expensive = readModel.findFacets(FacetFilter.resolve(
+                new ProductFacetQuery(null, false, null, List.of("25-"), null, 0, 10), categoryTree, priceBands));
+
+        // Assert
+        assertEquals(49, garden.getTotal());
+        assertEquals(List.of(1L, 3L, 5L, 9L, 11L, 13L, 15L, 17L, 19L, 21L),
+                garden.getProducts().stream().map(ProductResponse::getId).toList());
+        assertEquals(21L, garden.getNextAfterId());
+        assertEquals(List.of(new FacetCount("1", "Tools", 50), new FacetCount("2", "Garden", 49)),
+                garden.getCategories());
+        assertEquals(List.of(new FacetCount("ACTIVE", null, 49)), garden.getStatuses());
+        assertEquals(List.of(new FacetCount("0-10", null, 49), new FacetCount("10-25", null, 0),
+                new FacetCount("25-", null, 0)), garden.getPriceBands());
+        assertEquals(List.of(new FacetCount("true", null, 49), new FacetCount("false", null, 0)),
+                garden.getInStock());
+
+        assertEquals(1, expensive.getTotal());
+        assertEquals(7L, expensive.getProducts().get(0).getId());
+        assertNull(expensive.getNextAfterId());
+        assertEquals(List.of(new FacetCount("DISCONTINUED", null, 1)), expensive.getStatuses());
+        assertEquals(99, expensive.getPriceBands().get(0).getCount());
+    }
+
+    @Test
+    void facets_MatchTheDatabaseQueriesIncludingSubcategoriesAndBandEdges() {
+        // Arrange: Garden under Tools, Lawn under Garden, and prices on and next to the band bounds
+        jdbcTemplate.update("UPDATE categories SET parent_id = 1, path = '/1/2/', depth = 1 WHERE id = 2");
+        jdbcTemplate.update("INSERT INTO categories (id, name, parent_id, path, depth) "
+                + "VALUES (3, 'Lawn', 2, '/1/2/3/', 2), (4, 'Paint', NULL, '/4/', 0)");
+        jdbcTemplate.update("DELETE FROM products");
+        String[] statuses = {"ACTIVE", "LOW_STOCK", "DISCONTINUED"};
+        String[] prices = {"0.01", "9.99", "10.00", "10.01", "24.99", "25.00", "25.01", "99.00"};
+        Random random = new Random(5);
+        for (long id = 1; id <= 300; id++) {
+            jdbcTemplate.update("INSERT INTO products (id, sku, name, price, quantity, reorder_level, status, "
+                            + "category_id) VALUES (?, ?, ?, ?, ?, 10, ?, ?)",
+                    id, "SKU-" + id, "Product " + id, new BigDecimal(prices[random.nextInt(prices.length)]),
+                    random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(100), statuses[random.nextInt(3)],
+                    1 + random.nextInt(4));
+        }
+        categoryTree.reload();
+        readModel.rebuild();
+        ProductService productService = mock(ProductService.class);
+        when(productService.getProductsByIds(any())).thenAnswer(invocation ->
+                Arrays.stream((long[]) invocation.getArgument(0)).mapToObj(readModel::findProduct).toList());
+        ProductFacetService database = new ProductFacetService(jdbcTemplate, categoryTree, priceBands, productService);
+        List<ProductFacetQuery> queries = List.of(
+                new ProductFacetQuery(null, false, null, null, null, 0, 1000),
+                new ProductFacetQuery(List.of(1L), true, null, null, null, 0, 20),
+                new ProductFacetQuery(List.of(2L), true, List.of("ACTIVE", "LOW_STOCK"), List.of("10-25"), true, 0, 20),
+                new ProductFacetQuery(List.of(1L, 4L), false, null, List.of("0-10", "25-"), false, 0, 20),
+                new ProductFacetQuery(List.of(3L), false, List.of("DISCONTINUED"), List.of("25-"), null, 0, 5),
+                new ProductFacetQuery(null, false, null, List.of("10-25"), null, 150, 20));
+
+        // Act / Assert
+        for (ProductFacetQuery query : queries) {
+            FacetFilter filter = FacetFilter.resolve(query, categoryTree, priceBands);
+            assertEquals(database.getProductFacets(filter), readModel.findFacets(filter), query.toString());
+        }
+        ProductFacetsResponse all = readModel.findFacets(FacetFilter.resolve(queries.get(0), categoryTree, priceBands));
+        assertEquals(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE price >= 10 AND price < 25", Long.class),
+                all.getPriceBands().get(1).getCount());
+    }
+
+    @Test
+    void refresh_PicksUpRowsWrittenOutsideTheServices() {
+        // Arrange
+        readModel.rebuild();
+
+        // Act: a direct write, as forecast auto-apply does
+        jdbcTemplate.update("UPDATE products SET reorder_level = 80, updated_at = CURRENT_TIMESTAMP WHERE id = 3");
+        readModel.refresh();
+
+        // Assert
+        assertEquals(80, readModel.findProduct(3).getReorderLevel());
+        assertTrue(readModel.findLowStockProducts().stream().anyMatch(p -> p.getId() == 3L));
+    }
+
+    @Test
+    void snapshot_IsMappedOnRestartAndCaughtUpWithTheDatabase() {
+        // Arrange
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogReadModel first = new CatalogReadModel(jdbcTemplate, categoryTree, priceBands, true, 3, 5000, file.toString());
+        first.rebuild();
+        first.writeSnapshot();
+        jdbcTemplate.update("UPDATE products SET name = 'Renamed', updated_at = CURRENT_TIMESTAMP WHERE id = 5");
+        jdbcTemplate.update("DELETE FROM products WHERE id = 6");
+        jdbcTemplate.update("INSERT INTO products (id, sku, name, price, quantity, reorder_level, status, category_id) "
+                + "VALUES (101, 'SKU-101', 'New', 1.25, 1, 10, 'ACTIVE', 1)");
+
+        // Act
+        CatalogReadModel restarted = new CatalogReadModel(jdbcTemplate, categoryTree, priceBands, true, 3, 5000, file.toString());
+        boolean mapped = restarted.loadSnapshot();
+
+        // Assert
+        assertTrue(mapped);
+        assertEquals(100, restarted.findAllProducts().size());
+        ProductResponse unchanged = restarted.findProduct(42);
+        assertEquals(first.findProduct(42), unchanged);
+        assertEquals(new BigDecimal("9.50"), unchanged.getPrice());
+        assertEquals("Renamed", restarted.findProduct(5).getName());
+        assertNull(restarted.findProduct(6));
+        assertEquals("SKU-101", restarted.findProduct(101).getSku());
+        assertEquals(List.of(42L), restarted.searchProducts("HAMMER").stream().map(ProductResponse::getId).toList());
+        assertEquals(11, restarted.findLowStockProducts().size());
+        assertEquals(50, restarted.findCategory(1).getProductCount());
+    }
+
+    @Test
+    void valuation_MatchesTheDatabaseAggregateFromHeapAndSnapshotEntries() {
+        // Arrange: varied prices, one product without a category
+        Random random = new Random(47);
+        for (long id = 1; id <= 100; id++) {
+            jdbcTemplate.update("UPDATE products SET price = ?, quantity = ? WHERE id = ?",
+                    BigDecimal.valueOf(1 + random.nextInt(1_000_000), 2), random.nextInt(10_000), id);
+        }
+        jdbcTemplate.update("UPDATE products SET category_id = NULL WHERE id = 9");
+        List<CategoryValuation> expected = jdbcTemplate.query("""
+                SELECT v.category_id, c.name, v.status, v.product_count, v.units, v.stock_value
+                FROM (SELECT category_id, status, COUNT(*) AS product_count,
+                             SUM(quantity) AS units, SUM(price * quantity) AS stock_value
+                      FROM products GROUP BY category_id, status) v
+                LEFT JOIN categories c ON c.id = v.category_id
+                ORDER BY c.name NULLS LAST, v.status
+                """, (rs, rowNum) -> new CategoryValuation(rs.getObject(1, Long.class), rs.getString(2),
+                rs.getString(3), rs.getLong(4), rs.getLong(5), rs.getBigDecimal(6)));
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogReadModel loaded = new CatalogReadModel(jdbcTemplate, categoryTree, priceBands, true, 3, 5000, file.toString());
+        loaded.rebuild();
+        loaded.writeSnapshot();
+        CatalogReadModel mapped = new CatalogReadModel(jdbcTemplate, categoryTree, priceBands, true, 3, 5000, file.toString());
+        assertTrue(mapped.loadSnapshot());
+
+        // Act
+        List<CategoryValuation> fromHeap = loaded.valuation();
+        List<CategoryValuation> fromSnapshot = mapped.valuation();
+
+        // Assert
+        assertEquals(3, expected.size());
+        assertEquals(expected, fromHeap);
+        assertEquals(expected, fromSnapshot);
+    }
+
+    @Test
+    void snapshot_IsIgnoredWhenTheDatabaseIsBehindItOrTheFileIsDamaged() throws IOException {
+        // Arrange
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogReadModel first = new CatalogReadModel(jdbcTemplate, categoryTree, priceBands, true, 3, 5000, file.toString());
+        first.rebuild();
+        first.writeSnapshot();
+
+        // Act: the database restored to an older state
+        jdbcTemplate.update("UPDATE products SET updated_at = DATEADD('DAY', -1, updated_at)");
+        boolean behind = new CatalogReadModel(jdbcTemplate, categoryTree, priceBands, true, 3, 5000, file.toString()).loadSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 7));
+        boolean truncated = new CatalogReadModel(jdbcTemplate, categoryTree, priceBands, true, 3, 5000, file.toString()).loadSnapshot();
+
+        // Assert
+        assertFalse(behind);
+        assertFalse(truncated);
+    }
+}
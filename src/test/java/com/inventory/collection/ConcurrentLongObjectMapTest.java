@@ -0,0 +1,93 @@
+package com.inventory.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentLongObjectMapTest {
+
+    @Test
+    void concurrentWriters_LoseNoEntriesWhilePagesAreAllocated() throws Exception {
+        // Arrange: four writers, interleaved keys, so they race to allocate the same pages
+        ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>();
+        ConcurrentLongBitSet bits = new ConcurrentLongBitSet();
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        int keys = 200_000;
+
+        try {
+            // Act
+            List<Future<?>> parts = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                int offset = w;
+                parts.add(writers.submit(() -> {
+                    for (long key = offset; key < keys; key += 4) {
+                        map.put(key, key);
+                        bits.add(key);
+                    }
+                }));
+            }
+            for (Future<?> part : parts) {
+                part.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(keys, map.size());
+        assertEquals(keys, bits.cardinality());
+        LongArrayList ordered = map.keys();
+        for (int i = 0; i < keys; i++) {
+            assertEquals(i, ordered.get(i));
+        }
+        long[] previous = {-1};
+        bits.forEach(value -> {
+            assertEquals(previous[0] + 1, value);
+            previous[0] = value;
+        });
+    }
+
+    @Test
+    void removeAndComputeIfAbsent_KeepTheSizeAndOrder() {
+        // Arrange
+        ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>();
+        map.put(70_000, "far");
+        map.put(3, "near");
+
+        // Act
+        String computed = map.computeIfAbsent(9, key -> "computed " + key);
+        String existing = map.computeIfAbsent(3, key -> "ignored");
+        String removed = map.remove(70_000);
+
+        // Assert
+        assertEquals("computed 9", computed);
+        assertEquals("near", existing);
+        assertEquals("far", removed);
+        assertNull(map.get(70_000));
+        assertNull(map.get(-1));
+        assertEquals(List.of("near", "computed 9"), map.values());
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, "negative"));
+    }
+
+    @Test
+    void bitSet_AddAndRemoveReportChanges() {
+        // Arrange
+        ConcurrentLongBitSet bits = new ConcurrentLongBitSet();
+
+        // Act / Assert
+        assertTrue(bits.add(4097));
+        assertFalse(bits.add(4097));
+        assertTrue(bits.contains(4097));
+        assertFalse(bits.contains(4096));
+        assertFalse(bits.remove(1 << 20));
+        assertTrue(bits.remove(4097));
+        assertEquals(0, bits.cardinality());
+    }
+}
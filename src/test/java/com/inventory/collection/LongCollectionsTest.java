@@ -0,0 +1,77 @@
+package com.inventory.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongCollectionsTest {
+
+    @Test
+    void longHashSet_MatchesHashSet() {
+        // Arrange: a narrow value range, so probe runs collide and removals shift entries back
+        Random random = new Random(46);
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+
+        // Act / Assert
+        for (int i = 0; i < 200_000; i++) {
+            long value = random.nextInt(2_000) - 100;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.add(value), set.add(value));
+                case 1 -> assertEquals(expected.remove(value), set.remove(value));
+                default -> assertEquals(expected.contains(value), set.contains(value));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        Set<Long> visited = new TreeSet<>();
+        set.forEach(visited::add);
+        assertEquals(new TreeSet<>(expected), visited);
+        assertEquals(expected.size(), set.toArray().length);
+    }
+
+    @Test
+    void longObjectHashMap_MatchesHashMap() {
+        // Arrange
+        Random random = new Random(460);
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Map<Long, String> expected = new HashMap<>();
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextLong() % 10_000;
+            String value = Long.toString(random.nextInt(100));
+            assertEquals(expected.put(key, value), map.put(key, value));
+        }
+
+        // Assert
+        assertEquals(expected.size(), map.size());
+        for (long key = -10_000; key <= 10_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    void longArrayList_GrowsAndSorts() {
+        // Arrange
+        LongArrayList list = new LongArrayList(1);
+
+        // Act
+        for (long value = 1000; value > 0; value--) {
+            list.add(value);
+        }
+        list.sort();
+
+        // Assert
+        assertEquals(1000, list.size());
+        assertEquals(1L, list.get(0));
+        assertEquals(1000L, list.get(999));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1000));
+    }
+}
@@ -0,0 +1,175 @@
+package com.inventory.concurrency;
+
+import com.inventory.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void limitShrinksWhenLatencyRisesAndRecoversAfterwards() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 40, 0.5, 1.5, clock::get);
+        for (int i = 0; i < 20; i++) {
+            saturatedRound(limiter, 10);
+        }
+        assertEquals(40, limiter.getLimit());
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            saturatedRound(limiter, 100);
+        }
+        int degraded = limiter.getLimit();
+        for (int i = 0; i < 10; i++) {
+            saturatedRound(limiter, 10);
+        }
+
+        // Assert
+        assertTrue(degraded < 10, "degraded limit " + degraded);
+        assertEquals(40, limiter.getLimit());
+    }
+
+    @Test
+    void bulkWorkIsShedBeforeCriticalWork() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 40, 0.5, 1.5, clock::get);
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.CRITICAL));
+        }
+
+        // Act / Assert
+        assertNull(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.BULK));
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.CRITICAL));
+        }
+        assertNull(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.CRITICAL));
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    void injectedDatabaseDelay_ShedsWorkInsteadOfQueueing() throws Exception {
+        // Arrange: 8 connections, 24 callers, every fourth call a report
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 40, 0.5, 1.5, System::nanoTime);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DatabaseStandIn target = new DatabaseStandIn(8);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new DatabaseConcurrencyAspect(limiter, meterRegistry));
+        DatabaseStandIn database = factory.getProxy();
+        ExecutorService callers = Executors.newFixedThreadPool(24);
+
+        try {
+            // Act
+            target.delayMillis = 1;
+            runLoad(callers, database, 300);
+            int healthyLimit = limiter.getLimit();
+
+            target.delayMillis = 40;
+            runLoad(callers, database, 300);
+            target.queued.set(0);
+            int[] underLoad = runLoad(callers, database, 1000);
+            int degradedLimit = limiter.getLimit();
+
+            // Assert
+            assertTrue(degradedLimit < healthyLimit, "limit " + healthyLimit + " -> " + degradedLimit);
+            assertEquals(0, target.queued.get(), "calls queued for a connection");
+            double criticalAdmitted = underLoad[0] / (double) (underLoad[0] + underLoad[1]);
+            double bulkAdmitted = underLoad[2] / (double) (underLoad[2] + underLoad[3]);
+            assertTrue(criticalAdmitted > bulkAdmitted, "critical " + criticalAdmitted + ", bulk " + bulkAdmitted);
+            assertTrue(meterRegistry.counter("inventory.db.shed", "priority", "bulk").count() >= underLoad[3]);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    // Takes every critical permit the limiter grants, then completes them all after latencyMillis
+    private void saturatedRound(AdaptiveConcurrencyLimiter limiter, long latencyMillis) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        AdaptiveConcurrencyLimiter.Permit permit;
+        while ((permit = limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.CRITICAL)) != null) {
+            permits.add(permit);
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::release);
+    }
+
+    // Returns {critical admitted, critical shed, bulk admitted, bulk shed}
+    private static int[] runLoad(ExecutorService callers, DatabaseStandIn database, long millis) throws Exception {
+        AtomicInteger[] counts = {new AtomicInteger(), new AtomicInteger(), new AtomicInteger(), new AtomicInteger()};
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            boolean bulk = i % 4 == 0;
+            workers.add(callers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        if (bulk) {
+                            database.report();
+                        } else {
+                            database.read();
+                        }
+                        counts[bulk ? 2 : 0].incrementAndGet();
+                    } catch (ServiceOverloadedException e) {
+                        counts[bulk ? 3 : 1].incrementAndGet();
+                    }
+                    Thread.sleep(5);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(10, TimeUnit.SECONDS);
+        }
+        return new int[] {counts[0].get(), counts[1].get(), counts[2].get(), counts[3].get()};
+    }
+
+    @Service
+    public static class DatabaseStandIn {
+
+        volatile long delayMillis;
+        final AtomicInteger queued = new AtomicInteger();
+        private final Semaphore connections;
+
+        public DatabaseStandIn(int poolSize) {
+            this.connections = new Semaphore(poolSize);
+        }
+
+        @Transactional(readOnly = true)
+        public void read() throws InterruptedException {
+            query();
+        }
+
+        @BulkOperation
+        public void report() throws InterruptedException {
+            query();
+        }
+
+        private void query() throws InterruptedException {
+            if (!connections.tryAcquire()) {
+                queued.incrementAndGet();
+                connections.acquire();
+            }
+            try {
+                Thread.sleep(delayMillis);
+            } finally {
+                connections.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.inventory.concurrency;
+
+import com.inventory.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadCoalescingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SlowCatalog target;
+    private SlowCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = new SlowCatalog();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ReadCoalescingAspect(meterRegistry,
+                new StaticListableBeanFactory().getBeanProvider(com.inventory.datasource.ReadYourWritesTracker.class)));
+        catalog = factory.getProxy();
+    }
+
+    @Test
+    void concurrentIdenticalCalls_ShareOneExecution() throws Exception {
+        // Arrange
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+
+        // Act
+        calls.add(CompletableFuture.supplyAsync(() -> catalog.find(1L)));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> catalog.find(1L)));
+        }
+        awaitFollowers(4);
+        target.release.countDown();
+
+        // Assert
+        for (CompletableFuture<String> call : calls) {
+            assertEquals("product-1", call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, target.executions.get());
+        assertEquals(4, followers());
+    }
+
+    @Test
+    void differentArguments_AreNotCoalesced() {
+        // Arrange
+        target.release.countDown();
+
+        // Act / Assert
+        assertEquals("product-1", catalog.find(1L));
+        assertEquals("product-2", catalog.find(2L));
+        assertEquals(2, target.executions.get());
+    }
+
+    @Test
+    void leaderException_IsRethrownToFollowers() throws Exception {
+        // Arrange
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> catalog.find(-1L));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> catalog.find(-1L));
+        awaitFollowers(1);
+
+        // Act
+        target.release.countDown();
+
+        // Assert
+        Exception e = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ResourceNotFoundException.class, e.getCause());
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, target.executions.get());
+    }
+
+    @Test
+    void callInsideTransaction_RunsDirectly() {
+        // Arrange
+        target.release.countDown();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // Act
+            catalog.find(1L);
+            catalog.find(1L);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        // Assert
+        assertEquals(2, target.executions.get());
+        assertNull(meterRegistry.find("inventory.reads.coalesced").counter());
+    }
+
+    private void awaitFollowers(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (followers() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private double followers() {
+        var counter = meterRegistry.find("inventory.reads.coalesced").tag("role", "follower").counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    static class SlowCatalog {
+        final AtomicInteger executions = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @CoalescedRead
+        public String find(Long id) {
+            executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (id < 0) {
+                throw new ResourceNotFoundException("Product not found with id: " + id);
+            }
+            return "product-" + id;
+        }
+    }
+}
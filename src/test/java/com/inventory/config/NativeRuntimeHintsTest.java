@@ -0,0 +1,47 @@
+package com.inventory.config;
+
+import com.inventory.dto.ProductResponse;
+import com.inventory.exception.ErrorResponse;
+import com.inventory.model.Category;
+import com.inventory.model.Product;
+import com.inventory.model.Role;
+import com.inventory.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersEntities() {
+        for (Class<?> entity : new Class<?>[]{Product.class, Category.class, User.class, Role.class, Role.RoleName.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(entity).test(hints), entity.getName());
+        }
+    }
+
+    @Test
+    void registersDtoBinding() {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ProductResponse.class, "getSku").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ErrorResponse.class, "getMessage").test(hints));
+    }
+
+    @Test
+    void registersJjwtImplementation() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtParserBuilder")).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+    }
+}
@@ -0,0 +1,121 @@
+package com.inventory.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReplicaHealthMonitor healthMonitor;
+    private ReadYourWritesTracker readYourWritesTracker;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = createDatabase("primary");
+        replica = createDatabase("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE replication_status (lag_seconds DOUBLE)");
+        new JdbcTemplate(replica).update("INSERT INTO replication_status VALUES (0)");
+
+        healthMonitor = new ReplicaHealthMonitor(replica, "SELECT lag_seconds FROM replication_status", 1000);
+        readYourWritesTracker = new ReadYourWritesTracker(60_000);
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, healthMonitor, readYourWritesTracker));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        healthMonitor.check();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    @Test
+    void readOnlyTransaction_RoutesToReplica() {
+        assertTrue(healthMonitor.isHealthy());
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readWriteTransaction_RoutesToPrimary() {
+        assertEquals("primary", readWriteTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readAfterOwnWrite_RoutesToPrimaryWithinWindow() {
+        // Arrange
+        authenticateAs("alice");
+        readWriteTransaction.executeWithoutResult(status -> currentDatabase());
+
+        // Act & Assert
+        assertEquals("primary", readOnlyTransaction.execute(status -> currentDatabase()));
+
+        authenticateAs("bob");
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void laggingReplica_FallsBackToPrimary() {
+        // Arrange
+        new JdbcTemplate(replica).update("UPDATE replication_status SET lag_seconds = 30");
+
+        // Act
+        healthMonitor.check();
+
+        // Assert
+        assertFalse(healthMonitor.isHealthy());
+        assertEquals("primary", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void unreachableReplica_IsUnhealthy() {
+        ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(
+                new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE"), null, 1000);
+
+        monitor.check();
+
+        assertFalse(monitor.isHealthy());
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private void authenticateAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList()));
+    }
+
+    private static DriverManagerDataSource createDatabase(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE marker (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,140 @@
+package com.inventory.forecast;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DemandForecasterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DemandForecaster forecaster;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        forecaster = new DemandForecaster(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)), 0.5, 7, 2.0, 2, true);
+    }
+
+    @Test
+    void recompute_SteadyDemand_SuggestsLeadTimeDemandWithoutSafetyStock() {
+        // Arrange / Act
+        for (int day = 0; day < 5; day++) {
+            forecaster.record(42, 10);
+            forecaster.recompute(1.0);
+        }
+
+        // Assert
+        DemandForecaster.Forecast forecast = forecaster.forecast(42);
+        assertEquals(10.0, forecast.getDailyDemand(), 1e-9);
+        assertEquals(0.0, forecast.getDemandStdDev(), 1e-9);
+        assertEquals(70, forecast.getSuggestedReorderLevel());
+        assertEquals(5, forecast.getObservations());
+    }
+
+    @Test
+    void recompute_VariableDemand_AddsSafetyStock() {
+        // Arrange
+        forecaster.record(7, 10);
+        forecaster.recompute(1.0);
+        forecaster.record(7, 30);
+
+        // Act
+        forecaster.recompute(1.0);
+
+        // Assert: mean 20, variance 0.5 * (0 + 0.5 * 20^2) = 100
+        DemandForecaster.Forecast forecast = forecaster.forecast(7);
+        assertEquals(20.0, forecast.getDailyDemand(), 1e-9);
+        assertEquals(10.0, forecast.getDemandStdDev(), 1e-9);
+        assertEquals((int) Math.ceil(20 * 7 + 2.0 * Math.sqrt(100 * 7)), forecast.getSuggestedReorderLevel());
+    }
+
+    @Test
+    void recompute_NoDemandInPeriod_DecaysRate() {
+        // Arrange
+        forecaster.record(1, 8);
+        forecaster.recompute(1.0);
+
+        // Act
+        forecaster.recompute(1.0);
+
+        // Assert
+        assertEquals(4.0, forecaster.forecast(1).getDailyDemand(), 1e-9);
+        assertNull(forecaster.forecast(2));
+        assertNull(forecaster.forecast(1L << 40));
+    }
+
+    @Test
+    void recompute_HourlyIntervals_SuggestTheSameAsDailyOnes() {
+        // Arrange: 50 units a day with Poisson noise, over 120 days, at both intervals
+        DemandForecaster hourly = new DemandForecaster(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 0.1, 7, 1.65, 24, false);
+        DemandForecaster daily = new DemandForecaster(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 0.1, 7, 1.65, 24, false);
+        Random random = new Random(11);
+
+        // Act
+        for (int day = 0; day < 120; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                hourly.record(9, poisson(random, 50.0 / 24));
+                hourly.recompute(1.0 / 24);
+            }
+            daily.record(9, poisson(random, 50));
+            daily.recompute(1.0);
+        }
+
+        // Assert: ceil(50 * 7 + 1.65 * sqrt(50 * 7)) = 381; unscaled hourly variance gave about 500
+        int hourlyLevel = hourly.forecast(9).getSuggestedReorderLevel();
+        int dailyLevel = daily.forecast(9).getSuggestedReorderLevel();
+        assertEquals(dailyLevel, hourlyLevel, dailyLevel * 0.1);
+        assertEquals(381, hourlyLevel, 381 * 0.1);
+        assertEquals(Math.sqrt(50), hourly.forecast(9).getDemandStdDev(), Math.sqrt(50) * 0.3);
+    }
+
+    @Test
+    void applySuggestions_WritesOnlyWarmedUpAndChangedLevels() throws SQLException {
+        // Arrange: product 5000 lands on a second page and has only one observation
+        forecaster.record(3, 2);
+        forecaster.recompute(1.0);
+        forecaster.record(3, 2);
+        forecaster.record(5000, 9);
+        forecaster.recompute(1.0);
+
+        // Act
+        forecaster.applySuggestions();
+        forecaster.applySuggestions();
+
+        // Assert
+        ArgumentCaptor<BatchPreparedStatementSetter> batch = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertEquals(1, batch.getValue().getBatchSize());
+        PreparedStatement statement = mock(PreparedStatement.class);
+        batch.getValue().setValues(statement, 0);
+        verify(statement).setInt(1, forecaster.forecast(3).getSuggestedReorderLevel());
+        verify(statement).setLong(3, 3L);
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    // Knuth's method; fine for the small means used here
+    private static int poisson(Random random, double mean) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,218 @@
+package com.inventory.idempotency;
+
+import com.inventory.exception.ErrorResponseWriter;
+import com.inventory.model.IdempotencyRecord;
+import com.inventory.repository.IdempotencyRecordRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class IdempotencyFilterTest {
+
+    private IdempotencyRecordRepository repository;
+    private IdempotencyFilter filter;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        when(repository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+        IdempotencyStore store = new IdempotencyStore(repository, 60_000, 100, 5_000, 30_000);
+        filter = new IdempotencyFilter(store, new ErrorResponseWriter(Jackson2ObjectMapperBuilder.json().build()));
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    void repeatedKey_ExecutesOnceAndReplaysResponse() throws Exception {
+        // Act
+        MockHttpServletResponse first = perform(request("k1", "{\"sku\":\"A-1\"}"), createdChain());
+        MockHttpServletResponse second = perform(request("k1", "{\"sku\":\"A-1\"}"), createdChain());
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(201, second.getStatus());
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals("true", second.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        verify(repository).complete(eq("alice:k1"), eq(201), anyString(), any());
+    }
+
+    @Test
+    void sameKeyDifferentBody_Returns422() throws Exception {
+        // Arrange
+        perform(request("k2", "{\"sku\":\"A-1\"}"), createdChain());
+
+        // Act
+        MockHttpServletResponse response = perform(request("k2", "{\"sku\":\"B-2\"}"), createdChain());
+
+        // Assert
+        assertEquals(422, response.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void concurrentDuplicate_WaitsForFirstResult() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (req, res) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            createdChain().doFilter(req, res);
+        };
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> performUnchecked(slowChain));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<MockHttpServletResponse> second = CompletableFuture.supplyAsync(() -> performUnchecked(createdChain()));
+        Thread.sleep(100);
+        release.countDown();
+
+        // Assert
+        assertEquals(201, first.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(201, second.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals("true", second.get().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void serverError_ReleasesKeySoRetryExecutesAgain() throws Exception {
+        // Arrange
+        FilterChain failingChain = (req, res) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(503);
+        };
+        perform(request("k4", "{}"), failingChain);
+
+        // Act
+        MockHttpServletResponse retry = perform(request("k4", "{}"), createdChain());
+
+        // Assert
+        assertEquals(201, retry.getStatus());
+        assertEquals(2, executions.get());
+        verify(repository).release("alice:k4");
+    }
+
+    @Test
+    void keyClaimedByAnotherNode_ReplaysStoredResponse() throws Exception {
+        // Arrange
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKey("alice:k5");
+        record.setStatusCode(201);
+        record.setContentType("application/json");
+        record.setBody("{\"id\":7}".getBytes(StandardCharsets.UTF_8));
+        record.setExpiresAt(LocalDateTime.now().plusHours(1));
+        when(repository.claim(eq("alice:k5"), anyString(), any(), any())).thenAnswer(invocation -> {
+            record.setFingerprint(invocation.getArgument(1));
+            return 0;
+        });
+        when(repository.findByKey("alice:k5")).thenReturn(Optional.of(record));
+        MockHttpServletRequest request = request("k5", "{}");
+
+        // Act
+        MockHttpServletResponse response = perform(request, createdChain());
+
+        // Assert
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"id\":7}", response.getContentAsString());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void keyLeftInProgressPastTheLease_IsTakenOverAndExecuted() throws Exception {
+        // Arrange
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKey("alice:k6");
+        record.setCreatedAt(LocalDateTime.now().minusMinutes(1));
+        record.setExpiresAt(LocalDateTime.now().plusHours(23));
+        when(repository.claim(eq("alice:k6"), anyString(), any(), any())).thenAnswer(invocation -> {
+            record.setFingerprint(invocation.getArgument(1));
+            return 0;
+        }).thenReturn(1);
+        when(repository.findByKey("alice:k6")).thenReturn(Optional.of(record));
+        when(repository.deleteIfExpired(eq("alice:k6"), any(), any())).thenReturn(1);
+
+        // Act
+        MockHttpServletResponse response = perform(request("k6", "{}"), createdChain());
+
+        // Assert
+        assertEquals(201, response.getStatus());
+        assertEquals(1, executions.get());
+        verify(repository).complete(eq("alice:k6"), eq(201), anyString(), any());
+    }
+
+    @Test
+    void keyInProgressWithinTheLease_Returns409() throws Exception {
+        // Arrange
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKey("alice:k7");
+        record.setCreatedAt(LocalDateTime.now().minusSeconds(1));
+        record.setExpiresAt(LocalDateTime.now().plusHours(23));
+        when(repository.claim(eq("alice:k7"), anyString(), any(), any())).thenAnswer(invocation -> {
+            record.setFingerprint(invocation.getArgument(1));
+            return 0;
+        });
+        when(repository.findByKey("alice:k7")).thenReturn(Optional.of(record));
+
+        // Act
+        MockHttpServletResponse response = perform(request("k7", "{}"), createdChain());
+
+        // Assert
+        assertEquals(409, response.getStatus());
+        assertEquals(0, executions.get());
+        verify(repository, never()).deleteIfExpired(anyString(), any(), any());
+    }
+
+    private FilterChain createdChain() {
+        return (req, res) -> {
+            int id = executions.incrementAndGet();
+            HttpServletResponse response = (HttpServletResponse) res;
+            response.setStatus(201);
+            response.setContentType("application/json");
+            res.getWriter().write("{\"id\":" + id + ",\"body\":" + new String(req.getInputStream().readAllBytes()) + "}");
+        };
+    }
+
+    private MockHttpServletResponse performUnchecked(FilterChain chain) {
+        try {
+            return perform(request("k3", "{}"), chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/products");
+        request.setUserPrincipal(() -> "alice");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,90 @@
+package com.inventory.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Property checks against BigDecimal over seeded random inputs, so failures reproduce
+class MoneyTest {
+
+    private static final int SAMPLES = 100_000;
+
+    @Test
+    void conversion_RoundTripsEveryAmountWithAtMostTwoDecimals() {
+        Random random = new Random(47);
+        for (int i = 0; i < SAMPLES; i++) {
+            // Arrange
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong() % 1_000_000_000_000L, random.nextInt(3));
+
+            // Act
+            long minorUnits = Money.toMinorUnits(amount);
+
+            // Assert
+            assertEquals(amount.setScale(Money.SCALE), Money.toBigDecimal(minorUnits), amount.toPlainString());
+            assertEquals(amount.movePointRight(Money.SCALE).longValueExact(), minorUnits);
+        }
+    }
+
+    @Test
+    void unscaledConversion_AgreesWithBigDecimalIncludingFailures() {
+        Random random = new Random(470);
+        for (int i = 0; i < SAMPLES; i++) {
+            // Arrange: scales either side of 2, some values that need rounding and some that overflow
+            long unscaled = i % 10 == 0 ? random.nextLong() : random.nextLong() % 100_000_000_000L;
+            int scale = random.nextInt(10) - 3;
+            BigDecimal amount = BigDecimal.valueOf(unscaled, scale);
+
+            // Act
+            Long expected;
+            try {
+                expected = Money.toMinorUnits(amount);
+            } catch (ArithmeticException e) {
+                expected = null;
+            }
+            Long actual;
+            try {
+                actual = Money.toMinorUnits(unscaled, scale);
+            } catch (ArithmeticException e) {
+                actual = null;
+            }
+
+            // Assert
+            assertEquals(expected, actual, amount.toPlainString());
+        }
+    }
+
+    @Test
+    void stockValueSums_MatchBigDecimalExactly() {
+        Random random = new Random(4700);
+        for (int round = 0; round < 100; round++) {
+            // Arrange
+            BigDecimal expected = BigDecimal.ZERO;
+            long actual = 0;
+
+            // Act
+            for (int row = 0; row < 1_000; row++) {
+                BigDecimal price = BigDecimal.valueOf(1 + random.nextInt(10_000_000), 2);
+                int quantity = random.nextInt(100_000);
+                expected = expected.add(price.multiply(BigDecimal.valueOf(quantity)));
+                actual = Math.addExact(actual, Money.times(Money.toMinorUnits(price), quantity));
+            }
+
+            // Assert: equal including scale, as the report serializes it
+            assertEquals(expected, Money.toBigDecimal(actual));
+        }
+    }
+
+    @Test
+    void lossyOrOverflowingAmounts_AreRejected() {
+        // Act / Assert
+        assertThrows(ArithmeticException.class, () -> Money.toMinorUnits(new BigDecimal("9.999")));
+        assertEquals(999, Money.toMinorUnits(new BigDecimal("9.990")));
+        assertThrows(ArithmeticException.class,
+                () -> Money.toMinorUnits(BigDecimal.valueOf(Long.MAX_VALUE).setScale(0, RoundingMode.UNNECESSARY)));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+    }
+}
@@ -0,0 +1,108 @@
+package com.inventory.pricing;
+
+import com.inventory.dto.RepricingRule;
+import com.inventory.dto.RepricingRule.Adjustment;
+import com.inventory.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceRuleTest {
+
+    @Test
+    void percentRule_BindsMultiplierThenIdRangeThenFiltersInStatementOrder() {
+        // Arrange
+        RepricingRule request = rule(Adjustment.PERCENT, "4");
+        request.setCategoryId(7L);
+        request.setSkuPattern("HW-*");
+        request.setStatus("ACTIVE");
+
+        // Act
+        PriceRule rule = PriceRule.compile(request);
+        String sql = rule.targetSql(true);
+        List<Object> args = rule.targetArgs(1, 20_000, 0, 0);
+
+        // Assert
+        assertTrue(sql.contains("ROUND(p.price * ?, 2) AS new_price"));
+        assertTrue(sql.endsWith("WHERE p.id BETWEEN ? AND ? AND p.category_id = ? AND p.sku LIKE ? AND p.status = ?"
+                + " FOR UPDATE OF p"));
+        assertEquals(List.of(new BigDecimal("1.04"), 1L, 20_000L, 7L, "HW-%", "ACTIVE"), args);
+        assertEquals(sql.chars().filter(c -> c == '?').count(), args.size());
+    }
+
+    @Test
+    void categoryWithSubcategories_MatchesTheWholeSubtreeByPathPrefix() {
+        // Arrange
+        RepricingRule request = rule(Adjustment.SET, "5");
+        request.setCategoryId(7L);
+        request.setIncludeSubcategories(true);
+
+        // Act
+        PriceRule rule = PriceRule.compile(request);
+        String sql = rule.targetSql(false);
+        List<Object> args = rule.targetArgs(1, 20_000, 0, 0);
+
+        // Assert
+        assertTrue(sql.endsWith("WHERE p.id BETWEEN ? AND ? AND p.category_id IN (SELECT c.id FROM categories c"
+                + " JOIN categories root ON c.path LIKE root.path || '%' WHERE root.id = ?)"));
+        assertEquals(List.of(new BigDecimal("5.00"), 1L, 20_000L, 7L), args);
+    }
+
+    @Test
+    void skuPricesRule_BindsOneSliceOfSkusAndMinorUnits() {
+        // Arrange
+        Map<String, BigDecimal> prices = new LinkedHashMap<>();
+        prices.put("A-1", new BigDecimal("9.99"));
+        prices.put("A-2", new BigDecimal("20"));
+        prices.put("A-3", new BigDecimal("0.5"));
+        RepricingRule request = rule(Adjustment.SKU_PRICES, null);
+        request.setPrices(prices);
+
+        // Act
+        PriceRule rule = PriceRule.compile(request);
+        List<Object> args = rule.targetArgs(Long.MIN_VALUE, Long.MAX_VALUE, 1, 3);
+
+        // Assert
+        assertEquals(3, rule.skuCount());
+        assertTrue(rule.targetSql(false).contains("JOIN UNNEST(CAST(? AS VARCHAR[]), CAST(? AS BIGINT[]))"));
+        assertArrayEquals(new String[]{"A-2", "A-3"}, (String[]) args.get(0));
+        assertArrayEquals(new long[]{2000, 50}, (long[]) args.get(1));
+        assertEquals(List.of(Long.MIN_VALUE, Long.MAX_VALUE), args.subList(2, 4));
+    }
+
+    @Test
+    void skuPattern_TreatsEverythingButTheWildcardsLiterally() {
+        // Act / Assert
+        assertEquals("HW-%", PriceRule.toLikePattern("HW-*"));
+        assertEquals("A_\\_B", PriceRule.toLikePattern("A?_B"));
+        assertEquals("100\\%\\\\x", PriceRule.toLikePattern("100%\\x"));
+    }
+
+    @Test
+    void invalidRules_AreRejected() {
+        // Act / Assert
+        assertThrows(BadRequestException.class, () -> PriceRule.compile(rule(null, "4")));
+        assertThrows(BadRequestException.class, () -> PriceRule.compile(rule(Adjustment.PERCENT, null)));
+        assertThrows(BadRequestException.class, () -> PriceRule.compile(rule(Adjustment.PERCENT, "-100")));
+        assertThrows(BadRequestException.class, () -> PriceRule.compile(rule(Adjustment.AMOUNT, "0.001")));
+        assertThrows(BadRequestException.class, () -> PriceRule.compile(rule(Adjustment.SET, "0")));
+        assertThrows(BadRequestException.class, () -> PriceRule.compile(rule(Adjustment.SET, "10000000000")));
+        assertThrows(BadRequestException.class, () -> PriceRule.compile(rule(Adjustment.SKU_PRICES, null)));
+
+        RepricingRule negativeSkuPrice = rule(Adjustment.SKU_PRICES, null);
+        negativeSkuPrice.setPrices(Map.of("A-1", new BigDecimal("-1")));
+        assertThrows(BadRequestException.class, () -> PriceRule.compile(negativeSkuPrice));
+    }
+
+    private static RepricingRule rule(Adjustment adjustment, String value) {
+        RepricingRule rule = new RepricingRule();
+        rule.setAdjustment(adjustment);
+        rule.setValue(value != null ? new BigDecimal(value) : null);
+        return rule;
+    }
+}
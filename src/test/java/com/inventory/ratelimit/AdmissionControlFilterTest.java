@@ -0,0 +1,187 @@
+package com.inventory.ratelimit;
+
+import com.inventory.exception.ErrorResponseWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final AtomicInteger executions = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AdmissionControlProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionControlProperties();
+        properties.getPerUser().put("user", limit(2, 1.0));
+        properties.getPerUser().put("admin", limit(5, 1.0));
+        properties.getPerRole().put("user", limit(3, 1.0));
+        properties.getExpensive().setMaxConcurrent(1);
+        properties.getExpensive().setEndpoints(List.of("GET /reports/**"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void userOverBucket_Returns429WithRetryAfter() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter();
+        authenticate("alice", "ROLE_USER");
+        perform(filter, "GET", "/products/1", countingChain());
+        perform(filter, "GET", "/products/1", countingChain());
+
+        // Act
+        MockHttpServletResponse response = perform(filter, "GET", "/products/1", countingChain());
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(2, executions.get());
+        assertEquals(1.0, meterRegistry.counter("inventory.admission.rejected", "limit", "user").count());
+    }
+
+    @Test
+    void highestRoleDecidesUserLimit() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter();
+        authenticate("root", "ROLE_USER", "ROLE_ADMIN");
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform(filter, "GET", "/products", countingChain()).getStatus());
+        }
+        MockHttpServletResponse response = perform(filter, "GET", "/products", countingChain());
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals(5, executions.get());
+    }
+
+    @Test
+    void roleBucketIsSharedAcrossUsers() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter();
+        for (String user : List.of("alice", "bob", "carol")) {
+            authenticate(user, "ROLE_USER");
+            perform(filter, "GET", "/products", countingChain());
+        }
+
+        // Act
+        authenticate("dave", "ROLE_USER");
+        MockHttpServletResponse response = perform(filter, "GET", "/products", countingChain());
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals(3, executions.get());
+        assertEquals(1.0, meterRegistry.counter("inventory.admission.rejected", "limit", "role").count());
+    }
+
+    @Test
+    void expensiveEndpoint_RejectsBeyondMaxConcurrent() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter();
+        authenticate("root", "ROLE_ADMIN");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (req, res) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            authenticate("root", "ROLE_ADMIN");
+            try {
+                perform(filter, "GET", "/reports/inventory-valuation", slowChain);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        MockHttpServletResponse rejected = perform(filter, "GET", "/reports/inventory-valuation", countingChain());
+        MockHttpServletResponse cheap = perform(filter, "GET", "/products/1", countingChain());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        MockHttpServletResponse afterwards = perform(filter, "GET", "/reports/inventory-valuation", countingChain());
+
+        // Assert
+        assertEquals(429, rejected.getStatus());
+        assertEquals(200, cheap.getStatus());
+        assertEquals(200, afterwards.getStatus());
+    }
+
+    @Test
+    void unauthenticatedOrDisabled_PassesThrough() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter();
+        properties.setEnabled(false);
+        AdmissionControlFilter disabled = filter();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            perform(filter, "GET", "/products", countingChain());
+        }
+        authenticate("alice", "ROLE_USER");
+        for (int i = 0; i < 5; i++) {
+            perform(disabled, "GET", "/products", countingChain());
+        }
+
+        // Assert
+        assertEquals(10, executions.get());
+    }
+
+    private AdmissionControlFilter filter() {
+        return new AdmissionControlFilter(properties,
+                new InMemoryRateLimitBackend(new KeyedRateLimiter(clock::get)),
+                new ErrorResponseWriter(Jackson2ObjectMapperBuilder.json().build()), meterRegistry);
+    }
+
+    private FilterChain countingChain() {
+        return (req, res) -> executions.incrementAndGet();
+    }
+
+    private static MockHttpServletResponse perform(AdmissionControlFilter filter, String method, String uri,
+                                                   FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, chain);
+        return response;
+    }
+
+    private static void authenticate(String username, String... roles) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                username, null, AuthorityUtils.createAuthorityList(roles)));
+    }
+
+    private static AdmissionControlProperties.Limit limit(int capacity, double refillPerSecond) {
+        AdmissionControlProperties.Limit limit = new AdmissionControlProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return limit;
+    }
+}
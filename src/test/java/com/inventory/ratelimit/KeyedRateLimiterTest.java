@@ -0,0 +1,68 @@
+package com.inventory.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final BucketSpec spec = BucketSpec.of(3, 1.0);
+    private KeyedRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new KeyedRateLimiter(clock::get);
+    }
+
+    @Test
+    void tryAcquire_AllowsBurstUpToCapacity() {
+        assertEquals(0, limiter.tryAcquire("alice", spec));
+        assertEquals(0, limiter.tryAcquire("alice", spec));
+        assertEquals(0, limiter.tryAcquire("alice", spec));
+
+        long wait = limiter.tryAcquire("alice", spec);
+        assertTrue(wait > 0);
+        assertTrue(wait <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void tryAcquire_RefillsOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice", spec);
+        }
+        assertTrue(limiter.tryAcquire("alice", spec) > 0);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(0, limiter.tryAcquire("alice", spec));
+        assertTrue(limiter.tryAcquire("alice", spec) > 0);
+    }
+
+    @Test
+    void tryAcquire_KeysAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice", spec);
+        }
+
+        assertTrue(limiter.tryAcquire("alice", spec) > 0);
+        assertEquals(0, limiter.tryAcquire("bob", spec));
+    }
+
+    @Test
+    void evictIdle_RemovesOnlyFullyRefilledBuckets() {
+        limiter.tryAcquire("alice", spec);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("bob", spec);
+        }
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1500));
+
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+    }
+}
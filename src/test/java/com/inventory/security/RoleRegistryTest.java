@@ -0,0 +1,95 @@
+package com.inventory.security;
+
+import com.inventory.exception.BadRequestException;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.model.Role;
+import com.inventory.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoleRegistryTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @InjectMocks
+    private RoleRegistry roleRegistry;
+
+    private Role userRole;
+    private Role adminRole;
+
+    @BeforeEach
+    void setUp() {
+        userRole = new Role(1L, Role.RoleName.ROLE_USER, "User");
+        adminRole = new Role(2L, Role.RoleName.ROLE_ADMIN, "Admin");
+    }
+
+    @Test
+    void authoritiesFor_Claim_ReturnsSharedSetRegardlessOfOrder() {
+        // Act
+        Set<GrantedAuthority> first = roleRegistry.authoritiesFor("ROLE_ADMIN,ROLE_USER");
+        Set<GrantedAuthority> second = roleRegistry.authoritiesFor("ROLE_USER,ROLE_ADMIN");
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(2, first.size());
+        assertTrue(first.stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+        verifyNoInteractions(roleRepository);
+    }
+
+    @Test
+    void authoritiesFor_ClaimWithUnknownOrEmptyNames_IgnoresThem() {
+        // Act
+        Set<GrantedAuthority> authorities = roleRegistry.authoritiesFor("ROLE_USER,,ROLE_ROOT,ROLE_USERX");
+
+        // Assert
+        assertEquals(1, authorities.size());
+        assertEquals("ROLE_USER", authorities.iterator().next().getAuthority());
+        assertTrue(roleRegistry.authoritiesFor((String) null).isEmpty());
+    }
+
+    @Test
+    void authoritiesFor_Roles_MatchesClaimResolution() {
+        // Act
+        Set<GrantedAuthority> fromRoles = roleRegistry.authoritiesFor(Set.of(userRole, adminRole));
+
+        // Assert
+        assertSame(roleRegistry.authoritiesFor("ROLE_USER,ROLE_ADMIN"), fromRoles);
+    }
+
+    @Test
+    void resolve_LoadsOnceAndAcceptsShortNames() {
+        // Arrange
+        when(roleRepository.findAll()).thenReturn(List.of(userRole, adminRole));
+
+        // Act
+        Set<Role> roles = roleRegistry.resolve(List.of("admin", "ROLE_USER"));
+        roleRegistry.getRole(Role.RoleName.ROLE_USER);
+
+        // Assert
+        assertEquals(Set.of(userRole, adminRole), roles);
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void resolve_UnknownOrMissingRole_Throws() {
+        // Arrange
+        when(roleRepository.findAll()).thenReturn(List.of(userRole));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> roleRegistry.resolve(List.of("ROLE_ROOT")));
+        assertThrows(ResourceNotFoundException.class, () -> roleRegistry.resolve(List.of("ROLE_MANAGER")));
+    }
+}
@@ -0,0 +1,89 @@
+package com.inventory.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+    private static final long TTL = 15 * 60_000;
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList(TTL);
+    }
+
+    @Test
+    void revoke_OnlyAffectsThatTokenId() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        long expiresAt = now + TTL;
+
+        // Act
+        revocationList.revoke("jti-1", expiresAt);
+
+        // Assert
+        assertTrue(revocationList.isRevoked("jti-1", "alice", now, expiresAt));
+        assertFalse(revocationList.isRevoked("jti-2", "alice", now, expiresAt));
+    }
+
+    @Test
+    void revoke_DifferentExpiryPeriods_AreTrackedSeparately() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        long early = now + 60_000;
+        long late = now + TTL;
+
+        // Act
+        revocationList.revoke("jti-early", early);
+        revocationList.revoke("jti-late", late);
+
+        // Assert
+        assertTrue(revocationList.isRevoked("jti-early", "alice", now, early));
+        assertTrue(revocationList.isRevoked("jti-late", "alice", now, late));
+        assertFalse(revocationList.isRevoked("jti-early", "alice", now, late));
+    }
+
+    @Test
+    void revoke_AlreadyExpiredToken_IsIgnored() {
+        // Arrange
+        long now = System.currentTimeMillis();
+
+        // Act
+        revocationList.revoke("jti-1", now - 1);
+
+        // Assert
+        assertFalse(revocationList.isRevoked("jti-1", "alice", now - TTL, now - 1));
+    }
+
+    @Test
+    void revokeAllFor_RejectsTokensIssuedBefore_AndAcceptsLaterOnes() {
+        // Arrange
+        long now = System.currentTimeMillis();
+
+        // Act
+        revocationList.revokeAllFor("alice");
+
+        // Assert
+        assertTrue(revocationList.isRevoked("jti-1", "alice", now - 1_000, now + TTL));
+        assertFalse(revocationList.isRevoked("jti-2", "alice", now + 5_000, now + TTL));
+        assertFalse(revocationList.isRevoked("jti-3", "bob", now - 1_000, now + TTL));
+    }
+
+    @Test
+    void revokeAllFor_RejectsTokenIssuedEarlierInTheSameSecond() {
+        // Arrange: iat is truncated to the second
+        long now = System.currentTimeMillis();
+        long issuedAt = now - now % 1000;
+
+        // Act
+        revocationList.revokeAllFor("alice");
+
+        // Assert
+        assertTrue(revocationList.isRevoked("jti-1", "alice", issuedAt, issuedAt + TTL));
+        assertFalse(revocationList.isRevoked("jti-2", "alice", issuedAt + 2_000, issuedAt + TTL));
+    }
+}
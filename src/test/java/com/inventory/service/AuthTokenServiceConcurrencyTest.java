@@ -0,0 +1,85 @@
+package com.inventory.service;
+
+import com.inventory.dto.JwtResponse;
+import com.inventory.dto.UserRequest;
+import com.inventory.exception.InvalidTokenException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Refreshes with the same refresh token from two threads against an
+ * in-memory database, where the row locks are real.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+class AuthTokenServiceConcurrencyTest {
+
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private AuthTokenService authTokenService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void concurrentRefreshesWithOneToken_IssueOnePairAndRevokeTheFamily() throws Exception {
+        // Arrange
+        userService.createUser(new UserRequest("refresher", "refresher@example.com", "secret123", "Re Fresher",
+                Set.of("ROLE_USER")));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            String refreshToken = authTokenService.issueTokens("refresher").getRefreshToken();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<JwtResponse>> refreshes = new ArrayList<>();
+            for (int thread = 0; thread < 2; thread++) {
+                refreshes.add(executor.submit(() -> {
+                    start.await();
+                    return authTokenService.refresh(refreshToken);
+                }));
+            }
+
+            // Act
+            start.countDown();
+            List<JwtResponse> issued = new ArrayList<>();
+            int rejected = 0;
+            for (Future<JwtResponse> refresh : refreshes) {
+                try {
+                    issued.add(refresh.get(30, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    assertInstanceOf(InvalidTokenException.class, e.getCause());
+                    rejected++;
+                }
+            }
+
+            // Assert: the loser counts as reuse, so the winner's new token is revoked as well
+            assertEquals(1, issued.size(), "round " + round);
+            assertEquals(1, rejected, "round " + round);
+            String winner = issued.get(0).getRefreshToken();
+            assertThrows(InvalidTokenException.class, () -> authTokenService.refresh(winner));
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,168 @@
+package com.inventory.service;
+
+import com.inventory.datasource.ReportingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductExportServiceTest {
+
+    private static final String URL = "jdbc:h2:mem:export;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private ReportingDataSource reportingDataSource;
+    private ProductExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE categories (id BIGINT PRIMARY KEY, name VARCHAR(100))");
+        jdbcTemplate.execute("""
+                CREATE TABLE products (id BIGINT PRIMARY KEY, sku VARCHAR(50), name VARCHAR(200),
+                    price DECIMAL(10, 2), quantity INT, reorder_level INT, status VARCHAR(20),
+                    category_id BIGINT, updated_at TIMESTAMP(6))
+                """);
+        jdbcTemplate.update("INSERT INTO categories VALUES (1, 'Tools')");
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        for (long id = 1; id <= 5; id++) {
+            String name = id == 3 ? "Hammer, \"claw\"" : "Product " + id;
+            jdbcTemplate.update("INSERT INTO products VALUES (?, ?, ?, 9.50, 10, 2, 'ACTIVE', 1, ?)",
+                    id, "SKU-" + id, name, Timestamp.valueOf(created));
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(URL);
+        config.setUsername("sa");
+        reportingDataSource = new ReportingDataSource(config, 30);
+        exportService = new ProductExportService(reportingDataSource, directory.toString(), 2, 1, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportingDataSource.close();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void firstExport_WritesEveryProductAcrossGzipMembers() throws IOException {
+        // Act
+        ProductExportService.ExportResult result = exportService.exportProducts();
+
+        // Assert
+        assertFalse(result.isIncremental());
+        assertEquals(5, result.getRows());
+        List<String> lines = readLines(result.getFile());
+        assertEquals(6, lines.size());
+        assertTrue(lines.get(0).startsWith("id,sku,name"));
+        assertTrue(lines.get(3).startsWith("3,SKU-3,\"Hammer, \"\"claw\"\"\",Tools,9.50,10,2,ACTIVE,"));
+        assertFalse(Files.exists(directory.resolve("product-export.checkpoint")));
+    }
+
+    @Test
+    void nextExport_ContainsOnlyProductsChangedSinceLastExport() throws IOException {
+        // Arrange
+        exportService.exportProducts();
+        jdbcTemplate.update("UPDATE products SET quantity = 0, updated_at = ? WHERE id = 4",
+                Timestamp.valueOf(LocalDateTime.now()));
+
+        // Act
+        ProductExportService.ExportResult result = exportService.exportProducts();
+
+        // Assert
+        assertTrue(result.isIncremental());
+        List<String> lines = readLines(result.getFile());
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).startsWith("4,SKU-4,Product 4,Tools,9.50,0,"));
+    }
+
+    @Test
+    void nextExport_PicksUpRowStampedBeforeThePreviousEndButCommittedAfter() throws IOException {
+        // Arrange: the update stamps updated_at just before the first export's end, commits after it
+        exportService.exportProducts();
+        Properties state = new Properties();
+        try (Reader reader = Files.newBufferedReader(directory.resolve("product-export.state"))) {
+            state.load(reader);
+        }
+        LocalDateTime previousUntil = LocalDateTime.parse(state.getProperty("lastExportUntil"));
+        jdbcTemplate.update("UPDATE products SET quantity = 7, updated_at = ? WHERE id = 2",
+                Timestamp.valueOf(previousUntil.minusSeconds(1)));
+
+        // Act
+        ProductExportService.ExportResult result = exportService.exportProducts();
+
+        // Assert
+        List<String> lines = readLines(result.getFile());
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).startsWith("2,SKU-2,Product 2,Tools,9.50,7,"));
+        assertTrue(result.getFile().getFileName().toString().startsWith("products-changed-"));
+    }
+
+    @Test
+    void interruptedExport_ResumesFromCheckpointAndDropsPartialMember() throws IOException {
+        // Arrange: two rows committed, followed by a member cut off mid-write
+        byte[] committed = gzip("id,sku,name,category,price,quantity,reorder_level,status,updated_at\n"
+                + "1,SKU-1,Product 1,Tools,9.50,10,2,ACTIVE,2020-01-01T00:00\n"
+                + "2,SKU-2,Product 2,Tools,9.50,10,2,ACTIVE,2020-01-01T00:00\n");
+        String fileName = "products-full-20200101T000000.csv.gz";
+        try (OutputStream out = Files.newOutputStream(directory.resolve(fileName + ".part"))) {
+            out.write(committed);
+            out.write(new byte[] {0x1f, (byte) 0x8b, 8, 0, 42});
+        }
+        ExportCheckpoint checkpoint = new ExportCheckpoint(
+                ExportCheckpoint.Mode.FULL, null, LocalDateTime.now(), fileName);
+        checkpoint.advance(null, 1);
+        checkpoint.advance(null, 2);
+        checkpoint.committed(committed.length);
+        checkpoint.save(directory.resolve("product-export.checkpoint"));
+
+        // Act
+        ProductExportService.ExportResult result = exportService.exportProducts();
+
+        // Assert
+        assertTrue(result.isResumed());
+        assertEquals(5, result.getRows());
+        List<String> lines = readLines(result.getFile());
+        assertEquals(6, lines.size());
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(lines.get(i).startsWith(i + ",SKU-" + i + ","));
+        }
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<String> readLines(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.inventory.service;
+
+import com.inventory.dto.CategoryRequest;
+import com.inventory.dto.ProductRequest;
+import com.inventory.dto.ProductResponse;
+import com.inventory.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Moves one product between categories from several threads against an
+ * in-memory database, where the row locks are real.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+class ProductServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int MOVES_PER_THREAD = 25;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void concurrentMovesOfOneProduct_KeepCategoryCountsExact() throws Exception {
+        // Arrange
+        List<Long> categoryIds = new ArrayList<>();
+        for (String name : List.of("Move A", "Move B", "Move C")) {
+            categoryIds.add(categoryService.createCategory(new CategoryRequest(name, null, null)).getId());
+        }
+        ProductResponse product = productService.createProduct(request(categoryIds.get(0)));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> movers = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int offset = thread;
+            movers.add(executor.submit(() -> {
+                start.await();
+                for (int move = 0; move < MOVES_PER_THREAD; move++) {
+                    productService.updateProduct(product.getId(),
+                            request(categoryIds.get((offset + move) % categoryIds.size())));
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        start.countDown();
+        for (Future<?> mover : movers) {
+            mover.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        Long finalCategoryId = productService.getProductById(product.getId()).getCategoryId();
+        for (Long categoryId : categoryIds) {
+            int expected = categoryId.equals(finalCategoryId) ? 1 : 0;
+            assertEquals(expected, categoryRepository.findById(categoryId).orElseThrow().getProductCount(),
+                    "product count of category " + categoryId);
+        }
+    }
+
+    private static ProductRequest request(Long categoryId) {
+        ProductRequest request = new ProductRequest();
+        request.setSku("MOVE-1");
+        request.setName("Moving product");
+        request.setPrice(new BigDecimal("9.99"));
+        request.setQuantity(10);
+        request.setReorderLevel(2);
+        request.setCategoryId(categoryId);
+        return request;
+    }
+}
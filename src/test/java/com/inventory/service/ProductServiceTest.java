@@ -1,21 +1,34 @@
 package com.inventory.service;
 
+import com.inventory.catalog.CategoryTree;
+import com.inventory.dto.ProductField;
 import com.inventory.dto.ProductRequest;
 import com.inventory.dto.ProductResponse;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.event.StockDecreasedEvent;
+import com.inventory.exception.BadRequestException;
 import com.inventory.exception.DuplicateResourceException;
 import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.forecast.DemandForecaster;
 import com.inventory.model.Category;
 import com.inventory.model.Product;
+import com.inventory.model.StockMovement;
 import com.inventory.repository.CategoryRepository;
 import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockMovementRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,9 +45,21 @@ class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CategoryTree categoryTree;
+
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private DemandForecaster demandForecaster;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductService productService;
 
@@ -86,6 +111,7 @@ class ProductServiceTest {
         assertEquals("TEST-001", response.getSku());
         assertEquals("Test Product", response.getName());
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(categoryRepository).adjustProductCount(1L, 1);
     }
 
     @Test
@@ -139,6 +165,23 @@ class ProductServiceTest {
         });
     }
 
+    @Test
+    void getProductsByIds_KeepsRequestOrderAndSkipsUnknownAndRepeatedIds() {
+        // Arrange
+        Product second = new Product();
+        second.setId(7L);
+        second.setSku("TEST-007");
+        second.setName("Second Product");
+        second.setCategory(testCategory);
+        when(productRepository.findAllById(List.of(7L, 99L, 1L, 7L))).thenReturn(List.of(testProduct, second));
+
+        // Act
+        List<ProductResponse> products = productService.getProductsByIds(new long[] {7, 99, 1, 7});
+
+        // Assert
+        assertEquals(List.of(7L, 1L), products.stream().map(ProductResponse::getId).toList());
+    }
+
     @Test
     void updateStock_LowStock_SendsNotification() {
         // Arrange
@@ -156,9 +199,29 @@ class ProductServiceTest {
     }
 
     @Test
-    void deleteProduct_Success() {
+    void updateStock_RecordsMovementWithDelta() {
         // Arrange
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        ArgumentCaptor<StockMovement> captor = ArgumentCaptor.forClass(StockMovement.class);
+
+        // Act
+        productService.updateStock(1L, 60);
+
+        // Assert
+        verify(stockMovementRepository).save(captor.capture());
+        assertEquals(-40, captor.getValue().getQuantityDelta());
+        assertEquals(60, captor.getValue().getQuantityAfter());
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(40, ((StockDecreasedEvent) events.getAllValues().get(0)).getUnits());
+        assertEquals(1L, ((ProductChangedEvent) events.getAllValues().get(1)).getProductId());
+    }
+
+    @Test
+    void deleteProduct_Success() {
+        // Arrange
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testProduct));
         doNothing().when(productRepository).delete(any(Product.class));
 
         // Act
@@ -166,5 +229,46 @@ class ProductServiceTest {
 
         // Assert
         verify(productRepository, times(1)).delete(testProduct);
+        verify(categoryRepository).adjustProductCount(1L, -1);
+    }
+
+    @Test
+    void getProductsByCategory_WithSubcategories_QueriesByPathPrefix() {
+        // Arrange
+        when(categoryTree.path(1L)).thenReturn("/1/");
+        when(productRepository.findByCategoryPathPrefix("/1/%")).thenReturn(List.of(testProduct));
+
+        // Act
+        List<ProductResponse> products = productService.getProductsByCategory(1L, true);
+
+        // Assert
+        assertEquals(1, products.size());
+        verify(productRepository, never()).findByCategoryId(any());
+    }
+
+    @Test
+    void getAllProducts_SparseFields_ReturnsRequestedFieldsOnly() {
+        // Arrange
+        List<ProductField> fields = List.of(ProductField.ID, ProductField.SKU, ProductField.QUANTITY);
+        when(productRepository.findAllProjected(fields))
+                .thenReturn(Collections.singletonList(new Object[]{1L, "TEST-001", 100}));
+
+        // Act
+        List<Map<String, Object>> products = productService.getAllProducts(List.of("id", "sku", "quantity", "sku"));
+
+        // Assert
+        assertEquals(1, products.size());
+        assertEquals(List.of("id", "sku", "quantity"), List.copyOf(products.get(0).keySet()));
+        assertEquals("TEST-001", products.get(0).get("sku"));
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    void getAllProducts_UnknownField_ThrowsException() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> {
+            productService.getAllProducts(List.of("id", "password"));
+        });
+        verify(productRepository, never()).findAllProjected(any());
     }
 }
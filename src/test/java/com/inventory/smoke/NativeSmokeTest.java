@@ -0,0 +1,113 @@
+package com.inventory.smoke;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Black-box smoke tests against an already running instance, typically the
+ * native binary. Skipped unless {@code smoke.baseUrl} is set, e.g.
+ * {@code mvn test -Dtest=NativeSmokeTest -Dsmoke.baseUrl=http://localhost:8080/api}.
+ */
+@EnabledIfSystemProperty(named = "smoke.baseUrl", matches = ".+")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NativeSmokeTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static HttpClient client;
+    private static String baseUrl;
+    private static String username;
+    private static String token;
+
+    @BeforeAll
+    static void setUp() {
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        baseUrl = System.getProperty("smoke.baseUrl");
+        username = "smoke" + System.currentTimeMillis();
+    }
+
+    @Test
+    @Order(1)
+    void unauthenticatedRequest_Returns401() throws Exception {
+        HttpResponse<String> response = send(get("/products"));
+
+        assertEquals(401, response.statusCode());
+        assertTrue(response.body().contains("Unauthorized"));
+    }
+
+    @Test
+    @Order(2)
+    void register_ReturnsCreated() throws Exception {
+        String body = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\","
+                + "\"password\":\"secret123\",\"fullName\":\"Smoke Test\"}";
+
+        HttpResponse<String> response = send(post("/auth/register", body));
+
+        assertEquals(201, response.statusCode(), response.body());
+        assertTrue(response.body().contains("ROLE_USER"));
+    }
+
+    @Test
+    @Order(3)
+    void login_ReturnsSignedToken() throws Exception {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"secret123\"}";
+
+        HttpResponse<String> response = send(post("/auth/login", body));
+
+        assertEquals(200, response.statusCode(), response.body());
+        Matcher matcher = TOKEN.matcher(response.body());
+        assertTrue(matcher.find());
+        token = matcher.group(1);
+    }
+
+    @Test
+    @Order(4)
+    void authenticatedReads_Succeed() throws Exception {
+        assertEquals(200, send(authorized(get("/products"))).statusCode());
+        assertEquals(200, send(authorized(get("/categories"))).statusCode());
+    }
+
+    @Test
+    @Order(5)
+    void writeWithUserRole_IsForbidden() throws Exception {
+        String body = "{\"name\":\"Smoke\",\"description\":\"Forbidden for ROLE_USER\"}";
+
+        HttpResponse<String> response = send(authorized(post("/categories", body)));
+
+        assertEquals(403, response.statusCode());
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder request) {
+        assertNotNull(token, "login must run first");
+        return request.header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(Duration.ofSeconds(10)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}